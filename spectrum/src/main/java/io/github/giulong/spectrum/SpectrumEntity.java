@@ -8,7 +8,10 @@ import io.github.giulong.spectrum.interfaces.Shared;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.FileUtils;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
 import io.github.giulong.spectrum.utils.events.EventsDispatcher;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.*;
@@ -25,9 +28,8 @@ import java.util.List;
 import static com.aventstack.extentreports.MediaEntityBuilder.createScreenCaptureFromPath;
 import static com.aventstack.extentreports.Status.*;
 import static io.github.giulong.spectrum.enums.Frame.MANUAL;
-import static java.util.UUID.randomUUID;
 import static org.openqa.selenium.By.tagName;
-import static org.openqa.selenium.OutputType.BYTES;
+import static org.openqa.selenium.OutputType.BASE64;
 
 @Slf4j
 public abstract class SpectrumEntity<T extends SpectrumEntity<T, Data>, Data> {
@@ -36,6 +38,8 @@ public abstract class SpectrumEntity<T extends SpectrumEntity<T, Data>, Data> {
 
     private final FileUtils fileUtils = FileUtils.getInstance();
 
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+
     @Shared
     protected Configuration configuration;
 
@@ -150,15 +154,28 @@ public abstract class SpectrumEntity<T extends SpectrumEntity<T, Data>, Data> {
      * @param status the log's status
      * @return the generated screenshot
      */
-    @SneakyThrows
     public Media addScreenshotToReport(final String msg, final Status status) {
-        final Path screenshotPath = testData.getScreenshotFolderPath().resolve(String.format("%s-%s.png", MANUAL.getValue(), randomUUID()));
+        String base64;
 
         try {
-            Files.write(screenshotPath, driver.findElement(tagName("body")).getScreenshotAs(BYTES));
+            base64 = driver.findElement(tagName("body")).getScreenshotAs(BASE64);
         } catch (WebDriverException e) {
             log.debug("Falling back to non-element screenshot due to: {}", e.getMessage());
-            Files.write(screenshotPath, ((TakesScreenshot) driver).getScreenshotAs(BYTES));
+            base64 = ((TakesScreenshot) driver).getScreenshotAs(BASE64);
+        }
+
+        base64 = configuration.getExtent().getScreenshot().shrink(base64);
+
+        final Path screenshotPath = screenshotWriter.write(testData.getScreenshotFolderPath(), MANUAL, base64);
+        final VideoStream videoStream = testData.getVideoStream();
+        final FrameBuffer frameBuffer = testData.getFrameBuffer();
+
+        if ((frameBuffer != null || videoStream != null) && configuration.getVideo().shouldRecord(MANUAL.getValue())) {
+            if (frameBuffer != null) {
+                frameBuffer.add(MANUAL, base64);
+            } else if (videoStream != null) {
+                videoStream.push(base64);
+            }
         }
 
         final Media screenshot = createScreenCaptureFromPath(screenshotPath.toString()).build();
@@ -17,6 +17,11 @@ public class SpectrumSessionListener implements LauncherSessionListener {
     public static final String CONFIGURATION = "configuration";
     public static final String PROFILE_NODE = "/runtime/profiles";
     public static final String VARS_NODE = "/vars";
+    public static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+    public static final String PARALLEL_MODE_DEFAULT = "junit.jupiter.execution.parallel.mode.default";
+    public static final String PARALLEL_MODE_CLASSES_DEFAULT = "junit.jupiter.execution.parallel.mode.classes.default";
+    public static final String PARALLEL_STRATEGY = "junit.jupiter.execution.parallel.config.strategy";
+    public static final String PARALLEL_FIXED_PARALLELISM = "junit.jupiter.execution.parallel.config.fixed.parallelism";
 
     private final Vars vars = Vars.getInstance();
     private final YamlUtils yamlUtils = YamlUtils.getInstance();
@@ -27,6 +32,8 @@ public class SpectrumSessionListener implements LauncherSessionListener {
     private final EventsDispatcher eventsDispatcher = EventsDispatcher.getInstance();
     private final Configuration configuration = Configuration.getInstance();
     private final MetadataManager metadataManager = MetadataManager.getInstance();
+    private final DriverPool driverPool = DriverPool.getInstance();
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
 
     @Override
     @SuppressWarnings("unchecked")
@@ -38,9 +45,11 @@ public class SpectrumSessionListener implements LauncherSessionListener {
         log.info(freeMarkerWrapper.interpolate(fileUtils.read("/banner.txt"), bannerYaml));
 
         parseConfiguration();
+        configureParallelism();
         session.getLauncher().registerTestExecutionListeners(configuration.getSummary().getSummaryGeneratingListener());
 
         configuration.getRuntime().getEnvironment().sessionOpened();
+        driverPool.sessionOpened();
         configuration.getTestBook().sessionOpened();
         configuration.getSummary().sessionOpened();
         metadataManager.sessionOpened();
@@ -52,9 +61,11 @@ public class SpectrumSessionListener implements LauncherSessionListener {
 
     @Override
     public void launcherSessionClosed(final LauncherSession session) {
+        driverPool.sessionClosed();
         configuration.getRuntime().getEnvironment().sessionClosed();
         configuration.getTestBook().sessionClosed();
         configuration.getSummary().sessionClosed();
+        screenshotWriter.sessionClosed();
         extentReporter.sessionClosed();
         extentReporterInline.sessionClosed();
         eventsDispatcher.sessionClosed();
@@ -80,6 +91,33 @@ public class SpectrumSessionListener implements LauncherSessionListener {
         log.trace("Configuration:\n{}", yamlUtils.write(configuration));
     }
 
+    protected void configureParallelism() {
+        final int parallelism = configuration.getRuntime().getParallelism();
+
+        if (parallelism < 2) {
+            log.debug("Parallelism is {}. Running tests sequentially", parallelism);
+            return;
+        }
+
+        log.info("Running tests in parallel with parallelism {}", parallelism);
+        final String concurrent = "concurrent";
+
+        setPropertyIfAbsent(PARALLEL_ENABLED, "true");
+        setPropertyIfAbsent(PARALLEL_MODE_DEFAULT, concurrent);
+        setPropertyIfAbsent(PARALLEL_MODE_CLASSES_DEFAULT, concurrent);
+        setPropertyIfAbsent(PARALLEL_STRATEGY, "fixed");
+        setPropertyIfAbsent(PARALLEL_FIXED_PARALLELISM, String.valueOf(parallelism));
+    }
+
+    protected void setPropertyIfAbsent(final String key, final String value) {
+        if (System.getProperty(key) != null) {
+            log.debug("Property {} already set to {}. Not overriding it", key, System.getProperty(key));
+            return;
+        }
+
+        System.setProperty(key, value);
+    }
+
     protected List<String> parseProfiles() {
         return Arrays.stream(Optional
                         .ofNullable(yamlUtils.readNode(PROFILE_NODE, CONFIGURATION, String.class))
@@ -3,6 +3,7 @@ package io.github.giulong.spectrum.drivers;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.DriverPool;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.MutableCapabilities;
@@ -22,6 +23,9 @@ public abstract class Driver<T extends MutableCapabilities, U extends DriverServ
     @JsonIgnore
     protected final Configuration configuration = Configuration.getInstance();
 
+    @JsonIgnore
+    protected final DriverPool driverPool = DriverPool.getInstance();
+
     @JsonPropertyDescription("WebDriver's specific capabilities")
     protected T capabilities;
 
@@ -34,17 +38,27 @@ public abstract class Driver<T extends MutableCapabilities, U extends DriverServ
         return (T) capabilities.merge(new DesiredCapabilities(gridCapabilities));
     }
 
-    public synchronized WebDriver build() {
-        buildCapabilities();
+    public WebDriver build(final String className) {
+        WEB_DRIVER_THREAD_LOCAL.set(ThreadGuard.protect(driverPool.leaseFor(this, className)));
+
+        return WEB_DRIVER_THREAD_LOCAL.get();
+    }
+
+    public WebDriver create() {
+        initCapabilities();
 
         final WebDriver webDriver = configuration.getRuntime().getEnvironment().setupFor(this);
 
         configureWaitsOf(webDriver, configuration.getDrivers().getWaits());
-
-        WEB_DRIVER_THREAD_LOCAL.set(ThreadGuard.protect(webDriver));
         log.debug("Capabilities: {}", capabilities.toJson());
 
-        return WEB_DRIVER_THREAD_LOCAL.get();
+        return webDriver;
+    }
+
+    protected synchronized void initCapabilities() {
+        if (capabilities == null) {
+            buildCapabilities();
+        }
     }
 
     public void configureWaitsOf(final WebDriver webDriver, final Configuration.Drivers.Waits waits) {
@@ -56,7 +70,8 @@ public abstract class Driver<T extends MutableCapabilities, U extends DriverServ
                 .scriptTimeout(waits.getScriptTimeout());
     }
 
-    public void shutdown() {
-        WEB_DRIVER_THREAD_LOCAL.get().quit();
+    public void shutdown(final boolean evict) {
+        driverPool.release(evict);
+        WEB_DRIVER_THREAD_LOCAL.remove();
     }
 }
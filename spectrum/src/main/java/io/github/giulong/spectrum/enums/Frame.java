@@ -8,7 +8,10 @@ public enum Frame {
 
     AUTO_BEFORE("autoBefore"),
     AUTO_AFTER("autoAfter"),
-    MANUAL("manual");
+    MANUAL("manual"),
+    BACKGROUND("background"),
+    SCREENCAST("screencast"),
+    SCREEN_RECORDING("screenRecording");
 
     private final String value;
 
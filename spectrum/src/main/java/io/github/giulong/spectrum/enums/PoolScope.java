@@ -0,0 +1,19 @@
+package io.github.giulong.spectrum.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public enum PoolScope {
+
+    TEST("test"),
+    CLASS("class"),
+    SUITE("suite");
+
+    private final String value;
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+}
@@ -1,20 +1,30 @@
 package io.github.giulong.spectrum.extensions.resolvers;
 
 import com.aventstack.extentreports.ExtentTest;
+import io.appium.java_client.AppiumDriver;
+import io.github.giulong.spectrum.enums.Frame;
 import io.github.giulong.spectrum.internals.EventsListener;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.DriverPool;
 import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.video.BackgroundCapture;
+import io.github.giulong.spectrum.utils.video.FrameSampler;
+import io.github.giulong.spectrum.utils.video.ScreenRecorder;
+import io.github.giulong.spectrum.utils.video.ScreencastCapture;
+import io.github.giulong.spectrum.utils.video.Video;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.support.TypeBasedParameterResolver;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
 import org.openqa.selenium.support.events.EventFiringDecorator;
-import org.openqa.selenium.support.events.WebDriverListener;
 
+import java.util.Optional;
 import java.util.regex.Pattern;
 
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
 import static io.github.giulong.spectrum.extensions.resolvers.ExtentTestResolver.EXTENT_TEST;
 import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
@@ -24,6 +34,9 @@ import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 public class DriverResolver extends TypeBasedParameterResolver<WebDriver> {
 
     public static final String DRIVER = "driver";
+    public static final String FRAME_CAPTURE = "frameCapture";
+
+    private final DriverPool driverPool = DriverPool.getInstance();
 
     @Override
     public WebDriver resolveParameter(final ParameterContext arg0, final ExtensionContext context) throws ParameterResolutionException {
@@ -32,18 +45,67 @@ public class DriverResolver extends TypeBasedParameterResolver<WebDriver> {
         final ExtensionContext.Store store = context.getStore(GLOBAL);
         final ExtensionContext.Store rootStore = context.getRoot().getStore(GLOBAL);
         final Configuration configuration = rootStore.get(CONFIGURATION, Configuration.class);
-        final WebDriver driver = configuration.getRuntime().getDriver().build();
-        final WebDriverListener eventListener = EventsListener.builder()
+        final WebDriver driver = configuration.getRuntime().getDriver().build(context.getRequiredTestClass().getName());
+        final WebDriver leasedDriver = driverPool.getLeasedDriver().orElse(driver);
+        final Video video = configuration.getVideo();
+        final Configuration.Drivers.Events events = configuration.getDrivers().getEvents();
+        final TestData testData = store.get(TEST_DATA, TestData.class);
+
+        final Frame fallbackFrame = startFrameCapture(store, video, driver, leasedDriver, testData);
+
+        final EventsListener eventsListener = EventsListener.builder()
                 .locatorPattern(Pattern.compile(configuration.getExtent().getLocatorRegex()))
                 .extentTest(store.get(EXTENT_TEST, ExtentTest.class))
-                .video(configuration.getVideo())
-                .testData(store.get(TEST_DATA, TestData.class))
-                .driver(driver)
-                .events(configuration.getDrivers().getEvents())
+                .video(video)
+                .testData(testData)
+                .driver(leasedDriver)
+                .events(events)
+                .frameSampler(new FrameSampler(video.getCapture(), events))
+                .fallbackFrame(fallbackFrame)
                 .build();
-        final WebDriver decoratedDriver = new EventFiringDecorator<>(eventListener).decorate(driver);
+
+        if (!eventsListener.isActive()) {
+            log.debug("No driver event is active. Skipping the decoration of the driver");
+            store.put(DRIVER, driver);
+            return driver;
+        }
+
+        final WebDriver decoratedDriver = new EventFiringDecorator<>(eventsListener).decorate(driver);
 
         store.put(DRIVER, decoratedDriver);
         return decoratedDriver;
     }
+
+    /**
+     * Starts the capture of the video frames that don't come from driver events, storing it to be stopped when the test ends.
+     * Drivers that can't screencast or record their screen, as configured, fall back to the background capture if
+     * configured too, or to the frames taken after driver events otherwise. Captures running on other threads get the
+     * leased driver, since the one returned to tests can be used only by the test's thread.
+     *
+     * @return the frame to record in place of the configured ones, or null if no fallback is needed
+     */
+    protected Frame startFrameCapture(final ExtensionContext.Store store, final Video video, final WebDriver driver, final WebDriver leasedDriver, final TestData testData) {
+        if (video.isScreenRecording() && ScreenRecorder.supports(leasedDriver)) {
+            store.put(FRAME_CAPTURE, new ScreenRecorder(video, (AppiumDriver) leasedDriver, testData).start());
+            return null;
+        }
+
+        final Optional<DevTools> devTools = video.isScreencast() ? ScreencastCapture.devToolsOf(leasedDriver) : Optional.empty();
+        if (devTools.isPresent()) {
+            store.put(FRAME_CAPTURE, new ScreencastCapture(video, devTools.get(), testData).start());
+            return null;
+        }
+
+        if (video.isBackground()) {
+            store.put(FRAME_CAPTURE, new BackgroundCapture(video, leasedDriver, testData).start());
+            return null;
+        }
+
+        if (video.isScreencast() || video.isScreenRecording()) {
+            log.warn("Driver {} can't capture the configured frames. Falling back to {} frames", driver, AUTO_AFTER.getValue());
+            return AUTO_AFTER;
+        }
+
+        return null;
+    }
 }
@@ -3,6 +3,9 @@ package io.github.giulong.spectrum.extensions.resolvers;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.utils.FileUtils;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -36,7 +39,8 @@ public class TestDataResolver extends TypeBasedParameterResolver<TestData> {
         final String testId = buildTestIdFrom(className, methodDisplayName);
         final String fileName = fileUtils.removeExtensionFrom(extent.getFileName());
         final Path screenshotFolderPath = getScreenshotFolderPathForCurrentTest(reportFolder, fileName, classDisplayName, methodDisplayName);
-        final Path videoPath = getVideoPathForCurrentTest(configuration.getVideo().isDisabled(), reportFolder, fileName, classDisplayName, methodDisplayName);
+        final Video video = configuration.getVideo();
+        final Path videoPath = getVideoPathForCurrentTest(video, reportFolder, fileName, classDisplayName, methodDisplayName);
         final TestData testData = TestData
                 .builder()
                 .className(className)
@@ -46,6 +50,8 @@ public class TestDataResolver extends TypeBasedParameterResolver<TestData> {
                 .testId(testId)
                 .screenshotFolderPath(screenshotFolderPath)
                 .videoPath(videoPath)
+                .videoStream(getVideoStreamFor(video, videoPath))
+                .frameBuffer(getFrameBufferFor(video, videoPath))
                 .build();
 
         context.getStore(GLOBAL).put(TEST_DATA, testData);
@@ -58,15 +64,35 @@ public class TestDataResolver extends TypeBasedParameterResolver<TestData> {
     }
 
     @SneakyThrows
-    public Path getVideoPathForCurrentTest(final boolean disabled, final String reportsFolder, final String extentFileName, final String className, final String methodName) {
-        if (disabled) {
+    public Path getVideoPathForCurrentTest(final Video video, final String reportsFolder, final String extentFileName, final String className, final String methodName) {
+        if (video.isDisabled()) {
             log.trace("Video disabled: avoiding video folder creation");
             return null;
         }
 
         return fileUtils
                 .deleteContentOf(Path.of(reportsFolder, extentFileName, "videos", className, methodName).toAbsolutePath())
-                .resolve(String.format("%s.mp4", randomUUID()));
+                .resolve(String.format("%s.%s", randomUUID(), video.getExtension()));
+    }
+
+    public VideoStream getVideoStreamFor(final Video video, final Path videoPath) {
+        if (videoPath == null || !video.isStreaming()) {
+            log.trace("Video streaming disabled");
+            return null;
+        }
+
+        return new VideoStream(video, videoPath);
+    }
+
+    public FrameBuffer getFrameBufferFor(final Video video, final Path videoPath) {
+        final Video.FailuresOnly failuresOnly = video.getFailuresOnly();
+
+        if (videoPath == null || failuresOnly == null || !failuresOnly.isEnabled()) {
+            log.trace("Frames buffering disabled");
+            return null;
+        }
+
+        return new FrameBuffer(failuresOnly);
     }
 
     public static String buildTestIdFrom(final String className, final String testName) {
@@ -1,6 +1,7 @@
 package io.github.giulong.spectrum.extensions.watchers;
 
 import io.github.giulong.spectrum.enums.Result;
+import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.events.EventsDispatcher;
 import org.junit.jupiter.api.extension.*;
 
@@ -8,7 +9,9 @@ import java.util.Optional;
 import java.util.Set;
 
 import static io.github.giulong.spectrum.enums.Result.*;
+import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
 import static io.github.giulong.spectrum.utils.events.EventsDispatcher.*;
+import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 
 public class EventsWatcher implements TestWatcher, BeforeAllCallback, BeforeEachCallback, AfterAllCallback {
 
@@ -41,14 +44,28 @@ public class EventsWatcher implements TestWatcher, BeforeAllCallback, BeforeEach
 
     @Override
     public void testAborted(final ExtensionContext context, final Throwable throwable) {
+        persistFramesOf(context);
         notifyTest(context, AFTER, ABORTED, Set.of(TEST));
     }
 
     @Override
     public void testFailed(final ExtensionContext context, final Throwable exception) {
+        persistFramesOf(context);
         notifyTest(context, AFTER, FAILED, Set.of(TEST));
     }
 
+    /**
+     * Writes the frames buffered in memory for the failed or aborted test, if any, so that its video gets encoded.
+     * Frames of the other tests are discarded when the video is finalized.
+     */
+    public void persistFramesOf(final ExtensionContext context) {
+        final TestData testData = context.getStore(GLOBAL).get(TEST_DATA, TestData.class);
+
+        if (testData != null && testData.getFrameBuffer() != null) {
+            testData.getFrameBuffer().persist(testData);
+        }
+    }
+
     public void notifyClass(final ExtensionContext context, final String reason, final Result result, final Set<String> tags) {
         final String className = context.getDisplayName();
 
@@ -0,0 +1,17 @@
+package io.github.giulong.spectrum.interfaces;
+
+public interface FrameCapture {
+
+    FrameCapture start();
+
+    void stop();
+
+    /**
+     * Tells whether the whole video is produced by this capture, so that there are no frames to encode when it's stopped.
+     *
+     * @return true if this capture produces the video by itself
+     */
+    default boolean recordsVideo() {
+        return false;
+    }
+}
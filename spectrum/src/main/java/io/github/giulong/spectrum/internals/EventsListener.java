@@ -4,8 +4,14 @@ import com.aventstack.extentreports.ExtentTest;
 import io.github.giulong.spectrum.enums.Frame;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.utils.Configuration.Drivers.Events;
+import io.github.giulong.spectrum.utils.FileUtils;
+import io.github.giulong.spectrum.utils.MessageTemplate;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
 import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.FrameSampler;
 import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import lombok.Builder;
 import lombok.Generated;
 import lombok.SneakyThrows;
@@ -17,26 +23,41 @@ import org.openqa.selenium.support.events.WebDriverListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
 
+import static ch.qos.logback.classic.Level.*;
 import static com.aventstack.extentreports.markuputils.ExtentColor.YELLOW;
 import static com.aventstack.extentreports.markuputils.MarkupHelper.createLabel;
 import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
 import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
-import static java.util.UUID.randomUUID;
-import static org.openqa.selenium.OutputType.BYTES;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 
 @Slf4j
 @Builder
 public class EventsListener implements WebDriverListener {
 
-    private static final String TAG = "<.*?>";
+    private static final Map<WebDriver, Map<WebElement, String>> SELECTORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicInteger SELECTORS_CACHE_HITS = new AtomicInteger();
+
+    private static final String PAGE_CHANGES_SCRIPT = FileUtils.getInstance().read("/js/pageChanges.js");
+
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+
+    private final Set<Long> framesHashes = new HashSet<>();
+
+    private final Map<Frame, Boolean> recordedFrames = new EnumMap<>(Frame.class);
+
+    private final AtomicReference<String> pageChangesToken = new AtomicReference<>();
 
     private Pattern locatorPattern;
     private ExtentTest extentTest;
@@ -44,8 +65,38 @@ public class EventsListener implements WebDriverListener {
     private TestData testData;
     private WebDriver driver;
     private Events events;
-
+    private FrameSampler frameSampler;
+    private Frame fallbackFrame;
+
+    /**
+     * Number of selectors taken from the per-session cache, instead of being extracted again from the webElement.
+     *
+     * @return the number of selectors cache hits
+     */
+    public static int getSelectorsCacheHits() {
+        return SELECTORS_CACHE_HITS.get();
+    }
+
+    /**
+     * Extracts the selector of the provided webElement, caching it for the driver's session. Keys are weak, so
+     * entries go away together with the webElements and with the driver they belong to.
+     */
     protected String extractSelectorFrom(final WebElement webElement) {
+        final Map<WebElement, String> selectors = SELECTORS.computeIfAbsent(driver, d -> Collections.synchronizedMap(new WeakHashMap<>()));
+        final String selector = selectors.get(webElement);
+
+        if (selector != null) {
+            SELECTORS_CACHE_HITS.incrementAndGet();
+            return selector;
+        }
+
+        final String extracted = parseSelectorFrom(webElement);
+        selectors.put(webElement, extracted);
+
+        return extracted;
+    }
+
+    protected String parseSelectorFrom(final WebElement webElement) {
         final String fullWebElement = webElement.toString();
         final Matcher matcher = locatorPattern.matcher(fullWebElement);
 
@@ -57,30 +108,102 @@ public class EventsListener implements WebDriverListener {
         return String.join(" -> ", locators);
     }
 
-    protected List<String> parse(final Object[] args, final String format) {
-        return Arrays
-                .stream(args)
-                .map(arg -> String.format(format, arg instanceof WebElement
-                        ? extractSelectorFrom((WebElement) arg)
-                        : arg))
-                .toList();
+    /**
+     * Renders the provided arg. Arrays, exceptions and suppliers are passed as they are by listeners,
+     * so that they're turned into strings only when the event is actually logged.
+     */
+    protected String render(final Object arg) {
+        if (arg instanceof WebElement webElement) {
+            return extractSelectorFrom(webElement);
+        }
+
+        if (arg instanceof Object[] array) {
+            return Arrays.toString(array);
+        }
+
+        if (arg instanceof Throwable throwable) {
+            return throwable.getMessage();
+        }
+
+        if (arg instanceof Supplier<?> supplier) {
+            return String.valueOf(supplier.get());
+        }
+
+        return String.valueOf(arg);
+    }
+
+    protected Object[] parse(final Object[] args) {
+        final Object[] parsed = new Object[args.length];
+
+        for (int i = 0; i < args.length; i++) {
+            parsed[i] = render(args[i]);
+        }
+
+        return parsed;
     }
 
-    protected List<String> parse(final Object[] args) {
-        return parse(args, "%s");
+    public Path record(final Frame frame, final Configuration.Drivers.Event event) {
+        if (!recordedFrames.computeIfAbsent(frame, f -> video.shouldRecord(f.getValue()) || f == fallbackFrame)) {
+            log.trace("Not recording frame {}", frame);
+            return null;
+        }
+
+        if (!frameSampler.accept(frame, event)) {
+            return null;
+        }
+
+        if (!pageChanged()) {
+            log.trace("Not recording frame {}: page unchanged", frame);
+            return null;
+        }
+
+        final String screenshot = video.getScreenshot().take(driver);
+        if (!framesHashes.add(hashOf(screenshot))) {
+            log.trace("Discarding duplicate frame {}", frame);
+            return null;
+        }
+
+        final FrameBuffer frameBuffer = testData.getFrameBuffer();
+        if (frameBuffer != null) {
+            log.trace("Buffering frame {}", frame);
+            frameBuffer.add(frame, screenshot);
+            return null;
+        }
+
+        final VideoStream videoStream = testData.getVideoStream();
+        if (videoStream != null) {
+            log.trace("Streaming frame {}", frame);
+            videoStream.push(screenshot);
+            return null;
+        }
+
+        log.trace("Recording frame {}", frame);
+        return screenshotWriter.write(testData.getScreenshotFolderPath(), frame, screenshot);
     }
 
-    @SneakyThrows
-    public Path record(final Frame frame) {
-        final Path screenshotPath = testData.getScreenshotFolderPath().resolve(String.format("%s-%s.png", frame.getValue(), randomUUID()));
+    /**
+     * Tells whether the page changed since the previous frame, according to the token returned by the page changes script.
+     * Drivers that can't run the script, such as native mobile contexts, are always considered changed.
+     */
+    protected boolean pageChanged() {
+        if (!video.getCapture().isDetectChanges() || !(driver instanceof JavascriptExecutor javascriptExecutor)) {
+            return true;
+        }
 
-        if (video.shouldRecord(screenshotPath.getFileName().toString())) {
-            log.trace("Recording frame {}", frame);
-            return Files.write(screenshotPath, ((TakesScreenshot) driver).getScreenshotAs(BYTES));
+        try {
+            final String token = String.valueOf(javascriptExecutor.executeScript(PAGE_CHANGES_SCRIPT));
+            return !token.equals(pageChangesToken.getAndSet(token));
+        } catch (WebDriverException e) {
+            log.debug("Cannot detect page changes: {}", e.getMessage());
+            return true;
         }
+    }
+
+    protected long hashOf(final String screenshot) {
+        final CRC32C crc32c = new CRC32C();
+        crc32c.update(screenshot.getBytes(US_ASCII));
 
-        log.trace("Not recording frame {}", frame);
-        return null;
+        return (long) screenshot.length() << Integer.SIZE | crc32c.getValue();
     }
 
     @SneakyThrows
@@ -93,56 +216,80 @@ public class EventsListener implements WebDriverListener {
         }
 
         if (condition) {
-            final String logMessage = String.format(event.getMessage(), parse(args).toArray());
-            final String extentMessage = String.format(event.getMessage(), parse(args, "<code>%s</code>").toArray());
+            final MessageTemplate.Messages messages = event.getTemplate().render(parse(args));
 
-            logConsumer.accept(logMessage.replaceAll(TAG, ""));
-            record(frame);
-            extentConsumer.accept(extentMessage);
+            logConsumer.accept(messages.getLog());
+            record(frame, event);
+            extentConsumer.accept(messages.getHtml());
         }
     }
 
+    /**
+     * Tells whether any of the configured events can have an effect, that is if at least one is logged
+     * at the current log level, waits before being processed, or has a wrong level to warn about.
+     *
+     * @return false if decorating the driver with this listener would be useless
+     */
+    public boolean isActive() {
+        return events.isActive(this::isActive);
+    }
+
+    protected boolean isActive(final Configuration.Drivers.Event event) {
+        if (event == null) {
+            return false;
+        }
+
+        return switch (event.getLevel().levelInt) {
+            case OFF_INT -> false;
+            case TRACE_INT -> event.getWait() > 0 || log.isTraceEnabled();
+            case DEBUG_INT -> event.getWait() > 0 || log.isDebugEnabled();
+            case INFO_INT -> event.getWait() > 0 || log.isInfoEnabled();
+            case WARN_INT -> event.getWait() > 0 || log.isWarnEnabled();
+            default -> true;
+        };
+    }
+
     protected void listenTo(final Frame frame, final Configuration.Drivers.Event event, final Object... args) {
-        switch (event.getLevel().levelStr) {
-            case "OFF" -> {
+        switch (event.getLevel().levelInt) {
+            case OFF_INT -> {
             }
-            case "TRACE" -> apply(log.isTraceEnabled(), log::trace, extentTest::info, frame, event, args);
-            case "DEBUG" -> apply(log.isDebugEnabled(), log::debug, extentTest::info, frame, event, args);
-            case "INFO" -> apply(log.isInfoEnabled(), log::info, extentTest::info, frame, event, args);
-            case "WARN" -> apply(log.isWarnEnabled(), log::warn, message -> extentTest.warning(createLabel(message, YELLOW)), frame, event, args);
+            case TRACE_INT -> apply(log.isTraceEnabled(), log::trace, extentTest::info, frame, event, args);
+            case DEBUG_INT -> apply(log.isDebugEnabled(), log::debug, extentTest::info, frame, event, args);
+            case INFO_INT -> apply(log.isInfoEnabled(), log::info, extentTest::info, frame, event, args);
+            case WARN_INT -> apply(log.isWarnEnabled(), log::warn, message -> extentTest.warning(createLabel(message, YELLOW)), frame, event, args);
             default -> log.warn("Message '{}' won't be logged. Wrong log level set in configuration.yaml. Choose one among OFF, TRACE, DEBUG, INFO, WARN",
-                    String.format(event.getMessage(), parse(args).toArray()));
+                    String.format(event.getMessage(), parse(args)));
         }
     }
 
     @Override
     @Generated
     public void beforeAnyCall(final Object target, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyCall(), target, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyCall(), target, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyCall(final Object target, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyCall(), target, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyCall(), target, method, args, result);
     }
 
     @Override
     @Generated
     public void onError(final Object target, final Method method, final Object[] args, final InvocationTargetException e) {
-        listenTo(AUTO_AFTER, events.getOnError(), target, method, Arrays.toString(args), e.getMessage());
+        listenTo(AUTO_AFTER, events.getOnError(), target, method, args, e);
     }
 
     @Override
     @Generated
     public void beforeAnyWebDriverCall(final WebDriver webDriver, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyWebDriverCall(), webDriver, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyWebDriverCall(), webDriver, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyWebDriverCall(final WebDriver webDriver, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyWebDriverCall(), webDriver, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyWebDriverCall(), webDriver, method, args, result);
     }
 
     @Override
@@ -214,7 +361,7 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void afterGetPageSource(final WebDriver webDriver, final String result) {
-        listenTo(AUTO_AFTER, events.getAfterGetPageSource(), webDriver, result.replace("<", "&lt;").replace(">", "&gt;"));
+        listenTo(AUTO_AFTER, events.getAfterGetPageSource(), webDriver, (Supplier<String>) () -> result.replace("<", "&lt;").replace(">", "&gt;"));
     }
 
     @Override
@@ -268,25 +415,25 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeExecuteScript(final WebDriver webDriver, final String script, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeExecuteScript(), webDriver, script, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeExecuteScript(), webDriver, script, args);
     }
 
     @Override
     @Generated
     public void afterExecuteScript(final WebDriver webDriver, final String script, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterExecuteScript(), webDriver, script, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterExecuteScript(), webDriver, script, args, result);
     }
 
     @Override
     @Generated
     public void beforeExecuteAsyncScript(final WebDriver webDriver, final String script, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeExecuteAsyncScript(), webDriver, script, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeExecuteAsyncScript(), webDriver, script, args);
     }
 
     @Override
     @Generated
     public void afterExecuteAsyncScript(final WebDriver webDriver, final String script, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterExecuteAsyncScript(), webDriver, script, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterExecuteAsyncScript(), webDriver, script, args, result);
     }
 
     @Override
@@ -316,13 +463,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyWebElementCall(final WebElement element, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyWebElementCall(), element, method, element, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyWebElementCall(), element, method, element, args);
     }
 
     @Override
     @Generated
     public void afterAnyWebElementCall(final WebElement element, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyWebElementCall(), element, method, element, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyWebElementCall(), element, method, element, args, result);
     }
 
     @Override
@@ -352,13 +499,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeSendKeys(final WebElement element, final CharSequence... keysToSend) {
-        listenTo(AUTO_BEFORE, events.getBeforeSendKeys(), element, Arrays.toString(keysToSend));
+        listenTo(AUTO_BEFORE, events.getBeforeSendKeys(), element, keysToSend);
     }
 
     @Override
     @Generated
     public void afterSendKeys(final WebElement element, final CharSequence... keysToSend) {
-        listenTo(AUTO_AFTER, events.getAfterSendKeys(), element, Arrays.toString(keysToSend));
+        listenTo(AUTO_AFTER, events.getAfterSendKeys(), element, keysToSend);
     }
 
     @Override
@@ -508,13 +655,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyNavigationCall(final WebDriver.Navigation navigation, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyNavigationCall(), navigation, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyNavigationCall(), navigation, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyNavigationCall(final WebDriver.Navigation navigation, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyNavigationCall(), navigation, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyNavigationCall(), navigation, method, args, result);
     }
 
     @Override
@@ -580,13 +727,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyAlertCall(final Alert alert, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyAlertCall(), alert, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyAlertCall(), alert, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyAlertCall(final Alert alert, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyAlertCall(), alert, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyAlertCall(), alert, method, args, result);
     }
 
     @Override
@@ -640,13 +787,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyOptionsCall(final WebDriver.Options options, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyOptionsCall(), options, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyOptionsCall(), options, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyOptionsCall(final WebDriver.Options options, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyOptionsCall(), options, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyOptionsCall(), options, method, args, result);
     }
 
     @Override
@@ -724,13 +871,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyTimeoutsCall(final WebDriver.Timeouts timeouts, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyTimeoutsCall(), timeouts, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyTimeoutsCall(), timeouts, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyTimeoutsCall(final WebDriver.Timeouts timeouts, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyTimeoutsCall(), timeouts, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyTimeoutsCall(), timeouts, method, args, result);
     }
 
     @Override
@@ -772,13 +919,13 @@ public class EventsListener implements WebDriverListener {
     @Override
     @Generated
     public void beforeAnyWindowCall(final WebDriver.Window window, final Method method, final Object[] args) {
-        listenTo(AUTO_BEFORE, events.getBeforeAnyWindowCall(), window, method, Arrays.toString(args));
+        listenTo(AUTO_BEFORE, events.getBeforeAnyWindowCall(), window, method, args);
     }
 
     @Override
     @Generated
     public void afterAnyWindowCall(final WebDriver.Window window, final Method method, final Object[] args, final Object result) {
-        listenTo(AUTO_AFTER, events.getAfterAnyWindowCall(), window, method, Arrays.toString(args), result);
+        listenTo(AUTO_AFTER, events.getAfterAnyWindowCall(), window, method, args, result);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package io.github.giulong.spectrum.types;
 
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -15,4 +17,6 @@ public class TestData {
     private String testId;
     private Path screenshotFolderPath;
     private Path videoPath;
+    private VideoStream videoStream;
+    private FrameBuffer frameBuffer;
 }
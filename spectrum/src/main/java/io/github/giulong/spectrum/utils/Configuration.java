@@ -1,9 +1,12 @@
 package io.github.giulong.spectrum.utils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.PoolScope;
+import io.github.giulong.spectrum.enums.ServiceScope;
 import io.github.giulong.spectrum.interfaces.JsonSchemaTypes;
 import io.github.giulong.spectrum.utils.environments.Environment;
 import io.github.giulong.spectrum.utils.events.EventsConsumer;
@@ -17,13 +20,16 @@ import org.openqa.selenium.firefox.FirefoxDriverLogLevel;
 
 import java.net.URL;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 
 import static ch.qos.logback.classic.Level.OFF;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
 @SuppressWarnings("unused")
@@ -100,6 +106,9 @@ public class Configuration {
 
         @JsonPropertyDescription("Cache folder for storing Spectrum internal cross-executions data")
         private String cacheFolder;
+
+        @JsonPropertyDescription("Number of tests to run concurrently. Values greater than 1 enable JUnit's parallel execution")
+        private int parallelism;
     }
 
     @Getter
@@ -143,6 +152,9 @@ public class Configuration {
 
         @JsonPropertyDescription("Where to generate the inline report")
         private String inlineReportFolder;
+
+        @JsonPropertyDescription("Size and format of the screenshots added to the report")
+        private Screenshot screenshot;
     }
 
     @Getter
@@ -188,6 +200,29 @@ public class Configuration {
         @JsonPropertyDescription("Events fired by the driver, automatically logged and added to the report according to the log level set when running the suite")
         private Events events;
 
+        @JsonPropertyDescription("Drivers pool, to reuse the same driver across tests")
+        private Pool pool;
+
+        @Getter
+        @Generated
+        public static class Pool {
+
+            @JsonPropertyDescription("Lifecycle of each driver. Can be test, class, or suite")
+            private PoolScope scope;
+
+            @JsonPropertyDescription("Maximum number of drivers alive at the same time. 0 means unlimited")
+            private int maxSize;
+
+            @JsonPropertyDescription("Maximum number of tests a driver can be leased to before being replaced with a new one. 0 means unlimited")
+            private int maxReuse;
+
+            @JsonPropertyDescription("Check the driver's session is still alive before leasing it again, replacing it otherwise")
+            private boolean healthCheck;
+
+            @JsonPropertyDescription("Number of drivers to keep started in background, ready to be leased. 0 means no warm-up")
+            private int warmUp;
+        }
+
         @Getter
         @Generated
         public static class Waits {
@@ -439,6 +474,29 @@ public class Configuration {
             private Event afterMaximize;
             private Event beforeFullscreen;
             private Event afterFullscreen;
+
+            @JsonIgnore
+            @Getter(NONE)
+            private volatile Boolean active;
+
+            /**
+             * Tells whether any of the events is active according to the provided predicate. The events don't change
+             * once the configuration is parsed, so this is computed just once instead of upon each driver resolution.
+             *
+             * @param activeEvent tells whether a single event is active
+             * @return true if at least one event is active
+             */
+            public boolean isActive(final Predicate<Event> activeEvent) {
+                if (active == null) {
+                    active = Arrays
+                            .stream(Events.class.getDeclaredFields())
+                            .filter(field -> field.getType() == Event.class)
+                            .map(field -> (Event) Reflections.getFieldValue(field, this))
+                            .anyMatch(activeEvent);
+                }
+
+                return active;
+            }
         }
 
         @Getter
@@ -454,6 +512,15 @@ public class Configuration {
 
             @JsonPropertyDescription("Milliseconds to wait before listening to this event")
             private long wait;
+
+            @JsonIgnore
+            private MessageTemplate template;
+
+            @SuppressWarnings("unused")
+            public void setMessage(final String message) {
+                this.message = message;
+                this.template = MessageTemplate.compile(message);
+            }
         }
     }
 
@@ -473,6 +540,9 @@ public class Configuration {
         @Getter
         @Generated
         public static class Local {
+
+            @JsonPropertyDescription("Lifecycle of the driver services. Can be driver, thread, or suite")
+            private ServiceScope serviceScope;
         }
 
         @Getter
@@ -0,0 +1,310 @@
+package io.github.giulong.spectrum.utils;
+
+import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.PoolScope;
+import io.github.giulong.spectrum.interfaces.SessionHook;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.PoolScope.CLASS;
+import static io.github.giulong.spectrum.enums.PoolScope.SUITE;
+import static io.github.giulong.spectrum.enums.PoolScope.TEST;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static lombok.AccessLevel.PRIVATE;
+
+@Slf4j
+@NoArgsConstructor(access = PRIVATE)
+public class DriverPool implements SessionHook {
+
+    private static final DriverPool INSTANCE = new DriverPool();
+
+    private static final String SUITE_KEY = "suite";
+
+    private static final String WARM_UP_KEY = "warmUp";
+
+    protected static final ThreadLocal<PooledDriver> LEASED_DRIVER_THREAD_LOCAL = new ThreadLocal<>();
+
+    private final Configuration configuration = Configuration.getInstance();
+
+    private final Map<String, Deque<PooledDriver>> idleDrivers = new ConcurrentHashMap<>();
+
+    private final Deque<PooledDriver> warmDrivers = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger warmUpHits = new AtomicInteger();
+
+    private final AtomicInteger warmUpMisses = new AtomicInteger();
+
+    private Semaphore permits = new Semaphore(Integer.MAX_VALUE);
+
+    private ExecutorService warmUpExecutor;
+
+    private volatile boolean closed;
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void sessionOpened() {
+        final Configuration.Drivers.Pool pool = configuration.getDrivers().getPool();
+        final int maxSize = pool.getMaxSize();
+
+        final int warmUp = pool.getWarmUp();
+
+        log.debug("Drivers pool with scope {}, max size {}, max reuse {}", pool.getScope().getValue(), maxSize, pool.getMaxReuse());
+        permits = new Semaphore(maxSize > 0 ? maxSize : Integer.MAX_VALUE);
+        closed = false;
+
+        if (warmUp > 0) {
+            log.info("Warming up {} drivers in background", warmUp);
+            warmUpExecutor = Executors.newFixedThreadPool(warmUp, Thread.ofPlatform().daemon().name("driver-warm-up-", 0).factory());
+
+            final Driver<?, ?, ?> driver = configuration.getRuntime().getDriver();
+            IntStream.range(0, warmUp).forEach(i -> warmUp(driver));
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    public void sessionClosed() {
+        closed = true;
+
+        if (warmUpExecutor != null) {
+            log.info("Drivers warm-up: {} hits, {} misses", warmUpHits.get(), warmUpMisses.get());
+            warmUpExecutor.shutdown();
+
+            if (!warmUpExecutor.awaitTermination(1, MINUTES)) {
+                log.warn("Drivers warm-up didn't complete in time");
+            }
+
+            warmUpExecutor = null;
+        }
+
+        log.debug("Quitting all the idle and warm drivers in the pool");
+        idleDrivers.keySet().forEach(this::quitIdleDriversOf);
+        warmDrivers.forEach(this::quit);
+        warmDrivers.clear();
+    }
+
+    public WebDriver leaseFor(final Driver<?, ?, ?> driver, final String className) {
+        final Configuration.Drivers.Pool pool = configuration.getDrivers().getPool();
+        final String key = keyFor(pool.getScope(), className);
+        final PooledDriver pooledDriver = Optional
+                .ofNullable(pollHealthyDriverFrom(idleDrivers.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()), pool.isHealthCheck()))
+                .or(() -> pollWarmDriverFor(driver, key, pool.isHealthCheck()))
+                .orElseGet(() -> create(driver, key));
+
+        final int leases = pooledDriver.lease();
+        LEASED_DRIVER_THREAD_LOCAL.set(pooledDriver);
+        log.debug("Leasing driver with key '{}'. Leases so far: {}", key, leases);
+
+        return pooledDriver.getWebDriver();
+    }
+
+    /**
+     * Returns the driver leased by the current thread as it was created, while the one returned to tests is bound to
+     * the thread that built it. Its actual type tells the features it supports, such as devtools.
+     *
+     * @return the driver leased by the current thread, if any
+     */
+    public Optional<WebDriver> getLeasedDriver() {
+        return Optional
+                .ofNullable(LEASED_DRIVER_THREAD_LOCAL.get())
+                .map(PooledDriver::getWebDriver);
+    }
+
+    public void release(final boolean evict) {
+        final PooledDriver pooledDriver = LEASED_DRIVER_THREAD_LOCAL.get();
+
+        if (pooledDriver == null) {
+            log.debug("No driver leased by the current thread. Nothing to release");
+            return;
+        }
+
+        LEASED_DRIVER_THREAD_LOCAL.remove();
+
+        final Configuration.Drivers.Pool pool = configuration.getDrivers().getPool();
+        final int maxReuse = pool.getMaxReuse();
+
+        final boolean exhausted = maxReuse > 0 && pooledDriver.getLeases() >= maxReuse;
+
+        if (evict || exhausted || pool.getScope() == TEST) {
+            log.debug("Evicting driver with key '{}' after {} leases", pooledDriver.getKey(), pooledDriver.getLeases());
+            quit(pooledDriver);
+            return;
+        }
+
+        log.debug("Returning driver with key '{}' to the pool", pooledDriver.getKey());
+        idleDrivers.computeIfAbsent(pooledDriver.getKey(), k -> new ConcurrentLinkedDeque<>()).offerFirst(pooledDriver);
+    }
+
+    public void closeClass(final String className) {
+        if (configuration.getDrivers().getPool().getScope() != CLASS) {
+            return;
+        }
+
+        log.debug("Quitting idle drivers of class {}", className);
+        quitIdleDriversOf(className);
+    }
+
+    protected String keyFor(final PoolScope scope, final String className) {
+        return scope == SUITE ? SUITE_KEY : className;
+    }
+
+    protected Optional<PooledDriver> pollWarmDriverFor(final Driver<?, ?, ?> driver, final String key, final boolean healthCheck) {
+        if (warmUpExecutor == null) {
+            return Optional.empty();
+        }
+
+        final PooledDriver warmDriver = pollHealthyDriverFrom(warmDrivers, healthCheck);
+
+        if (warmDriver == null) {
+            log.debug("No warm driver available. Creating a new one");
+            warmUpMisses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        log.debug("Using a warm driver for key '{}'", key);
+        warmUpHits.incrementAndGet();
+        warmUp(driver);
+
+        return Optional.of(new PooledDriver(key, warmDriver.getWebDriver(), warmDriver.getDriverService()));
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    protected void warmUp(final Driver<?, ?, ?> driver) {
+        warmUpExecutor.execute(() -> {
+            if (closed || !permits.tryAcquire()) {
+                log.debug("Skipping driver warm-up: session closed or pool full");
+                return;
+            }
+
+            final PooledDriver warmDriver;
+            try {
+                warmDriver = pooledDriverOf(driver, WARM_UP_KEY);
+            } catch (RuntimeException e) {
+                log.warn("Driver warm-up failed: {}", e.getMessage());
+                permits.release();
+                return;
+            }
+
+            if (closed) {
+                quit(warmDriver);
+                return;
+            }
+
+            log.debug("Driver warmed up");
+            warmDrivers.offerLast(warmDriver);
+        });
+    }
+
+    protected PooledDriver pollHealthyDriverFrom(final Deque<PooledDriver> drivers, final boolean healthCheck) {
+        for (PooledDriver pooledDriver = drivers.pollFirst(); pooledDriver != null; pooledDriver = drivers.pollFirst()) {
+            if (!healthCheck || isHealthy(pooledDriver.getWebDriver())) {
+                return pooledDriver;
+            }
+
+            log.warn("Driver with key '{}' failed the health check. Evicting it", pooledDriver.getKey());
+            quit(pooledDriver);
+        }
+
+        return null;
+    }
+
+    protected boolean isHealthy(final WebDriver webDriver) {
+        try {
+            webDriver.manage().timeouts().getImplicitWaitTimeout();
+            return true;
+        } catch (WebDriverException e) {
+            log.debug("Health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    protected PooledDriver create(final Driver<?, ?, ?> driver, final String key) {
+        if (!permits.tryAcquire()) {
+            log.debug("Drivers pool is full. Evicting an idle driver, if any, or waiting for one to be released");
+            Stream
+                    .concat(Stream.of(warmDrivers), idleDrivers.values().stream())
+                    .map(Deque::pollLast)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .ifPresent(this::quit);
+            permits.acquire();
+        }
+
+        try {
+            log.debug("Creating a new driver with key '{}'", key);
+            return pooledDriverOf(driver, key);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a driver, taking over the driver service started just for it, if any, so that it's stopped when the driver is quit.
+     * This must run on the thread that created the driver, since the environment keeps such a service in a thread local.
+     *
+     * @param driver the driver to create
+     * @param key the key of the pooled driver
+     * @return the pooled driver
+     */
+    protected PooledDriver pooledDriverOf(final Driver<?, ?, ?> driver, final String key) {
+        final WebDriver webDriver = driver.create();
+        final DriverService driverService = configuration.getRuntime().getEnvironment().detachDriverService().orElse(null);
+
+        return new PooledDriver(key, webDriver, driverService);
+    }
+
+    protected void quitIdleDriversOf(final String key) {
+        Optional
+                .ofNullable(idleDrivers.remove(key))
+                .ifPresent(drivers -> drivers.forEach(this::quit));
+    }
+
+    protected void quit(final PooledDriver pooledDriver) {
+        try {
+            pooledDriver.getWebDriver().quit();
+        } catch (WebDriverException e) {
+            log.warn("Error while quitting driver with key '{}': {}", pooledDriver.getKey(), e.getMessage());
+        } finally {
+            Optional.ofNullable(pooledDriver.getDriverService()).ifPresent(DriverService::close);
+            permits.release();
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class PooledDriver {
+        private final String key;
+        private final WebDriver webDriver;
+        private final DriverService driverService;
+        private int leases;
+
+        public int lease() {
+            return ++leases;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import io.github.giulong.spectrum.interfaces.SessionHook;
 import io.github.giulong.spectrum.interfaces.reports.CanProduceMetadata;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoEncodingPool;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
@@ -42,6 +43,7 @@ public class ExtentReporter implements SessionHook, CanProduceMetadata {
 
     protected final FileUtils fileUtils = FileUtils.getInstance();
     protected final Configuration configuration = Configuration.getInstance();
+    protected final VideoEncodingPool videoEncodingPool = VideoEncodingPool.getInstance();
 
     private ExtentReports extentReports;
 
@@ -71,8 +73,9 @@ public class ExtentReporter implements SessionHook, CanProduceMetadata {
     }
 
     @Override
-    public void sessionClosed() {
+    public synchronized void sessionClosed() {
         log.debug("Session closed hook");
+        videoEncodingPool.awaitCompletion();
         extentReports.flush();
 
         cleanupOldReportsIn(configuration.getExtent().getReportFolder());
@@ -141,7 +144,7 @@ public class ExtentReporter implements SessionHook, CanProduceMetadata {
         return Path.of(extent.getReportFolder(), extent.getFileName()).toAbsolutePath();
     }
 
-    public ExtentTest createExtentTestFrom(final TestData testData) {
+    public synchronized ExtentTest createExtentTestFrom(final TestData testData) {
         return extentReports.createTest(String.format("<div id=\"%s\">%s</div>%s", testData.getTestId(), testData.getClassDisplayName(), testData.getMethodDisplayName()));
     }
 
@@ -149,8 +152,19 @@ public class ExtentReporter implements SessionHook, CanProduceMetadata {
         final int width = videoExtentTest.getWidth();
         final int height = videoExtentTest.getHeight();
 
-        extentTest.info(String.format("<video id=\"video-%s\" controls width=\"%d\" height=\"%d\" src=\"%s\" type=\"video/mp4\"/>",
-                testData.getTestId(), width, height, testData.getVideoPath()));
+        final String mimeType = configuration.getVideo().getEncoder().getMimeType();
+
+        extentTest.info(String.format("<video id=\"video-%s\" controls width=\"%d\" height=\"%d\" src=\"%s\" type=\"%s\"/>",
+                testData.getTestId(), width, height, testData.getVideoPath(), mimeType));
+    }
+
+    /**
+     * Removes the video tag from the provided extentTest, when no video was produced for it.
+     */
+    public void detachVideo(final ExtentTest extentTest, final TestData testData) {
+        final String videoTag = String.format("<video id=\"video-%s\"", testData.getTestId());
+
+        extentTest.getModel().getLogs().removeIf(entry -> entry.getDetails() != null && entry.getDetails().startsWith(videoTag));
     }
 
     public void logTestStartOf(final ExtentTest extentTest) {
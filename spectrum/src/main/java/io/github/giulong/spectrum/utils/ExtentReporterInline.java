@@ -1,10 +1,8 @@
 package io.github.giulong.spectrum.utils;
 
 import lombok.NoArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static lombok.AccessLevel.PRIVATE;
@@ -36,7 +34,6 @@ public class ExtentReporterInline extends ExtentReporter {
         log.info("After the execution, you'll find the '{}' inline report at file:///{}", reportName, reportPath);
     }
 
-    @SneakyThrows
     @Override
     public void sessionClosed() {
         log.debug("Session closed hook");
@@ -44,9 +41,8 @@ public class ExtentReporterInline extends ExtentReporter {
         final Configuration.Extent extent = configuration.getExtent();
         final String inlineReportFolder = extent.getInlineReportFolder();
         if (extent.isInline()) {
-            final String inlineReport = htmlUtils.inline(Files.readString(super.getReportPathFrom(extent)));
-
-            fileUtils.write(Path.of(inlineReportFolder, extent.getFileName()), inlineReport);
+            videoEncodingPool.awaitCompletion();
+            htmlUtils.inline(super.getReportPathFrom(extent), Path.of(inlineReportFolder, extent.getFileName()));
         }
 
         cleanupOldReportsIn(inlineReportFolder);
@@ -4,66 +4,180 @@ import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Base64;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.regex.Pattern.DOTALL;
 import static lombok.AccessLevel.PRIVATE;
 
+/**
+ * Inlines the images and videos of a report, replacing their paths with references to their base64, embedded once
+ * per distinct content before the end of the body. The report is read once, through a bounded window, and written as
+ * it's read, while assets are encoded in parallel into temporary files streamed to the output at the end.
+ * This keeps the memory used the same, regardless of the size of the report and of its assets.
+ */
 @Slf4j
 @NoArgsConstructor(access = PRIVATE)
 public class HtmlUtils {
 
     private static final HtmlUtils INSTANCE = new HtmlUtils();
-    private static final Pattern VIDEO_SRC = Pattern.compile("<video.*?src=\"(?<src>[^\"]*)\"");
+    private static final Pattern ASSET_START = Pattern.compile("<video|<div class=\"row mb-3\">|</body>");
+    private static final Pattern VIDEO_SRC = Pattern.compile("<video.*?src=\"(?<src>[^\"]*)\"(\\s+type=\"(?<type>[^\"]*)\")?");
     private static final Pattern IMAGE_TAG = Pattern.compile("<div class=\"row mb-3\">\\s*<div class=\"col-md-3\">\\s*<img.*?src=\"(?<src>[^\"]*)\".*?</div>\\s*</div>", DOTALL);
+    private static final String BODY_END = "</body>";
+    private static final int ASSET_START_MAX_LENGTH = "<div class=\"row mb-3\">".length();
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // max number of chars read past the start of a tag to tell if it's an asset. Longer tags are left as they are
+    private static final int MAX_LOOKAHEAD = 1024 * 1024;
 
     public static HtmlUtils getInstance() {
         return INSTANCE;
     }
 
-    public String inline(final String html) {
-        return inlineVideosOf(inlineImagesOf(html));
+    /**
+     * Writes the provided report to the destination, with all of its images and videos inlined.
+     *
+     * @param source      the report to inline
+     * @param destination the file where to write the inline report to
+     */
+    @SneakyThrows
+    public void inline(final Path source, final Path destination) {
+        Files.createDirectories(destination.toAbsolutePath().getParent());
+
+        try (Reader reader = Files.newBufferedReader(source, UTF_8);
+             OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(destination), CHUNK_SIZE)) {
+            inline(reader, outputStream);
+        }
     }
 
-    @SneakyThrows
-    public String inlineImagesOf(final String html) {
-        final Matcher matcher = IMAGE_TAG.matcher(html);
-        String inlineHtml = html;
-
-        while (matcher.find()) {
-            final String src = matcher.group("src");
-            final byte[] bytes = Files.readAllBytes(Path.of(src));
-            final String encoded = new String(Base64.getEncoder().encode(bytes));
-            final String replacement = "<div class=\"row mb-3\"><div class=\"col-md-3\">" +
-                    "<a href=\"data:image/png;base64," + encoded + "\" data-featherlight=\"image\"><img class=\"inline\" src=\"data:image/png;base64," + encoded + "\"/></a>" +
-                    "</div></div>";
-
-            log.debug("Found img with src {}", src);
-            inlineHtml = inlineHtml.replace(matcher.group(0), replacement);
+    /**
+     * Copies the html read from the provided reader to the provided stream, replacing the paths of images and videos with
+     * references to their base64, which is written before the end of the body, or at the end of the html if there's no body.
+     *
+     * @param reader       the html to inline
+     * @param outputStream the stream where to write the inline html to
+     */
+    public void inline(final Reader reader, final OutputStream outputStream) throws IOException {
+        try (InlineAssets inlineAssets = new InlineAssets()) {
+            inline(reader, outputStream, inlineAssets);
         }
+    }
+
+    protected void inline(final Reader reader, final OutputStream outputStream, final InlineAssets inlineAssets) throws IOException {
+        final StringBuilder buffer = new StringBuilder(2 * CHUNK_SIZE);
+        final char[] chunk = new char[CHUNK_SIZE];
+        boolean eof = false;
+        boolean assetsWritten = false;
+
+        while (true) {
+            final Matcher startMatcher = ASSET_START.matcher(buffer);
+
+            if (!startMatcher.find()) {
+                if (eof) {
+                    write(buffer, 0, buffer.length(), outputStream);
+
+                    if (!assetsWritten) {
+                        inlineAssets.writeTo(outputStream);
+                    }
+
+                    return;
+                }
+
+                // keeping the tail, which might be the beginning of a tag, without splitting surrogate pairs, which are encoded together
+                final int tail = Math.max(0, buffer.length() - ASSET_START_MAX_LENGTH + 1);
+                final int flushed = tail > 0 && Character.isHighSurrogate(buffer.charAt(tail - 1)) ? tail - 1 : tail;
+                write(buffer, 0, flushed, outputStream);
+                buffer.delete(0, flushed);
+                eof = read(reader, chunk, buffer);
+                continue;
+            }
+
+            final int start = startMatcher.start();
+            write(buffer, 0, start, outputStream);
+            buffer.delete(0, start);
+
+            if (buffer.charAt(1) == '/') {
+                if (!assetsWritten) {
+                    inlineAssets.writeTo(outputStream);
+                    assetsWritten = true;
+                }
+
+                write(BODY_END, outputStream);
+                buffer.delete(0, BODY_END.length());
+                continue;
+            }
+
+            final Matcher matcher = (buffer.charAt(1) == 'v' ? VIDEO_SRC : IMAGE_TAG).matcher(buffer);
+            final boolean matches = matcher.lookingAt();
+
+            if (matcher.hitEnd() && !eof && buffer.length() < MAX_LOOKAHEAD) {
+                eof = read(reader, chunk, buffer);
+                continue;
+            }
 
-        return inlineHtml;
+            if (!matches) {
+                write(buffer, 0, 1, outputStream);
+                buffer.deleteCharAt(0);
+                continue;
+            }
+
+            if (matcher.pattern() == VIDEO_SRC) {
+                writeVideo(matcher, outputStream, inlineAssets);
+            } else {
+                writeImage(matcher, outputStream, inlineAssets);
+            }
+
+            buffer.delete(0, matcher.end());
+        }
     }
 
-    @SneakyThrows
-    public String inlineVideosOf(final String html) {
-        final Matcher matcher = VIDEO_SRC.matcher(html);
-        String inlineHtml = html;
-
-        while (matcher.find()) {
-            final String src = matcher.group("src");
-            final byte[] bytes = Files.readAllBytes(Path.of(src));
-            final String encoded = new String(Base64.getEncoder().encode(bytes));
-            final String replacement = String.format("data:video/mp4;base64,%s", encoded);
-
-            log.debug("Found video with src {}", src);
-            inlineHtml = inlineHtml.replace(src, replacement);
+    protected void writeImage(final Matcher matcher, final OutputStream outputStream, final InlineAssets inlineAssets) throws IOException {
+        final String src = matcher.group("src");
+        final String mimeType = src.endsWith(".jpg") ? "image/jpeg" : "image/png";
+        final String hrefId = inlineAssets.referenceTo(src, mimeType);
+        final String srcId = inlineAssets.referenceTo(src, mimeType);
+
+        log.debug("Found img with src {}", src);
+        write("<div class=\"row mb-3\"><div class=\"col-md-3\">" +
+                "<a data-inline-href=\"" + hrefId + "\" data-featherlight=\"image\"><img class=\"inline\" data-inline-src=\"" + srcId + "\"/></a>" +
+                "</div></div>", outputStream);
+    }
+
+    protected void writeVideo(final Matcher matcher, final OutputStream outputStream, final InlineAssets inlineAssets) throws IOException {
+        final String src = matcher.group("src");
+        final String type = matcher.group("type");
+        final String tag = matcher.group();
+        final int srcAttributeStart = matcher.start("src") - matcher.start() - "src=\"".length();
+
+        log.debug("Found video with src {}", src);
+        write(tag.substring(0, srcAttributeStart), outputStream);
+        write("data-inline-src=\"" + inlineAssets.referenceTo(src, type == null ? "video/mp4" : type), outputStream);
+        write(tag.substring(matcher.end("src") - matcher.start()), outputStream);
+    }
+
+    protected boolean read(final Reader reader, final char[] chunk, final StringBuilder buffer) throws IOException {
+        final int read = reader.read(chunk);
+
+        if (read == -1) {
+            return true;
+        }
+
+        buffer.append(chunk, 0, read);
+        return false;
+    }
+
+    protected void write(final CharSequence text, final int start, final int end, final OutputStream outputStream) throws IOException {
+        if (start < end) {
+            write(text.subSequence(start, end).toString(), outputStream);
         }
+    }
 
-        return inlineHtml;
+    protected void write(final String text, final OutputStream outputStream) throws IOException {
+        outputStream.write(text.getBytes(UTF_8));
     }
 }
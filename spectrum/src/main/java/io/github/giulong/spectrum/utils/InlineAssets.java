@@ -0,0 +1,160 @@
+package io.github.giulong.spectrum.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Assets referenced by an inline report. Each asset is hashed and base64 encoded on a parallel pool as soon as it's
+ * found, into a temporary file. When written, assets with the same content are embedded just once, as data islands
+ * that the elements referencing them point to, instead of repeating their base64 for each reference.
+ */
+@Slf4j
+public class InlineAssets implements AutoCloseable {
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+    private static final String LOADER = FileUtils.getInstance().read("/js/inlineAssets.js");
+    private static final String SUMMARY = "<div id=\"inline-assets-summary\" style=\"position:fixed;bottom:0;right:0;z-index:1000;padding:2px 8px;" +
+            "font-size:11px;color:#333;background:#fff;opacity:.8\">Inline assets: %d files with %d distinct contents. %d bytes saved by embedding each content once</div>";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(WORKERS, Thread.ofPlatform().daemon().name("inline-encoder-", 0).factory());
+    private final Map<String, Asset> assets = new LinkedHashMap<>();
+    private final Path folder;
+
+    @Getter
+    private long savedBytes;
+
+    @SneakyThrows
+    public InlineAssets() {
+        this.folder = Files.createTempDirectory("spectrum-inline-");
+    }
+
+    /**
+     * Returns the id to reference the asset at the provided path with, submitting its encoding if it's the first reference to it.
+     *
+     * @param src      the path of the asset
+     * @param mimeType the mime type of the asset
+     * @return the id of the asset
+     */
+    public String referenceTo(final String src, final String mimeType) {
+        final Asset asset = assets.computeIfAbsent(src, s -> {
+            final Path encoded = folder.resolve(assets.size() + ".b64");
+
+            return new Asset("asset-" + assets.size(), mimeType, executorService.submit(() -> encode(Path.of(s), encoded)));
+        });
+
+        asset.references++;
+        return asset.id;
+    }
+
+    /**
+     * Writes a data island for each distinct content among the assets referenced so far, followed by the script pointing
+     * the elements referencing them to the islands, and by a summary of the bytes saved, shown in the bottom right corner.
+     *
+     * @param outputStream the stream where to write the islands to
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        final Map<String, String> islands = new LinkedHashMap<>();
+        final Map<String, Long> islandsLengths = new HashMap<>();
+        long referencedBytes = 0;
+
+        for (Map.Entry<String, Asset> entry : assets.entrySet()) {
+            final Asset asset = entry.getValue();
+            final Encoded encoded = encodedOf(entry.getKey(), asset);
+
+            if (encoded == null) {
+                continue;
+            }
+
+            final String island = "inline-" + encoded.hash;
+            islands.put(asset.id, island);
+            referencedBytes += asset.references * encoded.length;
+
+            if (islandsLengths.putIfAbsent(island, encoded.length) == null) {
+                write(String.format("<script type=\"text/plain\" id=\"%s\" data-type=\"%s\">", island, asset.mimeType), outputStream);
+                Files.copy(encoded.path, outputStream);
+                write("</script>", outputStream);
+            }
+        }
+
+        savedBytes = referencedBytes - islandsLengths.values().stream().mapToLong(Long::longValue).sum();
+
+        final StringJoiner json = new StringJoiner(",", "{", "}");
+        islands.forEach((id, island) -> json.add(String.format("\"%s\":\"%s\"", id, island)));
+
+        write("<script type=\"application/json\" id=\"inline-assets\">" + json + "</script>", outputStream);
+        write("<script>" + LOADER + "</script>", outputStream);
+        write(String.format(SUMMARY, assets.size(), islandsLengths.size(), savedBytes), outputStream);
+
+        log.info("Inline report: {} assets with {} distinct contents embedded, {} bytes saved by deduplication", assets.size(), islandsLengths.size(), savedBytes);
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+        FileUtils.getInstance().deleteDirectory(folder);
+    }
+
+    @SneakyThrows
+    protected Encoded encode(final Path source, final Path target) {
+        final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(source), messageDigest);
+             OutputStream outputStream = Base64.getEncoder().wrap(Files.newOutputStream(target))) {
+            inputStream.transferTo(outputStream);
+        }
+
+        return new Encoded(HexFormat.of().formatHex(messageDigest.digest()), target, Files.size(target));
+    }
+
+    protected Encoded encodedOf(final String src, final Asset asset) {
+        try {
+            return asset.encoded.get();
+        } catch (ExecutionException e) {
+            log.error("Cannot inline asset {}: {}", src, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            log.error("Interrupted while inlining asset {}", src);
+            Thread.currentThread().interrupt();
+        }
+
+        return null;
+    }
+
+    protected void write(final String text, final OutputStream outputStream) throws IOException {
+        outputStream.write(text.getBytes(UTF_8));
+    }
+
+    @RequiredArgsConstructor
+    protected static class Asset {
+
+        private final String id;
+        private final String mimeType;
+        private final Future<Encoded> encoded;
+        private int references;
+    }
+
+    @AllArgsConstructor
+    protected static class Encoded {
+
+        private final String hash;
+        private final Path path;
+        private final long length;
+    }
+}
@@ -36,6 +36,11 @@ public final class JsonUtils {
                 : jsonMapper.readValue("{}", clazz);
     }
 
+    @SneakyThrows
+    public <T> T read(final String json, final Class<T> clazz) {
+        return jsonMapper.readValue(json, clazz);
+    }
+
     @SneakyThrows
     public String write(final Object object) {
         return writer.writeValueAsString(object);
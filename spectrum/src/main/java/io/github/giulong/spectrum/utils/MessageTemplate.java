@@ -0,0 +1,160 @@
+package io.github.giulong.spectrum.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Event message parsed once, when the configuration is loaded, so that both its log and html variants
+ * can be rendered without going through {@link String#format(String, Object...)} on each event. Html tags are
+ * stripped from the log variant only if it has any.
+ * Only {@code %s}, {@code %n$s}, {@code %%} and {@code %n} are precompiled: messages with other specifiers
+ * fall back to {@link String#format(String, Object...)}.
+ */
+@Slf4j
+@AllArgsConstructor(access = PRIVATE)
+public class MessageTemplate {
+
+    private static final Pattern TAG = Pattern.compile("<.*?>");
+    private static final Pattern SPECIFIER = Pattern.compile("%(?:(?<index>\\d+)\\$)?(?<conversion>[sn%])|%");
+    private static final String CODE_OPEN = "<code>";
+    private static final String CODE_CLOSE = "</code>";
+
+    private final String message;
+    private final Part[] parts;
+    private final int arity;
+
+    public static MessageTemplate compile(final String message) {
+        if (message == null) {
+            return null;
+        }
+
+        final Part[] parts = parse(message);
+
+        if (parts == null) {
+            log.debug("Message '{}' can't be precompiled. It will be formatted on each event", message);
+            return new MessageTemplate(message, null, 0);
+        }
+
+        return new MessageTemplate(message, parts, arityOf(parts));
+    }
+
+    protected static Part[] parse(final String message) {
+        final List<Part> parts = new ArrayList<>();
+        final Matcher matcher = SPECIFIER.matcher(message);
+        final StringBuilder literal = new StringBuilder();
+        int ordinaryIndex = 0;
+        int last = 0;
+
+        while (matcher.find()) {
+            final String conversion = matcher.group("conversion");
+            if (conversion == null) {
+                return null;
+            }
+
+            literal.append(message, last, matcher.start());
+            last = matcher.end();
+
+            switch (conversion) {
+                case "%" -> literal.append('%');
+                case "n" -> literal.append(System.lineSeparator());
+                default -> {
+                    if (!literal.isEmpty()) {
+                        parts.add(new Part(literal.toString(), -1));
+                        literal.setLength(0);
+                    }
+
+                    final String index = matcher.group("index");
+                    if ("0".equals(index)) {
+                        return null;
+                    }
+
+                    parts.add(new Part(null, index == null ? ordinaryIndex++ : Integer.parseInt(index) - 1));
+                }
+            }
+        }
+
+        literal.append(message, last, message.length());
+        if (!literal.isEmpty()) {
+            parts.add(new Part(literal.toString(), -1));
+        }
+
+        return parts.toArray(new Part[0]);
+    }
+
+    protected static int arityOf(final Part[] parts) {
+        int arity = 0;
+
+        for (Part part : parts) {
+            arity = Math.max(arity, part.index + 1);
+        }
+
+        return arity;
+    }
+
+    /**
+     * Renders both the log message, stripped of html tags, and the html message, with each arg wrapped in a code tag.
+     * Tags are stripped once the log message is rendered, since they can be in the args too, or even span over the
+     * message and an arg.
+     *
+     * @param args the args already converted to strings
+     * @return the rendered messages
+     */
+    public Messages render(final Object[] args) {
+        if (parts == null) {
+            final Object[] codeArgs = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                codeArgs[i] = CODE_OPEN + args[i] + CODE_CLOSE;
+            }
+
+            return new Messages(stripTags(String.format(message, args)), String.format(message, codeArgs));
+        }
+
+        if (args.length < arity) {
+            throw new MissingFormatArgumentException("%" + arity + "$s");
+        }
+
+        return new Messages(stripTags(render(args, false)), render(args, true));
+    }
+
+    protected String render(final Object[] args, final boolean code) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        for (Part part : parts) {
+            if (part.literal != null) {
+                stringBuilder.append(part.literal);
+            } else if (code) {
+                stringBuilder.append(CODE_OPEN).append(args[part.index]).append(CODE_CLOSE);
+            } else {
+                stringBuilder.append(args[part.index]);
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+
+    protected static String stripTags(final String text) {
+        return text.indexOf('<') == -1 ? text : TAG.matcher(text).replaceAll("");
+    }
+
+    @AllArgsConstructor
+    protected static class Part {
+        private final String literal;
+        private final int index;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Messages {
+        private final String log;
+        private final String html;
+    }
+}
@@ -28,6 +28,12 @@ public final class Reflections {
         return getField(fieldName, object).get(object);
     }
 
+    @SneakyThrows
+    public static Object getFieldValue(final Field field, final Object object) {
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
     @SneakyThrows
     public static void setField(final String fieldName, final Object object, final Object value) {
         final Field field = getField(fieldName, object);
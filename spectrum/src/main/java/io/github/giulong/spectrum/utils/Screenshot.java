@@ -0,0 +1,176 @@
+package io.github.giulong.spectrum.utils;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import io.github.giulong.spectrum.utils.video.ScreencastCapture;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.awt.RenderingHints.KEY_INTERPOLATION;
+import static java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static org.openqa.selenium.OutputType.BASE64;
+
+/**
+ * Size and format of the screenshots. Chromium browsers are asked for the screenshot already downscaled and compressed
+ * via devtools, while the screenshots of the other drivers are downscaled and compressed as soon as they arrive.
+ */
+@Slf4j
+@Getter
+public class Screenshot {
+
+    public static final String PNG = "png";
+    public static final String JPEG = "jpeg";
+
+    @JsonPropertyDescription("Width screenshots are downscaled to, keeping their aspect ratio. 0 means the actual browser width")
+    @SuppressWarnings("unused")
+    private int width;
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @JsonPropertyDescription("Format of the screenshots. Can be png or jpeg, which is much lighter")
+    private String format = PNG;
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @JsonPropertyDescription("Quality, from 0 to 100, of jpeg screenshots")
+    private int quality = 80;
+
+    public boolean isOriginal() {
+        return width < 1 && !isJpeg();
+    }
+
+    public boolean isJpeg() {
+        return JPEG.equals(format);
+    }
+
+    /**
+     * Takes a screenshot of the provided driver's viewport, with the configured size and format. Devtools are found
+     * only on the leased driver, not on the proxy returned to tests: see {@link ScreencastCapture#devToolsOf(WebDriver)}.
+     *
+     * @param driver the driver to take the screenshot with
+     * @return the base64 of the screenshot
+     */
+    public String take(final WebDriver driver) {
+        if (isOriginal()) {
+            return ((TakesScreenshot) driver).getScreenshotAs(BASE64);
+        }
+
+        return ScreencastCapture
+                .devToolsOf(driver)
+                .flatMap(this::capture)
+                .orElseGet(() -> shrink(((TakesScreenshot) driver).getScreenshotAs(BASE64)));
+    }
+
+    /**
+     * Downscales and compresses the provided screenshot according to the configured size and format.
+     *
+     * @param base64 the base64 of the screenshot, as taken by the driver
+     * @return the base64 of the shrunk screenshot, or the provided one if there's nothing to shrink
+     */
+    @SneakyThrows
+    public String shrink(final String base64) {
+        if (isOriginal()) {
+            return base64;
+        }
+
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+        if (image == null) {
+            log.debug("Cannot read screenshot. Keeping it as it is");
+            return base64;
+        }
+
+        if (!isJpeg() && (width < 1 || image.getWidth() <= width)) {
+            return base64;
+        }
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(scale(image), outputStream);
+
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Optional<String> capture(final DevTools devTools) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put("format", format);
+
+        if (isJpeg()) {
+            params.put("quality", quality);
+        }
+
+        try {
+            devTools.createSessionIfThereIsNotOne();
+
+            if (width > 0) {
+                final Map<String, Object> layoutMetrics = devTools.send(new Command<>("Page.getLayoutMetrics", Map.of(), input -> input.read(Json.MAP_TYPE)));
+                final Map<String, Object> viewport = (Map<String, Object>) layoutMetrics.get("cssVisualViewport");
+                final double clientWidth = ((Number) viewport.get("clientWidth")).doubleValue();
+
+                params.put("clip", Map.of(
+                        "x", viewport.get("pageX"),
+                        "y", viewport.get("pageY"),
+                        "width", clientWidth,
+                        "height", viewport.get("clientHeight"),
+                        "scale", Math.min(1, width / clientWidth)));
+            }
+
+            final Map<String, Object> screenshot = devTools.send(new Command<>("Page.captureScreenshot", params, input -> input.read(Json.MAP_TYPE)));
+            return Optional.of(String.valueOf(screenshot.get("data")));
+        } catch (WebDriverException e) {
+            log.debug("Cannot capture screenshot via devtools, falling back to the driver: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    protected BufferedImage scale(final BufferedImage image) {
+        final int scaledWidth = width > 0 ? Math.min(width, image.getWidth()) : image.getWidth();
+        final int scaledHeight = Math.max(1, (int) Math.round((double) image.getHeight() * scaledWidth / image.getWidth()));
+        final BufferedImage scaledImage = new BufferedImage(scaledWidth, scaledHeight, isJpeg() ? TYPE_INT_RGB : TYPE_INT_ARGB);
+        final Graphics2D graphics2D = scaledImage.createGraphics();
+
+        log.trace("Scaling screenshot from {}x{} to {}x{}", image.getWidth(), image.getHeight(), scaledWidth, scaledHeight);
+        graphics2D.setRenderingHint(KEY_INTERPOLATION, VALUE_INTERPOLATION_BILINEAR);
+        graphics2D.drawImage(image, 0, 0, scaledWidth, scaledHeight, null);
+        graphics2D.dispose();
+
+        return scaledImage;
+    }
+
+    @SneakyThrows
+    protected void write(final BufferedImage image, final ByteArrayOutputStream outputStream) {
+        final ImageWriter imageWriter = ImageIO.getImageWritersByFormatName(isJpeg() ? JPEG : PNG).next();
+        final ImageWriteParam imageWriteParam = imageWriter.getDefaultWriteParam();
+
+        if (isJpeg()) {
+            imageWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            imageWriteParam.setCompressionQuality(Math.clamp(quality, 0, 100) / 100F);
+        }
+
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            imageWriter.setOutput(imageOutputStream);
+            imageWriter.write(null, new IIOImage(image, null, null), imageWriteParam);
+        } finally {
+            imageWriter.dispose();
+        }
+    }
+}
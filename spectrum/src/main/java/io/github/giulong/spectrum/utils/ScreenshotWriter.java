@@ -0,0 +1,116 @@
+package io.github.giulong.spectrum.utils;
+
+import io.github.giulong.spectrum.enums.Frame;
+import io.github.giulong.spectrum.interfaces.SessionHook;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+@Slf4j
+@NoArgsConstructor(access = PRIVATE)
+public class ScreenshotWriter implements SessionHook {
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final int QUEUE_CAPACITY = 32;
+
+    private static final String JPEG_BASE64_PREFIX = "/9j/";
+
+    private static final Pattern SCREENSHOT_NAME = Pattern.compile("\\w+-(?<sequence>\\d+)-[\\w-]+\\.(png|jpg)");
+
+    private static final ScreenshotWriter INSTANCE = new ScreenshotWriter();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Path, Set<CompletableFuture<Void>>> pendingWrites = new ConcurrentHashMap<>();
+
+    private final ExecutorService executorService = new ThreadPoolExecutor(WORKERS, WORKERS, 0, SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            Thread.ofPlatform().daemon().name("screenshot-writer-", 0).factory(), new ThreadPoolExecutor.CallerRunsPolicy());
+
+    public static ScreenshotWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tells if the provided file is a screenshot written by this writer, named after its frame, sequence and a uuid.
+     */
+    public static boolean isScreenshot(final Path path) {
+        return SCREENSHOT_NAME.matcher(path.getFileName().toString()).matches();
+    }
+
+    /**
+     * Returns the sequence number encoded in the name of the provided screenshot, or {@link Long#MAX_VALUE} if it's
+     * not a screenshot, so that files such as {@code .DS_Store} are sorted last.
+     */
+    public static long sequenceOf(final Path screenshot) {
+        final Matcher matcher = SCREENSHOT_NAME.matcher(screenshot.getFileName().toString());
+
+        return matcher.matches() ? Long.parseLong(matcher.group("sequence")) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void sessionClosed() {
+        log.debug("Flushing all the pending screenshots");
+        pendingWrites.keySet().forEach(this::flush);
+    }
+
+    public Path write(final Path folder, final Frame frame, final String base64) {
+        return write(folder, frame, nextSequence(), base64);
+    }
+
+    /**
+     * Writes the screenshot with the provided sequence, reserved via {@link #nextSequence()} when it was taken,
+     * so that it keeps its place among the frames of the video even if written later.
+     */
+    public Path write(final Path folder, final Frame frame, final long sequence, final String base64) {
+        final Path screenshotPath = folder.resolve(String.format("%s-%d-%s.%s", frame.getValue(), sequence, randomUUID(), extensionOf(base64)));
+        final Set<CompletableFuture<Void>> pending = pendingWrites.computeIfAbsent(folder, f -> ConcurrentHashMap.newKeySet());
+        final CompletableFuture<Void> future = CompletableFuture.runAsync(() -> persist(screenshotPath, base64), executorService);
+
+        pending.add(future);
+        future.whenComplete((result, throwable) -> pending.remove(future));
+
+        return screenshotPath;
+    }
+
+    public static String extensionOf(final String base64) {
+        return base64.startsWith(JPEG_BASE64_PREFIX) ? "jpg" : "png";
+    }
+
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    public void flush(final Path folder) {
+        final Set<CompletableFuture<Void>> pending = pendingWrites.remove(folder);
+
+        if (pending == null) {
+            return;
+        }
+
+        log.trace("Waiting for {} screenshots to be written in {}", pending.size(), folder);
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    protected void persist(final Path screenshotPath, final String base64) {
+        try {
+            Files.write(screenshotPath, Base64.getDecoder().decode(base64));
+        } catch (IOException e) {
+            log.error("Error while writing screenshot {}: {}", screenshotPath, e.getMessage());
+        }
+    }
+}
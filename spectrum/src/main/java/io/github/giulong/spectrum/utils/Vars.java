@@ -2,12 +2,12 @@ package io.github.giulong.spectrum.utils;
 
 import lombok.NoArgsConstructor;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static lombok.AccessLevel.PRIVATE;
 
 @NoArgsConstructor(access = PRIVATE)
-public class Vars extends HashMap<String, String> {
+public class Vars extends ConcurrentHashMap<String, String> {
 
     private static final Vars INSTANCE = new Vars();
 
@@ -59,11 +59,4 @@ public class AppiumEnvironment extends GridEnvironment {
 
         return setFileDetectorFor(webDriver, appium);
     }
-
-    @Override
-    public void shutdown() {
-        log.debug("Closing the Appium driver service");
-
-        driverService.close();
-    }
 }
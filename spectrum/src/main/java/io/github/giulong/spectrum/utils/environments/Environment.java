@@ -3,10 +3,21 @@ package io.github.giulong.spectrum.utils.environments;
 import io.github.giulong.spectrum.drivers.Driver;
 import io.github.giulong.spectrum.interfaces.SessionHook;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.util.Optional;
 
 public abstract class Environment implements SessionHook {
 
     public abstract WebDriver setupFor(Driver<?, ?, ?> driver);
 
-    public abstract void shutdown();
+    /**
+     * Hands over the driver service started by the current thread just for the last driver it set up, if any.
+     * The caller becomes responsible for closing it once that driver is quit.
+     *
+     * @return the driver service dedicated to the last driver set up by the current thread
+     */
+    public Optional<DriverService> detachDriverService() {
+        return Optional.empty();
+    }
 }
@@ -34,11 +34,6 @@ public class GridEnvironment extends Environment {
         return setFileDetectorFor(webDriver, grid);
     }
 
-    @Override
-    public void shutdown() {
-        log.debug("Nothing to shutdown in a grid environment");
-    }
-
     protected RemoteWebDriver setFileDetectorFor(final RemoteWebDriver webDriver, final Configuration.Environments.Grid grid) {
         if (grid.isLocalFileDetector()) {
             webDriver.setFileDetector(new LocalFileDetector());
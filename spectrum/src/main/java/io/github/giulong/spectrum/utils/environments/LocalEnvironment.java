@@ -2,42 +2,131 @@ package io.github.giulong.spectrum.utils.environments;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.ServiceScope;
 import io.github.giulong.spectrum.internals.DriverLog;
 import io.github.giulong.spectrum.utils.Configuration;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.service.DriverService;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import static io.github.giulong.spectrum.enums.ServiceScope.DRIVER;
+import static io.github.giulong.spectrum.enums.ServiceScope.SUITE;
+import static java.util.concurrent.Future.State.SUCCESS;
+
 @Slf4j
 public class LocalEnvironment extends Environment {
 
     @JsonIgnore
     protected final Configuration configuration = Configuration.getInstance();
 
+    @JsonIgnore
+    protected final Map<String, FutureTask<DriverService>> driverServices = new ConcurrentHashMap<>();
+
     protected static final ThreadLocal<DriverService> DRIVER_SERVICE_THREAD_LOCAL = new ThreadLocal<>();
 
+    @Override
+    public void sessionClosed() {
+        log.debug("Stopping {} shared driver services", driverServices.size());
+
+        driverServices
+                .values()
+                .stream()
+                .filter(task -> task.state() == SUCCESS)
+                .map(FutureTask::resultNow)
+                .forEach(DriverService::stop);
+        driverServices.clear();
+    }
+
     @Override
     public WebDriver setupFor(final Driver<?, ?, ?> driver) {
         log.info("Running in local");
 
-        DRIVER_SERVICE_THREAD_LOCAL.set(driver
-                .getDriverServiceBuilder()
-                .withLogOutput(DriverLog
-                        .builder()
-                        .level(configuration.getDrivers().getLogs().getLevel())
-                        .build())
-                .build());
+        final ServiceScope serviceScope = configuration.getEnvironments().getLocal().getServiceScope();
+
+        if (serviceScope == DRIVER) {
+            DRIVER_SERVICE_THREAD_LOCAL.set(buildDriverServiceFor(driver));
+
+            return RemoteWebDriver
+                    .builder()
+                    .withDriverService(DRIVER_SERVICE_THREAD_LOCAL.get())
+                    .oneOf(driver.getCapabilities())
+                    .build();
+        }
+
+        final DriverService driverService = sharedDriverServiceFor(driver, keyFor(serviceScope));
 
         return RemoteWebDriver
                 .builder()
-                .withDriverService(DRIVER_SERVICE_THREAD_LOCAL.get())
+                .address(driverService.getUrl())
                 .oneOf(driver.getCapabilities())
                 .build();
     }
 
     @Override
-    public void shutdown() {
-        DRIVER_SERVICE_THREAD_LOCAL.get().close();
+    public Optional<DriverService> detachDriverService() {
+        final Optional<DriverService> driverService = Optional.ofNullable(DRIVER_SERVICE_THREAD_LOCAL.get());
+
+        DRIVER_SERVICE_THREAD_LOCAL.remove();
+        return driverService;
+    }
+
+    /**
+     * Returns the driver service shared with the provided key, starting it if it's missing or not running anymore.
+     * Services are started outside the map's lock, so that starting one doesn't block the threads looking for others,
+     * while the threads looking for the same one wait for it to be started.
+     */
+    @SneakyThrows
+    protected DriverService sharedDriverServiceFor(final Driver<?, ?, ?> driver, final String key) {
+        final FutureTask<DriverService> task = new FutureTask<>(() -> start(buildDriverServiceFor(driver)));
+        final FutureTask<DriverService> sharedTask = Optional.ofNullable(driverServices.putIfAbsent(key, task)).orElse(task);
+
+        if (sharedTask == task) {
+            log.debug("Starting shared driver service '{}'", key);
+            task.run();
+        }
+
+        final DriverService driverService;
+        try {
+            driverService = sharedTask.get();
+        } catch (ExecutionException e) {
+            driverServices.remove(key, sharedTask);
+            throw e.getCause();
+        }
+
+        if (sharedTask == task || driverService.isRunning()) {
+            return driverService;
+        }
+
+        log.debug("Shared driver service '{}' is not running anymore", key);
+        driverServices.remove(key, sharedTask);
+        return sharedDriverServiceFor(driver, key);
+    }
+
+    protected DriverService buildDriverServiceFor(final Driver<?, ?, ?> driver) {
+        return driver
+                .getDriverServiceBuilder()
+                .withLogOutput(DriverLog
+                        .builder()
+                        .level(configuration.getDrivers().getLogs().getLevel())
+                        .build())
+                .build();
+    }
+
+    @SneakyThrows
+    protected DriverService start(final DriverService driverService) {
+        driverService.start();
+        return driverService;
+    }
+
+    protected String keyFor(final ServiceScope serviceScope) {
+        return serviceScope == SUITE ? SUITE.getValue() : String.valueOf(Thread.currentThread().threadId());
     }
 }
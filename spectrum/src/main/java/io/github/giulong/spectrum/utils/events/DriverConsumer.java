@@ -1,26 +1,42 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
+import io.github.giulong.spectrum.enums.Result;
 import io.github.giulong.spectrum.internals.jackson.views.Views.Internal;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.pojos.events.Event;
+import io.github.giulong.spectrum.utils.DriverPool;
+import org.junit.jupiter.api.extension.ExtensionContext;
 
+import static io.github.giulong.spectrum.enums.Result.ABORTED;
+import static io.github.giulong.spectrum.enums.Result.FAILED;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
+import static io.github.giulong.spectrum.utils.events.EventsDispatcher.CLASS;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 
 @JsonView(Internal.class)
+@JsonIgnoreProperties({"async", "batch"})
 public class DriverConsumer extends EventsConsumer {
 
+    private final DriverPool driverPool = DriverPool.getInstance();
+
     @Override
     public void accept(final Event event) {
-        final Configuration.Runtime runtime = event
-                .getContext()
+        final ExtensionContext context = event.getContext();
+
+        if (event.getTags().contains(CLASS)) {
+            driverPool.closeClass(context.getRequiredTestClass().getName());
+            return;
+        }
+
+        final Configuration.Runtime runtime = context
                 .getRoot()
                 .getStore(GLOBAL)
                 .get(CONFIGURATION, Configuration.class)
                 .getRuntime();
+        final Result result = event.getResult();
 
-        runtime.getDriver().shutdown();
-        runtime.getEnvironment().shutdown();
+        runtime.getDriver().shutdown(result == FAILED || result == ABORTED);
     }
 }
@@ -0,0 +1,155 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.pojos.events.Event;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Buffers the events of a batching consumer and hands them over as a single digest every {@code size} events,
+ * every {@code interval} seconds, and when the suite ends. Digests are always consumed one at a time on the batcher's
+ * own thread, so that neither the tests nor the other consumers wait for them.
+ */
+@Slf4j
+public class EventsBatcher {
+
+    private final EventsConsumer consumer;
+    private final EventsConsumer.Batch batch;
+    private final String name;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong pending = new AtomicLong();
+    private List<Event> buffer = new ArrayList<>();
+
+    public EventsBatcher(final EventsConsumer consumer) {
+        this.consumer = consumer;
+        this.batch = consumer.getBatch();
+        this.name = consumer.getClass().getSimpleName();
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name(name + "-digest").factory());
+    }
+
+    /**
+     * Schedules the digests sent every {@code interval} seconds, if configured.
+     *
+     * @return this batcher
+     */
+    public EventsBatcher start() {
+        if (batch.getInterval() > 0) {
+            executor.scheduleWithFixedDelay(this::flush, batch.getInterval(), batch.getInterval(), SECONDS);
+        }
+
+        return this;
+    }
+
+    public void add(final Event event) {
+        final List<Event> events;
+
+        synchronized (this) {
+            buffer.add(event);
+
+            if (batch.getSize() <= 0 || buffer.size() < batch.getSize()) {
+                return;
+            }
+
+            events = drain();
+        }
+
+        submit(events);
+    }
+
+    /**
+     * Hands over the buffered events as the last digest, and stops accepting new ones.
+     */
+    public void shutdown() {
+        final List<Event> events;
+
+        synchronized (this) {
+            events = drain();
+        }
+
+        submit(events);
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the pending digests to be consumed, up to the configured drain timeout since the provided instant.
+     * Digests still pending then are dropped.
+     *
+     * @param startNanos the {@link System#nanoTime()} the drain timeout is counted from
+     */
+    public void awaitTermination(final long startNanos) {
+        final long remainingNanos = SECONDS.toNanos(batch.getDrainTimeout()) - (System.nanoTime() - startNanos);
+
+        try {
+            if (!executor.awaitTermination(Math.max(0, remainingNanos), NANOSECONDS)) {
+                executor.shutdownNow();
+                log.warn("{} didn't consume its digests within {}s. Dropping {} pending events", name, batch.getDrainTimeout(), pending.get());
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for {} to consume its digests", name);
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getPending() {
+        return pending.get();
+    }
+
+    protected void flush() {
+        final List<Event> events;
+
+        synchronized (this) {
+            events = drain();
+        }
+
+        pending.addAndGet(events.size());
+        consume(events);
+    }
+
+    protected List<Event> drain() {
+        final List<Event> events = buffer;
+
+        buffer = new ArrayList<>();
+        return events;
+    }
+
+    protected void submit(final List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        pending.addAndGet(events.size());
+
+        try {
+            executor.execute(() -> consume(events));
+        } catch (RejectedExecutionException e) {
+            pending.addAndGet(-events.size());
+            log.warn("{} is shut down. Dropping a digest of {} events", name, events.size());
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    protected void consume(final List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        log.debug("{} is consuming a digest of {} events", name, events.size());
+
+        try {
+            consumer.acceptDigest(events);
+        } catch (Exception e) {
+            log.error(String.format("%s failed consuming a digest of %d events", name, events.size()), e);
+        } finally {
+            pending.addAndGet(-events.size());
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.github.giulong.spectrum.pojos.events.Event;
+import lombok.Generated;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -12,7 +14,6 @@ import java.util.function.Consumer;
 
 import static com.fasterxml.jackson.annotation.JsonTypeInfo.As.WRAPPER_OBJECT;
 import static com.fasterxml.jackson.annotation.JsonTypeInfo.Id.NAME;
-import static java.util.stream.Collectors.toSet;
 
 @JsonTypeInfo(use = NAME, include = WRAPPER_OBJECT)
 @JsonSubTypes({
@@ -30,61 +31,108 @@ public abstract class EventsConsumer implements Consumer<Event> {
     @JsonPropertyDescription("List of events that will be consumed")
     protected List<Event> events;
 
-    protected boolean tagsIntersect(final Event e1, final Event e2) {
-        final boolean matches = e1.getTags() != null && e2.getTags() != null &&
-                !e1
-                        .getTags()
-                        .stream()
-                        .filter(e2.getTags()::contains)
-                        .collect(toSet())
-                        .isEmpty();
-
-        log.trace("tagsIntersect: {}", matches);
-        return matches;
-    }
+    @JsonPropertyDescription("Set to consume events asynchronously, off the thread that fired them")
+    protected Async async;
+
+    @JsonPropertyDescription("Set to buffer events and consume them as a single digest")
+    protected Batch batch;
+
+    @JsonIgnore
+    private volatile EventsIndex eventsIndex;
+
+    @JsonIgnore
+    private EventsExecutor eventsExecutor;
+
+    @JsonIgnore
+    private EventsBatcher eventsBatcher;
+
+    /**
+     * Returns the index of the events this consumer listens to, built once with their regexes compiled,
+     * and again only if the events are replaced.
+     *
+     * @return the index of the events
+     */
+    protected EventsIndex getEventsIndex() {
+        final EventsIndex index = eventsIndex;
+
+        if (index != null && index.getEvents() == events) {
+            return index;
+        }
 
-    protected boolean primaryAndSecondaryIdMatch(final Event e1, final Event e2) {
-        final boolean matches = e1.getPrimaryId() != null && e2.getPrimaryId() != null && e1.getPrimaryId().matches(e2.getPrimaryId()) &&
-                e1.getSecondaryId() != null && e2.getSecondaryId() != null && e1.getSecondaryId().matches(e2.getSecondaryId());
+        eventsIndex = new EventsIndex(events);
+        return eventsIndex;
+    }
 
-        log.trace("primaryAndSecondaryIdMatch: {}", matches);
-        return matches;
+    public void match(final Event event) {
+        log.trace("{} matchers for {}", getClass().getSimpleName(), event);
+
+        for (EventsIndex.Rule rule : getEventsIndex().matchesOf(event)) {
+            log.debug("{} is consuming {} as per {}", getClass().getSimpleName(), event, rule.getEvent());
+
+            if (batch != null) {
+                getEventsBatcher().add(event);
+            } else if (async != null) {
+                getEventsExecutor().submit(event);
+            } else {
+                acceptSilently(event);
+            }
+        }
     }
 
-    protected boolean justPrimaryIdMatches(final Event e1, final Event e2) {
-        final boolean matches = e1.getPrimaryId() != null && e2.getPrimaryId() != null && e1.getPrimaryId().matches(e2.getPrimaryId())
-                && e1.getSecondaryId() == null;
+    protected synchronized EventsExecutor getEventsExecutor() {
+        if (eventsExecutor == null) {
+            eventsExecutor = new EventsExecutor(this);
+        }
 
-        log.trace("justPrimaryIdMatches: {}", matches);
-        return matches;
+        return eventsExecutor;
     }
 
-    protected boolean reasonMatches(final Event e1, final Event e2) {
-        final boolean matches = e1.getReason() != null && e2.getReason() != null && e1.getReason().matches(e2.getReason());
+    protected synchronized EventsBatcher getEventsBatcher() {
+        if (eventsBatcher == null) {
+            eventsBatcher = new EventsBatcher(this).start();
+        }
 
-        log.trace("reasonMatches: {}", matches);
-        return matches;
+        return eventsBatcher;
     }
 
-    protected boolean resultMatches(final Event e1, final Event e2) {
-        final boolean matches = e1.getResult() != null && e1.getResult().equals(e2.getResult());
+    /**
+     * Stops accepting events, if asynchronous or batching, letting the queued ones be consumed.
+     */
+    public synchronized void shutdown() {
+        if (eventsExecutor != null) {
+            eventsExecutor.shutdown();
+        }
 
-        log.trace("resultMatches: {}", matches);
-        return matches;
+        if (eventsBatcher != null) {
+            eventsBatcher.shutdown();
+        }
     }
 
-    protected boolean findMatchFor(Event e1, Event e2) {
-        return (reasonMatches(e1, e2) || resultMatches(e1, e2)) &&
-                (primaryAndSecondaryIdMatch(e1, e2) || justPrimaryIdMatches(e1, e2) || tagsIntersect(e1, e2));
+    /**
+     * Waits for the queued events to be consumed, if asynchronous or batching, up to the configured drain timeout.
+     *
+     * @param startNanos the {@link System#nanoTime()} the drain timeout is counted from
+     */
+    public synchronized void awaitTermination(final long startNanos) {
+        if (eventsExecutor != null) {
+            eventsExecutor.awaitTermination(startNanos);
+            eventsExecutor = null;
+        }
+
+        if (eventsBatcher != null) {
+            eventsBatcher.awaitTermination(startNanos);
+            eventsBatcher = null;
+        }
     }
 
-    public void match(final Event event) {
-        events
-                .stream()
-                .peek(h -> log.trace("{} matchers for {}", getClass().getSimpleName(), event))
-                .filter(h -> findMatchFor(event, h))
-                .peek(h -> log.debug("{} is consuming {}", getClass().getSimpleName(), event))
-                .forEach(h -> acceptSilently(event));
+    /**
+     * Consumes the provided events, buffered when batching, all at once. By default, they're consumed one by one:
+     * consumers able to send a single digest override this.
+     *
+     * @param events the buffered events, in the order they were fired
+     */
+    public void acceptDigest(final List<Event> events) {
+        events.forEach(this);
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -95,4 +143,50 @@ public abstract class EventsConsumer implements Consumer<Event> {
             log.error(e.getMessage(), e);
         }
     }
+
+    @Getter
+    @Generated
+    public static class Async {
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Whether to consume events on virtual threads, best for consumers waiting on the network. Set to false for cpu-bound consumers, run on platform threads")
+        private boolean virtual = true;
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Maximum number of events consumed concurrently. 1 keeps them in order")
+        private int threads = 1;
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Maximum number of events waiting to be consumed. Events fired when the queue is full are dropped")
+        private int queueSize = 100;
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Seconds after which consuming an event is interrupted. 0 means no timeout")
+        private long timeout = 60;
+
+        @SuppressWarnings("unused")
+        @JsonPropertyDescription("Times an event is consumed again if it fails or times out, before being dropped")
+        private int retries;
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Seconds to wait, when the suite ends, for the queued events to be consumed. Remaining ones are dropped")
+        private long drainTimeout = 60;
+    }
+
+    @Getter
+    @Generated
+    public static class Batch {
+
+        @SuppressWarnings("unused")
+        @JsonPropertyDescription("Number of events after which the digest is sent. 0 means no limit")
+        private int size;
+
+        @SuppressWarnings("unused")
+        @JsonPropertyDescription("Seconds after which the events buffered so far are sent as a digest. 0 means no interval")
+        private long interval;
+
+        @SuppressWarnings("FieldMayBeFinal")
+        @JsonPropertyDescription("Seconds to wait, when the suite ends, for the last digests to be sent. Remaining ones are dropped")
+        private long drainTimeout = 60;
+    }
 }
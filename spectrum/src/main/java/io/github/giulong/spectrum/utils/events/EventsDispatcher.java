@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
+import java.util.List;
 import java.util.Set;
 
 import static lombok.AccessLevel.PRIVATE;
@@ -40,6 +41,13 @@ public class EventsDispatcher implements SessionHook {
     public void sessionClosed() {
         log.debug("Session closed hook");
         fire(AFTER, Set.of(SUITE), configuration.getSummary().toResult());
+
+        final List<EventsConsumer> eventsConsumers = configuration.getEventsConsumers();
+        final long startNanos = System.nanoTime();
+
+        log.debug("Draining asynchronous and batching events consumers");
+        eventsConsumers.forEach(EventsConsumer::shutdown);
+        eventsConsumers.forEach(consumer -> consumer.awaitTermination(startNanos));
     }
 
     public void fire(final String reason, final Set<String> tags) {
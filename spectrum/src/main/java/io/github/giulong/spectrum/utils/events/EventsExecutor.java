@@ -0,0 +1,158 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.pojos.events.Event;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Consumes the events of an asynchronous consumer off the thread that fired them, so that a slow consumer doesn't delay
+ * the tests. Each consumer has its own executor and bounded queue, so that it can't slow down the others either:
+ * events fired while the queue is full are dropped, and each event is interrupted if not consumed within the timeout,
+ * and then retried up to the configured times. Events are retried only if their consumer failed, so that the ones
+ * consumed just as the timeout expired aren't delivered twice.
+ */
+@Slf4j
+public class EventsExecutor {
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("events-watchdog").factory());
+
+    private final EventsConsumer consumer;
+    private final EventsConsumer.Async async;
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean abandoned;
+
+    public EventsExecutor(final EventsConsumer consumer) {
+        this.consumer = consumer;
+        this.async = consumer.getAsync();
+        this.name = consumer.getClass().getSimpleName();
+
+        final int threads = Math.max(1, async.getThreads());
+        final ThreadFactory threadFactory = async.isVirtual()
+                ? Thread.ofVirtual().name(name + "-", 0).factory()
+                : Thread.ofPlatform().daemon().name(name + "-", 0).factory();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, SECONDS, new ArrayBlockingQueue<>(Math.max(1, async.getQueueSize())), threadFactory);
+    }
+
+    public void submit(final Event event) {
+        submit(event, 1);
+    }
+
+    /**
+     * Stops accepting events, letting the queued ones be consumed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the queued events to be consumed, up to the configured drain timeout since the provided instant.
+     * Events still queued then are dropped, while the ones being consumed are interrupted. These are not counted as
+     * dropped, since their consumer might have already delivered them, nor retried.
+     *
+     * @param startNanos the {@link System#nanoTime()} the drain timeout is counted from
+     */
+    public void awaitTermination(final long startNanos) {
+        final long remainingNanos = SECONDS.toNanos(async.getDrainTimeout()) - (System.nanoTime() - startNanos);
+
+        try {
+            if (!executor.awaitTermination(Math.max(0, remainingNanos), NANOSECONDS)) {
+                abandoned = true;
+                final int pending = executor.shutdownNow().size();
+                dropped.addAndGet(pending);
+                log.warn("{} didn't consume its events within {}s. Dropping {} pending events and interrupting the ones in progress", name, async.getDrainTimeout(), pending);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for {} to consume its events", name);
+            abandoned = true;
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (dropped.get() > 0) {
+            log.warn("{} dropped {} events in total", name, dropped.get());
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    protected void submit(final Event event, final int attempt) {
+        try {
+            executor.execute(() -> consume(event, attempt));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            log.warn("{} can't keep up or is shut down. Dropping event {}", name, event);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    protected void consume(final Event event, final int attempt) {
+        final Thread thread = Thread.currentThread();
+        final AtomicBoolean finished = new AtomicBoolean();
+        final ScheduledFuture<?> watchdog = async.getTimeout() > 0
+                ? WATCHDOG.schedule(() -> interrupt(thread, finished), async.getTimeout(), SECONDS)
+                : null;
+
+        Exception failure = null;
+        try {
+            consumer.accept(event);
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+
+        if (!finished.compareAndSet(false, true)) {
+            // clearing the watchdog's interrupt. A late one is cleared by the pool before running the next event
+            //noinspection ResultOfMethodCallIgnored
+            Thread.interrupted();
+
+            // the watchdog might fire after the event was consumed: retrying it would deliver it twice
+            if (failure == null) {
+                log.debug("{} consumed event {} just as its timeout expired", name, event);
+                return;
+            }
+
+            failure = new TimeoutException(String.format("not consumed within %ds", async.getTimeout()));
+        }
+
+        if (failure == null) {
+            return;
+        }
+
+        if (abandoned) {
+            log.warn("{} was interrupted consuming event {} at shutdown: {}", name, event, failure.getMessage());
+            return;
+        }
+
+        if (attempt <= async.getRetries()) {
+            log.warn("{} failed consuming event {}: {}. Retrying ({}/{})", name, event, failure.getMessage(), attempt, async.getRetries());
+            submit(event, attempt + 1);
+            return;
+        }
+
+        dropped.incrementAndGet();
+        log.error(String.format("%s failed consuming event %s. Dropping it", name, event), failure);
+    }
+
+    protected void interrupt(final Thread thread, final AtomicBoolean finished) {
+        if (finished.compareAndSet(false, true)) {
+            log.warn("{} is taking longer than {}s to consume an event. Interrupting it", name, async.getTimeout());
+            thread.interrupt();
+        }
+    }
+}
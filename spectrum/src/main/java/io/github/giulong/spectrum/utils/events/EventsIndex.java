@@ -0,0 +1,232 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.enums.Result;
+import io.github.giulong.spectrum.pojos.events.Event;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Events a consumer listens to, with their regexes compiled once, indexed by reason, result and tag.
+ * Each fired event is checked only against the rules sharing its reason or result, and rules listening
+ * just to tags are looked up by the tags of the fired event, so that dispatching doesn't slow down as rules grow.
+ */
+@Slf4j
+public class EventsIndex {
+
+    private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    @Getter
+    private final List<Event> events;
+    private final Map<String, Bucket> literalReasons = new HashMap<>();
+    private final List<Rule> patternReasons = new ArrayList<>();
+    private final Map<Result, Bucket> results = new EnumMap<>(Result.class);
+
+    public EventsIndex(final List<Event> events) {
+        this.events = events;
+
+        for (Event event : events) {
+            final Rule rule = new Rule(event);
+
+            if (rule.primaryId == null && rule.tags.isEmpty()) {
+                log.debug("Event {} has neither a primaryId nor tags, and will never be matched", event);
+                continue;
+            }
+
+            final String reason = event.getReason();
+            if (reason != null) {
+                if (REGEX_METACHARACTERS.matcher(reason).find()) {
+                    patternReasons.add(rule);
+                } else {
+                    literalReasons.computeIfAbsent(reason, r -> new Bucket()).add(rule);
+                }
+            }
+
+            if (rule.result != null) {
+                results.computeIfAbsent(rule.result, r -> new Bucket()).add(rule);
+            }
+        }
+    }
+
+    /**
+     * Returns the rules matching the provided event, each at most once.
+     *
+     * @param event the fired event
+     * @return the matching rules, in no particular order
+     */
+    public List<Rule> matchesOf(final Event event) {
+        final String reason = event.getReason();
+        final Result result = event.getResult();
+        final List<Rule> matches = new ArrayList<>(0);
+
+        if (reason != null) {
+            final Bucket bucket = literalReasons.get(reason);
+            if (bucket != null) {
+                bucket.collect(event, matches, null);
+            }
+
+            for (Rule rule : patternReasons) {
+                if (rule.reasonMatches(reason) && rule.idsOrTagsMatch(event)) {
+                    matches.add(rule);
+                }
+            }
+        }
+
+        if (result != null) {
+            final Bucket bucket = results.get(result);
+            if (bucket != null) {
+                bucket.collect(event, matches, reason);
+            }
+        }
+
+        return matches;
+    }
+
+    protected static class Bucket {
+
+        private final List<Rule> withIds = new ArrayList<>();
+        private final Map<String, List<Rule>> byTag = new HashMap<>();
+
+        protected void add(final Rule rule) {
+            if (rule.primaryId != null) {
+                withIds.add(rule);
+                return;
+            }
+
+            rule.tags.forEach(tag -> byTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(rule));
+        }
+
+        /**
+         * Adds the rules of this bucket matching the provided event to the matches.
+         *
+         * @param event         the fired event
+         * @param matches       the list the matching rules are added to
+         * @param matchedReason the reason of the event, if rules matching it were already collected, to skip them here
+         */
+        protected void collect(final Event event, final List<Rule> matches, final String matchedReason) {
+            for (Rule rule : withIds) {
+                if (!rule.reasonMatches(matchedReason) && rule.idsOrTagsMatch(event)) {
+                    matches.add(rule);
+                }
+            }
+
+            final Set<String> tags = event.getTags();
+            if (tags == null || byTag.isEmpty()) {
+                return;
+            }
+
+            for (String tag : tags) {
+                final List<Rule> rules = byTag.get(tag);
+                if (rules == null) {
+                    continue;
+                }
+
+                for (Rule rule : rules) {
+                    if (!rule.reasonMatches(matchedReason) && !rule.hasTagBefore(tags, tag)) {
+                        matches.add(rule);
+                    }
+                }
+            }
+        }
+    }
+
+    @Getter
+    public static class Rule {
+
+        private final Event event;
+        private final Pattern primaryId;
+        private final Pattern secondaryId;
+        private final Pattern reason;
+        private final Result result;
+        private final Set<String> tags;
+
+        public Rule(final Event event) {
+            this.event = event;
+            this.primaryId = compile(event.getPrimaryId());
+            this.secondaryId = compile(event.getSecondaryId());
+            this.reason = compile(event.getReason());
+            this.result = event.getResult();
+            this.tags = event.getTags() != null ? event.getTags() : Set.of();
+        }
+
+        protected static Pattern compile(final String regex) {
+            return regex != null ? Pattern.compile(regex) : null;
+        }
+
+        public boolean matches(final Event event) {
+            return (reasonMatches(event.getReason()) || resultMatches(event.getResult())) && idsOrTagsMatch(event);
+        }
+
+        public boolean idsOrTagsMatch(final Event event) {
+            return primaryAndSecondaryIdMatch(event) || justPrimaryIdMatches(event) || tagsIntersect(event);
+        }
+
+        public boolean tagsIntersect(final Event event) {
+            final Set<String> eventTags = event.getTags();
+            boolean matches = false;
+
+            if (eventTags != null) {
+                for (String tag : eventTags) {
+                    if (tags.contains(tag)) {
+                        matches = true;
+                        break;
+                    }
+                }
+            }
+
+            log.trace("tagsIntersect: {}", matches);
+            return matches;
+        }
+
+        public boolean primaryAndSecondaryIdMatch(final Event event) {
+            final boolean matches = primaryId != null && secondaryId != null &&
+                    event.getPrimaryId() != null && primaryId.matcher(event.getPrimaryId()).matches() &&
+                    event.getSecondaryId() != null && secondaryId.matcher(event.getSecondaryId()).matches();
+
+            log.trace("primaryAndSecondaryIdMatch: {}", matches);
+            return matches;
+        }
+
+        public boolean justPrimaryIdMatches(final Event event) {
+            final boolean matches = primaryId != null && event.getPrimaryId() != null && primaryId.matcher(event.getPrimaryId()).matches()
+                    && event.getSecondaryId() == null;
+
+            log.trace("justPrimaryIdMatches: {}", matches);
+            return matches;
+        }
+
+        public boolean reasonMatches(final String eventReason) {
+            final boolean matches = reason != null && eventReason != null && reason.matcher(eventReason).matches();
+
+            log.trace("reasonMatches: {}", matches);
+            return matches;
+        }
+
+        public boolean resultMatches(final Result eventResult) {
+            final boolean matches = eventResult != null && eventResult.equals(result);
+
+            log.trace("resultMatches: {}", matches);
+            return matches;
+        }
+
+        /**
+         * Tells if this rule has one of the provided tags coming before the provided one, in which case
+         * it was already matched when looking up that tag.
+         */
+        protected boolean hasTagBefore(final Set<String> eventTags, final String tag) {
+            for (String eventTag : eventTags) {
+                if (eventTag.equals(tag)) {
+                    return false;
+                }
+
+                if (tags.contains(eventTag)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
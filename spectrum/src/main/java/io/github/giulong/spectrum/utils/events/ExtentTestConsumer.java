@@ -1,6 +1,7 @@
 package io.github.giulong.spectrum.utils.events;
 
 import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.github.giulong.spectrum.internals.jackson.views.Views.Internal;
 import io.github.giulong.spectrum.pojos.events.Event;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @JsonView(Internal.class)
+@JsonIgnoreProperties({"async", "batch"})
 public class ExtentTestConsumer extends EventsConsumer {
 
     private final ExtentReporter extentReporter = ExtentReporter.getInstance();
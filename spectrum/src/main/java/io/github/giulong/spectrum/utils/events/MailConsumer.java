@@ -1,5 +1,6 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.github.giulong.spectrum.pojos.events.Attachment;
 import io.github.giulong.spectrum.pojos.events.Event;
@@ -21,24 +22,41 @@ import static java.util.stream.Collectors.toList;
 @Getter
 public class MailConsumer extends EventsConsumer {
 
-    private static final FileUtils FILE_UTILS = FileUtils.getInstance();
+    private static final Mailer MAILER = MailerBuilder.buildMailer();
 
-    private static final FreeMarkerWrapper FREE_MARKER_WRAPPER = FreeMarkerWrapper.getInstance();
+    @JsonIgnore
+    private final FileUtils fileUtils = FileUtils.getInstance();
 
-    private static final Mailer MAILER = MailerBuilder.buildMailer();
+    @JsonIgnore
+    private final FreeMarkerWrapper freeMarkerWrapper = FreeMarkerWrapper.getInstance();
+
+    // shared by all the mail consumers, so that they reuse the same connections
+    @JsonIgnore
+    private final Mailer mailer = MAILER;
 
     @JsonPropertyDescription("Template to be used when creating the message")
     private final String template = "mail.html";
 
+    @JsonPropertyDescription("Template to be used when creating the message with the digest of the buffered events, if batching")
+    private final String digestTemplate = "mail-digest.html";
+
     @JsonPropertyDescription("List of attachments to add to the email")
     private final List<Attachment> attachments = new ArrayList<>();
 
     @Override
     public void accept(final Event event) {
-        final Map<String, Object> vars = Map.of("event", event);
-        final String interpolatedTemplate = FREE_MARKER_WRAPPER.interpolate(FILE_UTILS.readTemplate(template), vars);
+        send(template, Map.of("event", event));
+    }
+
+    @Override
+    public void acceptDigest(final List<Event> events) {
+        send(digestTemplate, Map.of("events", events));
+    }
+
+    protected void send(final String templateName, final Map<String, Object> vars) {
+        final String interpolatedTemplate = freeMarkerWrapper.interpolate(fileUtils.readTemplate(templateName), vars);
 
-        MAILER.sendMail(EmailBuilder
+        mailer.sendMail(EmailBuilder
                 .startingBlank()
                 .withHTMLText(interpolatedTemplate)
                 .withAttachments(attachments
@@ -1,7 +1,9 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.slack.api.Slack;
+import com.slack.api.methods.MethodsClient;
 import com.slack.api.methods.request.chat.ChatPostMessageRequest;
 import io.github.giulong.spectrum.pojos.events.Event;
 import io.github.giulong.spectrum.utils.FileUtils;
@@ -9,37 +11,69 @@ import io.github.giulong.spectrum.utils.FreeMarkerWrapper;
 import lombok.Getter;
 import lombok.SneakyThrows;
 
+import java.util.List;
 import java.util.Map;
 
 @Getter
 public class SlackConsumer extends EventsConsumer {
 
-    private static final FileUtils FILE_UTILS = FileUtils.getInstance();
+    // Slack accepts up to 50 blocks per message, and the digest template uses one per event plus the header ones
+    protected static final int DIGEST_PAGE_SIZE = 45;
 
-    private static final FreeMarkerWrapper FREE_MARKER_WRAPPER = FreeMarkerWrapper.getInstance();
+    @JsonIgnore
+    private final FileUtils fileUtils = FileUtils.getInstance();
+
+    @JsonIgnore
+    private final FreeMarkerWrapper freeMarkerWrapper = FreeMarkerWrapper.getInstance();
 
     @JsonPropertyDescription("Template to be used when creating the message")
     private final String template = "slack.json";
 
+    @JsonPropertyDescription("Template to be used when creating the message with the digest of the buffered events, if batching")
+    private final String digestTemplate = "slack-digest.json";
+
     @JsonPropertyDescription("Target channel where to send the message")
     protected String channel;
 
     @JsonPropertyDescription("Bot User OAuth Token")
     protected String token;
 
+    @JsonIgnore
+    private MethodsClient methodsClient;
+
     @Override
-    @SneakyThrows
     public void accept(final Event event) {
-        final Map<String, Object> vars = Map.of("event", event);
-        final String interpolatedTemplate = FREE_MARKER_WRAPPER.interpolate(FILE_UTILS.readTemplate(template), vars);
-
-        Slack
-                .getInstance()
-                .methods(token)
-                .chatPostMessage(ChatPostMessageRequest.builder()
-                        .channel(channel)
-                        .text("Spectrum notification")
-                        .blocksAsString(interpolatedTemplate)
-                        .build());
+        send(template, Map.of("event", event));
+    }
+
+    @Override
+    public void acceptDigest(final List<Event> events) {
+        for (int from = 0; from < events.size(); from += DIGEST_PAGE_SIZE) {
+            send(digestTemplate, Map.of("events", events.subList(from, Math.min(from + DIGEST_PAGE_SIZE, events.size()))));
+        }
+    }
+
+    /**
+     * Returns the client used to send messages, built once and shared by all the messages sent by this consumer.
+     *
+     * @return the Slack methods client
+     */
+    protected synchronized MethodsClient getMethodsClient() {
+        if (methodsClient == null) {
+            methodsClient = Slack.getInstance().methods(token);
+        }
+
+        return methodsClient;
+    }
+
+    @SneakyThrows
+    protected void send(final String templateName, final Map<String, Object> vars) {
+        final String interpolatedTemplate = freeMarkerWrapper.interpolate(fileUtils.readTemplate(templateName), vars);
+
+        getMethodsClient().chatPostMessage(ChatPostMessageRequest.builder()
+                .channel(channel)
+                .text("Spectrum notification")
+                .blocksAsString(interpolatedTemplate)
+                .build());
     }
 }
@@ -1,5 +1,6 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.github.giulong.spectrum.internals.jackson.views.Views.Internal;
 import io.github.giulong.spectrum.utils.Configuration;
@@ -11,6 +12,7 @@ import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResol
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 
 @JsonView(Internal.class)
+@JsonIgnoreProperties({"async", "batch"})
 public class TestBookConsumer extends EventsConsumer {
 
     @Override
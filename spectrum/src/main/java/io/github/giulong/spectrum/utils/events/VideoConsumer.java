@@ -1,14 +1,22 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.aventstack.extentreports.ExtentTest;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
+import io.github.giulong.spectrum.interfaces.FrameCapture;
 import io.github.giulong.spectrum.internals.jackson.views.Views.Internal;
 import io.github.giulong.spectrum.pojos.events.Event;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.ExtentReporter;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
 import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoEncodingPool;
+import io.github.giulong.spectrum.utils.video.VideoStream;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.jcodec.api.awt.AWTSequenceEncoder;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
@@ -18,32 +26,40 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import static io.github.giulong.spectrum.SpectrumEntity.HASH_ALGORITHM;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
+import static io.github.giulong.spectrum.extensions.resolvers.DriverResolver.FRAME_CAPTURE;
 import static io.github.giulong.spectrum.extensions.resolvers.DriverResolver.DRIVER;
+import static io.github.giulong.spectrum.extensions.resolvers.ExtentTestResolver.EXTENT_TEST;
 import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
+import static io.github.giulong.spectrum.utils.ScreenshotWriter.isScreenshot;
+import static io.github.giulong.spectrum.utils.ScreenshotWriter.sequenceOf;
 import static java.awt.image.BufferedImage.TYPE_INT_RGB;
 import static java.util.Comparator.comparingLong;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 
 @Slf4j
 @JsonView(Internal.class)
+@JsonIgnoreProperties({"async", "batch"})
 public class VideoConsumer extends EventsConsumer {
 
     private final ClassLoader classLoader = VideoConsumer.class.getClassLoader();
 
-    private Set<byte[]> framesDigests;
-    private MessageDigest messageDigest;
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+
+    private final VideoEncodingPool videoEncodingPool = VideoEncodingPool.getInstance();
+
+    private final ExtentReporter extentReporter = ExtentReporter.getInstance();
 
     @SneakyThrows
     @Override
@@ -57,34 +73,72 @@ public class VideoConsumer extends EventsConsumer {
             return;
         }
 
-        this.framesDigests = ConcurrentHashMap.newKeySet();
-        this.messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
+        final FrameCapture frameCapture = store.get(FRAME_CAPTURE, FrameCapture.class);
+        if (frameCapture != null) {
+            frameCapture.stop();
+
+            if (frameCapture.recordsVideo()) {
+                log.info("Video for test {}.{} recorded by the driver", testData.getClassName(), testData.getMethodName());
+                return;
+            }
+        }
+
+        final FrameBuffer frameBuffer = testData.getFrameBuffer();
+        if (frameBuffer != null && !frameBuffer.isPersisted()) {
+            log.debug("Test {}.{} didn't fail. Discarding its video", testData.getClassName(), testData.getMethodName());
+            frameBuffer.clear();
+
+            final ExtentTest extentTest = store.get(EXTENT_TEST, ExtentTest.class);
+            if (extentTest != null) {
+                extentReporter.detachVideo(extentTest, testData);
+            }
+            return;
+        }
+
+        final Path videoPath = testData.getVideoPath();
+        final VideoStream videoStream = testData.getVideoStream();
+        if (videoStream != null) {
+            log.info("Finalizing video for test {}.{}", testData.getClassName(), testData.getMethodName());
+            videoEncodingPool.track(videoPath, videoStream.finish());
+            return;
+        }
 
         log.info("Generating video for test {}.{}", testData.getClassName(), testData.getMethodName());
+        screenshotWriter.flush(testData.getScreenshotFolderPath());
 
         try (Stream<Path> screenshots = Files.walk(testData.getScreenshotFolderPath())) {
-            final AWTSequenceEncoder encoder = AWTSequenceEncoder.createSequenceEncoder(testData.getVideoPath().toFile(), 1);
             final List<File> frames = screenshots
                     .map(Path::toFile)
                     .filter(File::isFile)
-                    .filter(this::isNewFrame)
-                    .sorted(comparingLong(File::lastModified))
+                    .filter(file -> isScreenshot(file.toPath()))
+                    .sorted(comparingLong(file -> sequenceOf(file.toPath())))
                     .toList();
+            final Dimension dimension = frames.isEmpty() ? null : chooseDimensionFor(store.get(DRIVER, WebDriver.class), video);
 
-            if (frames.isEmpty()) {
-                log.debug("No frames were added to the video. Adding 'no-video.png'");
-                final URL noVideoPng = Objects.requireNonNull(classLoader.getResource("no-video.png"));
-                encoder.encodeImage(ImageIO.read(noVideoPng));
-            } else {
-                final Dimension dimension = chooseDimensionFor(store.get(DRIVER, WebDriver.class), video);
+            videoEncodingPool.encode(videoPath, () -> encode(video, videoPath, frames, dimension));
+        }
+    }
 
-                for (File frame : frames) {
+    @SneakyThrows
+    protected void encode(final Video video, final Path videoPath, final List<File> frames, final Dimension dimension) {
+        final MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
+        final Set<ByteBuffer> framesDigests = new HashSet<>();
+        final VideoEncoder.Encoding encoder = video.getEncoder().open(videoPath.toFile(), video.getFrameRate());
+        final boolean keepDuplicates = video.isTimeBased();
+
+        if (frames.isEmpty()) {
+            log.debug("No frames were added to the video. Adding 'no-video.png'");
+            final URL noVideoPng = Objects.requireNonNull(classLoader.getResource("no-video.png"));
+            encoder.encodeImage(ImageIO.read(noVideoPng));
+        } else {
+            for (File frame : frames) {
+                if (keepDuplicates || isNewFrame(frame, messageDigest, framesDigests)) {
                     encoder.encodeImage(resize(ImageIO.read(frame), dimension));
                 }
             }
-
-            encoder.finish();
         }
+
+        encoder.finish();
     }
 
     protected Dimension chooseDimensionFor(final WebDriver driver, final Video video) {
@@ -109,11 +163,8 @@ public class VideoConsumer extends EventsConsumer {
     }
 
     @SneakyThrows
-    protected boolean isNewFrame(final File screenshot) {
-        final byte[] digest = messageDigest.digest(Files.readAllBytes(screenshot.toPath()));
-
-        if (framesDigests.stream().noneMatch(frameDigest -> Arrays.equals(digest, frameDigest))) {
-            framesDigests.add(digest);
+    protected boolean isNewFrame(final File screenshot, final MessageDigest messageDigest, final Set<ByteBuffer> framesDigests) {
+        if (framesDigests.add(ByteBuffer.wrap(messageDigest.digest(Files.readAllBytes(screenshot.toPath()))))) {
             return true;
         }
 
@@ -22,6 +22,7 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.github.giulong.spectrum.enums.Result.*;
 import static java.util.function.Function.identity;
@@ -51,16 +52,16 @@ public class TestBook implements SessionHook, Reportable {
     private List<CanReportTestBook> reporters;
 
     @JsonIgnore
-    private final Map<String, TestBookTest> mappedTests = new HashMap<>();
+    private final Map<String, TestBookTest> mappedTests = new ConcurrentHashMap<>();
 
     @JsonIgnore
-    private final Map<String, TestBookTest> unmappedTests = new HashMap<>();
+    private final Map<String, TestBookTest> unmappedTests = new ConcurrentHashMap<>();
 
     @JsonIgnore
-    private final Map<String, Set<TestBookTest>> groupedMappedTests = new HashMap<>();
+    private final Map<String, Set<TestBookTest>> groupedMappedTests = new ConcurrentHashMap<>();
 
     @JsonIgnore
-    private final Map<String, Set<TestBookTest>> groupedUnmappedTests = new HashMap<>();
+    private final Map<String, Set<TestBookTest>> groupedUnmappedTests = new ConcurrentHashMap<>();
 
     @JsonIgnore
     private final TestBookStatistics statistics = new TestBookStatistics();
@@ -173,9 +174,7 @@ public class TestBook implements SessionHook, Reportable {
     }
 
     protected void updateGroupedTests(final Map<String, Set<TestBookTest>> groupedTests, final String className, final TestBookTest test) {
-        final Set<TestBookTest> tests = groupedTests.getOrDefault(className, new HashSet<>());
-        tests.add(test);
-        groupedTests.put(className, tests);
+        groupedTests.computeIfAbsent(className, k -> ConcurrentHashMap.newKeySet()).add(test);
     }
 
     public void updateWithResult(final String className, final String testName, final Result result) {
@@ -0,0 +1,163 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.interfaces.FrameCapture;
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.JsonUtils;
+import io.github.giulong.spectrum.utils.Screenshot;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static io.github.giulong.spectrum.enums.Frame.BACKGROUND;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openqa.selenium.OutputType.BASE64;
+import static org.openqa.selenium.remote.DriverCommand.SCREENSHOT;
+
+/**
+ * Takes the frames of a test's video at a fixed rate, on a dedicated thread and on a dedicated http connection to the
+ * driver's session, so that the test's own calls to the driver don't wait for screenshots. When a screenshot takes longer
+ * than the frame period, it fills all the frames elapsed meanwhile, so that the video follows the actual timing of the test.
+ * The driver's session and address are resolved upon creation, on the test's thread, from the leased driver, since the
+ * one returned to tests rejects calls from other threads.
+ */
+@Slf4j
+public class BackgroundCapture implements FrameCapture {
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(WORKERS,
+            Thread.ofPlatform().daemon().name("background-capture-", 0).factory());
+
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+    private final JsonUtils jsonUtils = JsonUtils.getInstance();
+    private final WebDriver driver;
+    private final TestData testData;
+    private final Screenshot screenshot;
+    private final SessionId sessionId;
+    private final CommandExecutor commandExecutor;
+    private final URI screenshotUri;
+    private final HttpClient httpClient;
+    private final long periodNanos;
+
+    private ScheduledFuture<?> scheduledFuture;
+    private long startNanos;
+    private long frames;
+    private boolean stopped;
+
+    public BackgroundCapture(final Video video, final WebDriver driver, final TestData testData) {
+        final RemoteWebDriver remoteWebDriver = driver instanceof RemoteWebDriver r ? r : null;
+
+        this.driver = driver;
+        this.testData = testData;
+        this.screenshot = video.getScreenshot();
+        this.sessionId = remoteWebDriver != null ? remoteWebDriver.getSessionId() : null;
+        this.commandExecutor = remoteWebDriver != null ? remoteWebDriver.getCommandExecutor() : null;
+        this.screenshotUri = screenshotUriOf(commandExecutor, sessionId);
+        this.httpClient = screenshotUri != null ? HttpClient.newHttpClient() : null;
+        this.periodNanos = SECONDS.toNanos(1) / Math.max(1, video.getFrameRate());
+    }
+
+    @Override
+    public synchronized BackgroundCapture start() {
+        log.debug("Capturing a frame every {} ms in background", NANOSECONDS.toMillis(periodNanos));
+        startNanos = System.nanoTime();
+        scheduledFuture = SCHEDULER.scheduleAtFixedRate(this::capture, 0, periodNanos, NANOSECONDS);
+
+        return this;
+    }
+
+    @Override
+    public synchronized void stop() {
+        log.debug("Stopping background capture after {} frames", frames);
+        stopped = true;
+
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    protected synchronized void capture() {
+        final long dueFrames = (System.nanoTime() - startNanos) / periodNanos + 1;
+        if (stopped || frames >= dueFrames) {
+            return;
+        }
+
+        try {
+            final String frame = screenshot.shrink(takeScreenshot());
+            final VideoStream videoStream = testData.getVideoStream();
+            final FrameBuffer frameBuffer = testData.getFrameBuffer();
+
+            for (; frames < dueFrames; frames++) {
+                if (frameBuffer != null) {
+                    frameBuffer.add(BACKGROUND, frame);
+                } else if (videoStream != null) {
+                    videoStream.push(frame);
+                } else {
+                    screenshotWriter.write(testData.getScreenshotFolderPath(), BACKGROUND, frame);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Cannot capture background frame: {}", e.getMessage());
+        }
+    }
+
+    protected String takeScreenshot() throws IOException, InterruptedException {
+        if (screenshotUri == null) {
+            return commandExecutor == null ? ((TakesScreenshot) driver).getScreenshotAs(BASE64) : executeScreenshot();
+        }
+
+        final HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(screenshotUri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new WebDriverException(String.format("Screenshot request failed with status %d: %s", response.statusCode(), response.body()));
+        }
+
+        return String.valueOf(jsonUtils.read(response.body(), Map.class).get("value"));
+    }
+
+    /**
+     * Sends the screenshot command straight to the executor of the driver's session, bypassing the driver itself.
+     */
+    protected String executeScreenshot() throws IOException {
+        final Response response = commandExecutor.execute(new Command(sessionId, SCREENSHOT));
+
+        if (!(response.getValue() instanceof String value)) {
+            throw new WebDriverException(String.format("Screenshot command failed: %s", response.getValue()));
+        }
+
+        return value;
+    }
+
+    protected static URI screenshotUriOf(final CommandExecutor executor, final SessionId session) {
+        if (executor instanceof HttpCommandExecutor httpCommandExecutor) {
+            final String address = httpCommandExecutor.getAddressOfRemoteServer().toString().replaceAll("/$", "");
+            return URI.create(String.format("%s/session/%s/screenshot", address, session));
+        }
+
+        log.debug("Session {} doesn't expose its address. Background frames will be taken through {}", session, executor == null ? "the driver" : "its executor");
+        return null;
+    }
+}
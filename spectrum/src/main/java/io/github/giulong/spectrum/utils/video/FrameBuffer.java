@@ -0,0 +1,111 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.enums.Frame;
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Keeps the last frames of a test in memory, so that they're written and encoded only if the test fails or is aborted.
+ * Frames are stored decoded, either on the heap or off-heap, and keep the sequence reserved when they were taken,
+ * so that they don't get out of order with the ones written meanwhile. Once persisted, frames are just passed through.
+ */
+@Slf4j
+public class FrameBuffer {
+
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+    private final Deque<BufferedFrame> bufferedFrames = new ArrayDeque<>();
+    private final int capacity;
+    private final boolean offHeap;
+
+    private TestData testData;
+    private long dropped;
+
+    public FrameBuffer(final Video.FailuresOnly failuresOnly) {
+        this.capacity = Math.max(1, failuresOnly.getFrames());
+        this.offHeap = failuresOnly.isOffHeap();
+    }
+
+    public synchronized void add(final Frame frame, final String base64) {
+        if (isPersisted()) {
+            write(frame, screenshotWriter.nextSequence(), base64);
+            return;
+        }
+
+        if (bufferedFrames.size() == capacity) {
+            bufferedFrames.removeFirst();
+            dropped++;
+        }
+
+        bufferedFrames.addLast(new BufferedFrame(frame, screenshotWriter.nextSequence(), bytesOf(base64)));
+    }
+
+    /**
+     * Writes the buffered frames of the provided test, in the order they were taken. Frames added later are written right away.
+     *
+     * @param testData the data of the test the frames belong to
+     */
+    public synchronized void persist(final TestData testData) {
+        log.debug("Persisting {} buffered frames of test {}.{}, {} older ones were dropped", bufferedFrames.size(), testData.getClassName(), testData.getMethodName(), dropped);
+        this.testData = testData;
+
+        while (!bufferedFrames.isEmpty()) {
+            final BufferedFrame bufferedFrame = bufferedFrames.removeFirst();
+            write(bufferedFrame.getFrame(), bufferedFrame.getSequence(), base64Of(bufferedFrame.getBytes()));
+        }
+    }
+
+    public synchronized boolean isPersisted() {
+        return testData != null;
+    }
+
+    public synchronized int size() {
+        return bufferedFrames.size();
+    }
+
+    public synchronized void clear() {
+        log.debug("Discarding {} buffered frames", bufferedFrames.size());
+        bufferedFrames.clear();
+    }
+
+    protected void write(final Frame frame, final long sequence, final String base64) {
+        final VideoStream videoStream = testData.getVideoStream();
+
+        if (videoStream != null) {
+            videoStream.push(base64);
+        } else {
+            screenshotWriter.write(testData.getScreenshotFolderPath(), frame, sequence, base64);
+        }
+    }
+
+    protected ByteBuffer bytesOf(final String base64) {
+        final byte[] bytes = Base64.getDecoder().decode(base64);
+
+        if (!offHeap) {
+            return ByteBuffer.wrap(bytes);
+        }
+
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    protected String base64Of(final ByteBuffer bytes) {
+        return US_ASCII.decode(Base64.getEncoder().encode(bytes.duplicate())).toString();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    protected static class BufferedFrame {
+        private final Frame frame;
+        private final long sequence;
+        private final ByteBuffer bytes;
+    }
+}
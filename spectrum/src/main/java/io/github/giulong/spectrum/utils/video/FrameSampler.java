@@ -0,0 +1,102 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.enums.Frame;
+import io.github.giulong.spectrum.utils.Configuration.Drivers.Event;
+import io.github.giulong.spectrum.utils.Configuration.Drivers.Events;
+import io.github.giulong.spectrum.utils.Reflections;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
+import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Decides which automatic frames of a single test are worth a screenshot, according to the {@link Video.Capture} policies.
+ * Manual frames are always accepted.
+ */
+@Slf4j
+public class FrameSampler {
+
+    private final long minIntervalNanos;
+    private final long coalesceNanos;
+    private final Map<Event, Double> ratios = new IdentityHashMap<>();
+    private final Map<Event, Double> credits = new IdentityHashMap<>();
+
+    private long lastFrameNanos;
+    private Frame lastFrame;
+
+    public FrameSampler(final Video.Capture capture, final Events events) {
+        final long maxFpsNanos = capture.getMaxFps() > 0 ? (long) (SECONDS.toNanos(1) / capture.getMaxFps()) : 0;
+
+        minIntervalNanos = Math.max(MILLISECONDS.toNanos(capture.getMinInterval()), maxFpsNanos);
+        coalesceNanos = MILLISECONDS.toNanos(capture.getCoalesce());
+
+        if (capture.getSampling() == null) {
+            return;
+        }
+
+        capture.getSampling().forEach((name, ratio) -> {
+            try {
+                final Field field = Events.class.getDeclaredField(name);
+                ratios.put((Event) Reflections.getFieldValue(field, events), ratio);
+            } catch (NoSuchFieldException e) {
+                log.warn("Ignoring video sampling of unknown event '{}'", name);
+            }
+        });
+    }
+
+    public synchronized boolean accept(final Frame frame, final Event event) {
+        if (frame != AUTO_BEFORE && frame != AUTO_AFTER) {
+            return true;
+        }
+
+        if (!isSampled(event)) {
+            log.trace("Skipping frame {}: event not sampled", frame);
+            return false;
+        }
+
+        final long now = System.nanoTime();
+        if (lastFrame != null) {
+            final long elapsed = now - lastFrameNanos;
+
+            if (elapsed < minIntervalNanos) {
+                log.trace("Skipping frame {}: {} ns since the last one", frame, elapsed);
+                return false;
+            }
+
+            if (frame == AUTO_BEFORE && lastFrame == AUTO_AFTER && elapsed < coalesceNanos) {
+                log.trace("Skipping frame {}: coalesced with the previous {}", frame, lastFrame);
+                return false;
+            }
+        }
+
+        lastFrame = frame;
+        lastFrameNanos = now;
+        return true;
+    }
+
+    protected boolean isSampled(final Event event) {
+        final Double ratio = ratios.get(event);
+        if (ratio == null) {
+            return true;
+        }
+
+        if (ratio <= 0) {
+            return false;
+        }
+
+        final double credit = credits.getOrDefault(event, 1 - ratio) + ratio;
+        if (credit < 1) {
+            credits.put(event, credit);
+            return false;
+        }
+
+        credits.put(event, credit - 1);
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
+import io.appium.java_client.android.AndroidStopScreenRecordingOptions;
+import io.appium.java_client.ios.IOSStartScreenRecordingOptions;
+import io.appium.java_client.ios.IOSStopScreenRecordingOptions;
+import io.appium.java_client.screenrecording.BaseStartScreenRecordingOptions;
+import io.appium.java_client.screenrecording.BaseStopScreenRecordingOptions;
+import io.github.giulong.spectrum.interfaces.FrameCapture;
+import io.github.giulong.spectrum.types.TestData;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.openqa.selenium.Platform.ANDROID;
+import static org.openqa.selenium.Platform.IOS;
+
+/**
+ * Records the whole test's video on the Appium server, which encodes the device screen into an mp4 by itself.
+ * No screenshot is taken at all: the mp4 is downloaded once, when the recording is stopped, and stored as the test's video.
+ */
+@Slf4j
+public class ScreenRecorder implements FrameCapture {
+
+    private final AppiumDriver driver;
+    private final TestData testData;
+    private final Video.ScreenRecording screenRecording;
+
+    public ScreenRecorder(final Video video, final AppiumDriver driver, final TestData testData) {
+        this.driver = driver;
+        this.testData = testData;
+        this.screenRecording = video.getScreenRecording();
+    }
+
+    /**
+     * Tells whether the provided driver can record its screen, that is if it's an Appium one running on Android or iOS.
+     * This is meant to be the leased driver, since the one returned to tests is a proxy that's never an AppiumDriver.
+     *
+     * @param driver the driver to check
+     * @return true if the driver can record its screen
+     */
+    public static boolean supports(final WebDriver driver) {
+        if (driver instanceof AppiumDriver appiumDriver) {
+            final Platform platform = appiumDriver.getCapabilities().getPlatformName();
+            return platform != null && (platform.is(ANDROID) || platform.is(IOS));
+        }
+
+        log.debug("Driver {} is not an Appium one and can't record its screen", driver);
+        return false;
+    }
+
+    @Override
+    public ScreenRecorder start() {
+        final Map.Entry<String, Map<String, ?>> command = MobileCommand.startRecordingScreenCommand(optionsFor(driver.getCapabilities().getPlatformName()));
+
+        log.debug("Starting screen recording with {}", command.getValue());
+        driver.execute(command.getKey(), command.getValue());
+
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        final Path videoPath = testData.getVideoPath();
+
+        try {
+            final Map.Entry<String, Map<String, ?>> command = MobileCommand.stopRecordingScreenCommand(stopOptionsFor(driver.getCapabilities().getPlatformName()));
+            final String video = String.valueOf(driver.execute(command.getKey(), command.getValue()).getValue());
+
+            Files.write(videoPath, Base64.getMimeDecoder().decode(video));
+            log.info("Screen recording saved in video {}", videoPath);
+        } catch (WebDriverException | IOException e) {
+            log.error("Cannot save screen recording in video {}: {}", videoPath, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean recordsVideo() {
+        return true;
+    }
+
+    protected BaseStartScreenRecordingOptions<?> optionsFor(final Platform platform) {
+        final Duration timeLimit = Duration.ofSeconds(screenRecording.getTimeLimit());
+        final double scale = screenRecording.getScale();
+        final boolean scaled = scale > 0 && scale < 1;
+
+        if (platform.is(ANDROID)) {
+            final AndroidStartScreenRecordingOptions options = AndroidStartScreenRecordingOptions
+                    .startScreenRecordingOptions()
+                    .withTimeLimit(timeLimit);
+
+            if (screenRecording.getBitRate() > 0) {
+                options.withBitRate(screenRecording.getBitRate());
+            }
+
+            if (scaled) {
+                final Dimension size = driver.manage().window().getSize();
+                options.withVideoSize(String.format("%dx%d", evenScaled(size.getWidth(), scale), evenScaled(size.getHeight(), scale)));
+            }
+
+            return options.enableForcedRestart();
+        }
+
+        final IOSStartScreenRecordingOptions options = IOSStartScreenRecordingOptions
+                .startScreenRecordingOptions()
+                .withTimeLimit(timeLimit);
+
+        if (scaled) {
+            options.withVideoScale(String.format(Locale.ROOT, "trunc(iw*%1$s/2)*2:trunc(ih*%1$s/2)*2", scale));
+        }
+
+        return options.enableForcedRestart();
+    }
+
+    protected BaseStopScreenRecordingOptions<?> stopOptionsFor(final Platform platform) {
+        return platform.is(ANDROID)
+                ? AndroidStopScreenRecordingOptions.stopScreenRecordingOptions()
+                : IOSStopScreenRecordingOptions.stopScreenRecordingOptions();
+    }
+
+    protected int evenScaled(final int size, final double scale) {
+        final int scaled = (int) (size * scale);
+        return scaled - scaled % 2;
+    }
+}
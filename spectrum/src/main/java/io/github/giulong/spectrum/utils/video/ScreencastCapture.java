@@ -0,0 +1,171 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.interfaces.FrameCapture;
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.giulong.spectrum.enums.Frame.SCREENCAST;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openqa.selenium.remote.Browser.CHROME;
+import static org.openqa.selenium.remote.Browser.EDGE;
+
+/**
+ * Takes the frames of a test's video from the screencast of Chromium browsers, which push a jpeg frame via devtools
+ * each time the page is painted, instead of taking a screenshot upon each driver event. Frames are placed on the
+ * video's timeline according to when they arrive, repeating the previous one while the page doesn't change.
+ */
+@Slf4j
+public class ScreencastCapture implements FrameCapture {
+
+    public static final Event<Map<String, Object>> SCREENCAST_FRAME = new Event<>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE));
+
+    private final ScreenshotWriter screenshotWriter = ScreenshotWriter.getInstance();
+    private final DevTools devTools;
+    private final TestData testData;
+    private final Video.Screencast screencast;
+    private final long periodNanos;
+
+    private long startNanos;
+    private long frames;
+    private String lastFrame;
+    private boolean stopped;
+
+    public ScreencastCapture(final Video video, final DevTools devTools, final TestData testData) {
+        this.devTools = devTools;
+        this.testData = testData;
+        this.screencast = video.getScreencast();
+        this.periodNanos = SECONDS.toNanos(1) / Math.max(1, video.getFrameRate());
+    }
+
+    /**
+     * Returns the devtools of the provided driver, if it's a Chromium one and they're available. This is meant to be the
+     * leased driver, since the one returned to tests is a proxy that's never a ChromiumDriver. Remote drivers, such as
+     * the ones built by RemoteWebDriver's builder, are Chromium ones according to their capabilities, and expose devtools
+     * once augmented.
+     *
+     * @param driver the driver to get the devtools of
+     * @return the devtools, or an empty optional if the driver can't screencast
+     */
+    public static Optional<DevTools> devToolsOf(final WebDriver driver) {
+        if (driver instanceof HasDevTools hasDevTools && isChromium(driver)) {
+            return hasDevTools.maybeGetDevTools();
+        }
+
+        log.debug("Driver {} is not a Chromium one with devtools and can't screencast", driver);
+        return Optional.empty();
+    }
+
+    protected static boolean isChromium(final WebDriver driver) {
+        if (driver instanceof ChromiumDriver) {
+            return true;
+        }
+
+        if (driver instanceof HasCapabilities hasCapabilities) {
+            final Capabilities capabilities = hasCapabilities.getCapabilities();
+            return CHROME.is(capabilities) || EDGE.is(capabilities);
+        }
+
+        return false;
+    }
+
+    @Override
+    public ScreencastCapture start() {
+        final Map<String, Object> params = new HashMap<>();
+        params.put("format", "jpeg");
+        params.put("quality", screencast.getQuality());
+
+        if (screencast.getMaxWidth() > 0) {
+            params.put("maxWidth", screencast.getMaxWidth());
+        }
+
+        log.debug("Starting screencast with params {}", params);
+        startNanos = System.nanoTime();
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(SCREENCAST_FRAME, this::accept);
+        devTools.send(new Command<Void>("Page.startScreencast", params));
+
+        return this;
+    }
+
+    /**
+     * Fills the video up to now with the last frame and stops the screencast. Commands are sent outside the lock,
+     * since frames are received on the same connection and waiting for them while holding it would hang both.
+     */
+    @Override
+    public void stop() {
+        synchronized (this) {
+            log.debug("Stopping screencast after {} frames", frames);
+
+            if (lastFrame != null) {
+                fill(dueFrames());
+            }
+
+            stopped = true;
+        }
+
+        try {
+            devTools.send(new Command<Void>("Page.stopScreencast", Map.of()));
+        } catch (WebDriverException e) {
+            log.debug("Cannot stop screencast: {}", e.getMessage());
+        }
+    }
+
+    protected synchronized void accept(final Map<String, Object> screencastFrame) {
+        if (stopped) {
+            return;
+        }
+
+        // the browser stops sending frames until the previous one is acknowledged
+        devTools.send(new Command<Void>("Page.screencastFrameAck", Map.of("sessionId", screencastFrame.get("sessionId"))).doesNotSendResponse());
+
+        final long dueFrames = dueFrames();
+        if (lastFrame == null) {
+            frames = dueFrames - 1;
+        } else {
+            fill(dueFrames - 1);
+        }
+
+        lastFrame = String.valueOf(screencastFrame.get("data"));
+        write(lastFrame);
+    }
+
+    protected long dueFrames() {
+        return (System.nanoTime() - startNanos) / periodNanos + 1;
+    }
+
+    protected void fill(final long dueFrames) {
+        while (frames < dueFrames) {
+            write(lastFrame);
+        }
+    }
+
+    protected void write(final String frame) {
+        final VideoStream videoStream = testData.getVideoStream();
+        final FrameBuffer frameBuffer = testData.getFrameBuffer();
+
+        if (frameBuffer != null) {
+            frameBuffer.add(SCREENCAST, frame);
+        } else if (videoStream != null) {
+            videoStream.push(frame);
+        } else {
+            screenshotWriter.write(testData.getScreenshotFolderPath(), SCREENCAST, frame);
+        }
+
+        frames++;
+    }
+}
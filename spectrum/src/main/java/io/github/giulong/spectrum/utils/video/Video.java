@@ -2,14 +2,24 @@ package io.github.giulong.spectrum.utils.video;
 
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.github.giulong.spectrum.enums.Frame;
+import io.github.giulong.spectrum.utils.Screenshot;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
 import lombok.Generated;
 import lombok.Getter;
 
 import java.util.List;
+import java.util.Map;
+
+import static io.github.giulong.spectrum.enums.Frame.BACKGROUND;
+import static io.github.giulong.spectrum.enums.Frame.SCREENCAST;
+import static io.github.giulong.spectrum.enums.Frame.SCREEN_RECORDING;
+import static io.github.giulong.spectrum.utils.video.encoders.VideoEncoder.FRAME_RATE;
 
 @Getter
 public class Video {
 
+    public static final String SCREEN_RECORDING_EXTENSION = "mp4";
+
     @JsonPropertyDescription("Kind of frames to be added to the video. By default, nothing is recorded")
     @SuppressWarnings("unused")
     private List<Frame> frames;
@@ -26,6 +36,38 @@ public class Video {
     @SuppressWarnings("unused")
     private int menuBarsHeight;
 
+    @JsonPropertyDescription("Frames per second of the video, when frames include background or screencast")
+    @SuppressWarnings("unused")
+    private int fps;
+
+    @JsonPropertyDescription("Whether to encode frames as soon as they're taken, so that the video just needs to be finalized when the test ends")
+    @SuppressWarnings("unused")
+    private boolean streaming;
+
+    @JsonPropertyDescription("Encoder used to produce the video")
+    @SuppressWarnings("unused")
+    private VideoEncoder encoder;
+
+    @JsonPropertyDescription("Keeps the last frames of each test in memory, writing them and encoding the video only if the test fails or is aborted")
+    @SuppressWarnings("unused")
+    private FailuresOnly failuresOnly;
+
+    @JsonPropertyDescription("Policies to limit the automatic frames taken upon driver events")
+    @SuppressWarnings("unused")
+    private Capture capture;
+
+    @JsonPropertyDescription("Size and format of the screenshots taken as frames")
+    @SuppressWarnings("unused")
+    private Screenshot screenshot;
+
+    @JsonPropertyDescription("Frames streamed by Chromium browsers via devtools, when frames include screencast")
+    @SuppressWarnings("unused")
+    private Screencast screencast;
+
+    @JsonPropertyDescription("Recording made by the Appium server, when frames include screenRecording")
+    @SuppressWarnings("unused")
+    private ScreenRecording screenRecording;
+
     @JsonPropertyDescription("Properties of the video tag inside the extent report")
     @SuppressWarnings("unused")
     private ExtentTest extentTest;
@@ -34,6 +76,30 @@ public class Video {
         return frames.isEmpty();
     }
 
+    public boolean isBackground() {
+        return frames.contains(BACKGROUND);
+    }
+
+    public boolean isScreencast() {
+        return frames.contains(SCREENCAST);
+    }
+
+    public boolean isScreenRecording() {
+        return frames.contains(SCREEN_RECORDING);
+    }
+
+    public boolean isTimeBased() {
+        return isBackground() || isScreencast();
+    }
+
+    public int getFrameRate() {
+        return isTimeBased() ? fps : FRAME_RATE;
+    }
+
+    public String getExtension() {
+        return isScreenRecording() ? SCREEN_RECORDING_EXTENSION : encoder.getExtension();
+    }
+
     public boolean shouldRecord(final String frameName) {
         return frames
                 .stream()
@@ -41,6 +107,78 @@ public class Video {
                 .anyMatch(frameName::startsWith);
     }
 
+    @Getter
+    @Generated
+    public static class FailuresOnly {
+
+        @JsonPropertyDescription("Whether to keep the frames in memory until the test fails or is aborted, discarding them otherwise")
+        @SuppressWarnings("unused")
+        private boolean enabled;
+
+        @JsonPropertyDescription("Number of the last frames of each test kept in memory. Older ones are dropped")
+        @SuppressWarnings("unused")
+        private int frames;
+
+        @JsonPropertyDescription("Whether to keep the frames off-heap, so that they don't weigh on the garbage collector")
+        @SuppressWarnings("unused")
+        private boolean offHeap;
+    }
+
+    @Getter
+    @Generated
+    public static class Capture {
+
+        @JsonPropertyDescription("Minimum milliseconds between two automatic frames. 0 means no limit")
+        @SuppressWarnings("unused")
+        private long minInterval;
+
+        @JsonPropertyDescription("Maximum number of automatic frames per second. 0 means no limit")
+        @SuppressWarnings("unused")
+        private double maxFps;
+
+        @JsonPropertyDescription("Milliseconds within which an autoBefore frame following an autoAfter one is skipped, since the page is most likely unchanged. 0 means no coalescing")
+        @SuppressWarnings("unused")
+        private long coalesce;
+
+        @JsonPropertyDescription("Ratio, from 0 to 1, of the events of each type whose frames are recorded, such as afterClick: 0.5")
+        @SuppressWarnings("unused")
+        private Map<String, Double> sampling;
+
+        @JsonPropertyDescription("Whether to skip the automatic frames when the page didn't change since the previous one, according to a script injected in it")
+        @SuppressWarnings("unused")
+        private boolean detectChanges;
+    }
+
+    @Getter
+    @Generated
+    public static class Screencast {
+
+        @JsonPropertyDescription("Quality, from 0 to 100, of the jpeg frames sent by the browser")
+        @SuppressWarnings("unused")
+        private int quality;
+
+        @JsonPropertyDescription("Maximum width of the frames sent by the browser, which keeps their aspect ratio. 0 means the actual browser width")
+        @SuppressWarnings("unused")
+        private int maxWidth;
+    }
+
+    @Getter
+    @Generated
+    public static class ScreenRecording {
+
+        @JsonPropertyDescription("Bit rate of the recording, in bits per second. Android only. 0 means the device default")
+        @SuppressWarnings("unused")
+        private int bitRate;
+
+        @JsonPropertyDescription("Ratio, from 0 to 1, to scale the recording by. 1 means the actual device size")
+        @SuppressWarnings("unused")
+        private double scale;
+
+        @JsonPropertyDescription("Maximum duration of the recording, in seconds")
+        @SuppressWarnings("unused")
+        private long timeLimit;
+    }
+
     @Getter
     @Generated
     public static class ExtentTest {
@@ -0,0 +1,57 @@
+package io.github.giulong.spectrum.utils.video;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+@Slf4j
+@NoArgsConstructor(access = PRIVATE)
+public class VideoEncodingPool {
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final VideoEncodingPool INSTANCE = new VideoEncodingPool();
+
+    @Getter
+    private final ExecutorService executorService = Executors.newFixedThreadPool(WORKERS, Thread.ofPlatform().daemon().name("video-encoder-", 0).factory());
+
+    private final Set<CompletableFuture<Void>> pendingVideos = ConcurrentHashMap.newKeySet();
+
+    public static VideoEncodingPool getInstance() {
+        return INSTANCE;
+    }
+
+    public void encode(final Path videoPath, final Runnable encoding) {
+        track(videoPath, CompletableFuture.runAsync(() -> {
+            final long start = System.nanoTime();
+
+            encoding.run();
+            log.info("Video {} encoded in {} ms", videoPath, NANOSECONDS.toMillis(System.nanoTime() - start));
+        }, executorService));
+    }
+
+    public void track(final Path videoPath, final CompletableFuture<Void> video) {
+        final CompletableFuture<Void> future = video.exceptionally(e -> {
+            log.error("Error while encoding video {}: {}", videoPath, e.getMessage());
+            return null;
+        });
+
+        pendingVideos.add(future);
+        future.whenComplete((result, throwable) -> pendingVideos.remove(future));
+    }
+
+    public void awaitCompletion() {
+        log.debug("Waiting for {} videos to be encoded", pendingVideos.size());
+        CompletableFuture.allOf(pendingVideos.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Slf4j
+@RequiredArgsConstructor
+public class VideoStream {
+
+    private final Video video;
+    private final Path videoPath;
+    private final ExecutorService executorService = VideoEncodingPool.getInstance().getExecutorService();
+
+    private CompletableFuture<Void> pendingFrames = CompletableFuture.completedFuture(null);
+    private VideoEncoder.Encoding encoder;
+    private BufferedImage frame;
+    private Graphics2D graphics2D;
+    private int frames;
+    private long encodingNanos;
+
+    public synchronized void push(final String base64) {
+        pendingFrames = pendingFrames
+                .thenRunAsync(() -> encode(base64), executorService)
+                .exceptionally(e -> {
+                    log.error("Error while encoding frame in video {}: {}", videoPath, e.getMessage());
+                    return null;
+                });
+    }
+
+    public synchronized CompletableFuture<Void> finish() {
+        return pendingFrames.thenRunAsync(this::close, executorService);
+    }
+
+    @SneakyThrows
+    protected void close() {
+        if (frames == 0) {
+            log.debug("No frames were added to the video. Adding 'no-video.png'");
+            encode(ImageIO.read(Objects.requireNonNull(VideoStream.class.getClassLoader().getResource("no-video.png"))));
+        }
+
+        final long start = System.nanoTime();
+        encoder.finish();
+        graphics2D.dispose();
+        encodingNanos += System.nanoTime() - start;
+
+        log.info("Video {} made of {} frames encoded in {} ms", videoPath, frames, NANOSECONDS.toMillis(encodingNanos));
+    }
+
+    @SneakyThrows
+    protected void encode(final String base64) {
+        encode(ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64))));
+    }
+
+    @SneakyThrows
+    protected void encode(final BufferedImage bufferedImage) {
+        final long start = System.nanoTime();
+
+        if (encoder == null) {
+            open(bufferedImage);
+        }
+
+        final int minWidth = Math.min(frame.getWidth(), bufferedImage.getWidth());
+        final int minHeight = Math.min(frame.getHeight(), bufferedImage.getHeight());
+
+        log.trace("Encoding frame {} resized to {}x{}", frames, minWidth, minHeight);
+        graphics2D.clearRect(0, 0, frame.getWidth(), frame.getHeight());
+        graphics2D.drawImage(bufferedImage, 0, 0, minWidth, minHeight, null);
+        encoder.encodeImage(frame);
+        frames++;
+        encodingNanos += System.nanoTime() - start;
+    }
+
+    @SneakyThrows
+    protected void open(final BufferedImage firstFrame) {
+        final int width = makeItEven(video.getWidth() < 1 ? firstFrame.getWidth() : video.getWidth());
+        final int height = makeItEven(video.getHeight() < 1 ? firstFrame.getHeight() : video.getHeight());
+
+        log.debug("Opening video stream {} with dimensions {}x{}", videoPath, width, height);
+        encoder = video.getEncoder().open(videoPath.toFile(), video.getFrameRate());
+        frame = new BufferedImage(width, height, TYPE_INT_RGB);
+        graphics2D = frame.createGraphics();
+    }
+
+    protected int makeItEven(final int i) {
+        return i % 2 == 0 ? i : i + 1;
+    }
+}
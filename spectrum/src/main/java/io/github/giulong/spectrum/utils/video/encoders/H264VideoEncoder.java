@@ -0,0 +1,40 @@
+package io.github.giulong.spectrum.utils.video.encoders;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jcodec.api.awt.AWTSequenceEncoder;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+@Slf4j
+public class H264VideoEncoder extends VideoEncoder {
+
+    @Override
+    public String getExtension() {
+        return "mp4";
+    }
+
+    @Override
+    public String getMimeType() {
+        return "video/mp4";
+    }
+
+    @Override
+    public Encoding open(final File file, final int frameRate) throws IOException {
+        log.trace("Opening h264 encoding for {} at {} fps", file, frameRate);
+        final AWTSequenceEncoder encoder = AWTSequenceEncoder.createSequenceEncoder(file, frameRate);
+
+        return new Encoding() {
+            @Override
+            public void encodeImage(final BufferedImage bufferedImage) throws IOException {
+                encoder.encodeImage(bufferedImage);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                encoder.finish();
+            }
+        };
+    }
+}
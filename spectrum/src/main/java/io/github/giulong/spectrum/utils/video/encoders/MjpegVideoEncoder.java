@@ -0,0 +1,186 @@
+package io.github.giulong.spectrum.utils.video.encoders;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+@Slf4j
+@Getter
+public class MjpegVideoEncoder extends VideoEncoder {
+
+    @JsonPropertyDescription("Quality of each jpeg frame, from 0 to 1")
+    @SuppressWarnings({"unused", "FieldMayBeFinal"})
+    private float quality = 0.7f;
+
+    @Override
+    public String getExtension() {
+        return "avi";
+    }
+
+    @Override
+    public String getMimeType() {
+        return "video/x-msvideo";
+    }
+
+    @Override
+    public Encoding open(final File file, final int frameRate) throws IOException {
+        log.trace("Opening mjpeg encoding for {} at {} fps with quality {}", file, frameRate, quality);
+        return new MjpegEncoding(file, quality, frameRate);
+    }
+
+    /**
+     * Writes jpeg frames in an AVI (RIFF) container. Headers are written with the first frame,
+     * and the fields depending on the number of frames are patched when finishing.
+     */
+    protected static class MjpegEncoding implements Encoding {
+
+        private static final int AVIF_HASINDEX = 0x10;
+        private static final int AVIIF_KEYFRAME = 0x10;
+        private static final int MICROSECONDS_PER_SECOND = 1_000_000;
+        private static final int HEADERS_SIZE = 224;
+        private static final int TOTAL_FRAMES_OFFSET = 48;
+        private static final int LENGTH_OFFSET = 140;
+        private static final int MOVI_SIZE_OFFSET = 216;
+        private static final int MOVI_OFFSET = 220;
+        private static final int INDEX_ENTRY_SIZE = 16;
+        private static final String FRAME_CHUNK = "00dc";
+        private static final String LIST = "LIST";
+        private static final String MJPG = "MJPG";
+
+        private final RandomAccessFile randomAccessFile;
+        private final ImageWriter imageWriter;
+        private final ImageWriteParam imageWriteParam;
+        private final ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        private final List<long[]> index = new ArrayList<>();
+        private final int frameRate;
+
+        protected MjpegEncoding(final File file, final float quality, final int frameRate) throws IOException {
+            this.frameRate = frameRate;
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(0);
+            imageWriter = ImageIO.getImageWritersByFormatName("jpeg").next();
+            imageWriteParam = imageWriter.getDefaultWriteParam();
+            imageWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            imageWriteParam.setCompressionQuality(quality);
+        }
+
+        @Override
+        public void encodeImage(final BufferedImage bufferedImage) throws IOException {
+            if (index.isEmpty()) {
+                writeHeaders(bufferedImage.getWidth(), bufferedImage.getHeight());
+            }
+
+            jpeg.reset();
+            try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(jpeg)) {
+                imageWriter.setOutput(imageOutputStream);
+                imageWriter.write(null, new IIOImage(toRgb(bufferedImage), null, null), imageWriteParam);
+            }
+
+            final int size = jpeg.size();
+            index.add(new long[]{randomAccessFile.getFilePointer() - MOVI_OFFSET, size});
+            randomAccessFile.write(chunkHeader(FRAME_CHUNK, size));
+            randomAccessFile.write(jpeg.toByteArray());
+
+            if (size % 2 != 0) {
+                randomAccessFile.write(0);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            final long indexOffset = randomAccessFile.getFilePointer();
+            final ByteBuffer indexBuffer = littleEndian(8 + index.size() * INDEX_ENTRY_SIZE)
+                    .put(fourCc("idx1"))
+                    .putInt(index.size() * INDEX_ENTRY_SIZE);
+
+            for (long[] entry : index) {
+                indexBuffer
+                        .put(fourCc(FRAME_CHUNK))
+                        .putInt(AVIIF_KEYFRAME)
+                        .putInt((int) entry[0])
+                        .putInt((int) entry[1]);
+            }
+
+            randomAccessFile.write(indexBuffer.array());
+            patch(4, (int) randomAccessFile.length() - 8);
+            patch(TOTAL_FRAMES_OFFSET, index.size());
+            patch(LENGTH_OFFSET, index.size());
+            patch(MOVI_SIZE_OFFSET, (int) (indexOffset - MOVI_OFFSET));
+
+            imageWriter.dispose();
+            randomAccessFile.close();
+        }
+
+        protected void writeHeaders(final int width, final int height) throws IOException {
+            final ByteBuffer headers = littleEndian(HEADERS_SIZE)
+                    .put(fourCc("RIFF")).putInt(0).put(fourCc("AVI "))
+                    .put(fourCc(LIST)).putInt(192).put(fourCc("hdrl"))
+                    // main avi header
+                    .put(fourCc("avih")).putInt(56)
+                    .putInt(MICROSECONDS_PER_SECOND / frameRate).putInt(0).putInt(0).putInt(AVIF_HASINDEX)
+                    .putInt(0).putInt(0).putInt(1).putInt(0)
+                    .putInt(width).putInt(height)
+                    .putInt(0).putInt(0).putInt(0).putInt(0)
+                    .put(fourCc(LIST)).putInt(116).put(fourCc("strl"))
+                    // stream header
+                    .put(fourCc("strh")).putInt(56)
+                    .put(fourCc("vids")).put(fourCc(MJPG)).putInt(0).putShort((short) 0).putShort((short) 0)
+                    .putInt(0).putInt(1).putInt(frameRate).putInt(0)
+                    .putInt(0).putInt(0).putInt(-1).putInt(0)
+                    .putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height)
+                    // stream format: bitmap info header
+                    .put(fourCc("strf")).putInt(40)
+                    .putInt(40).putInt(width).putInt(height).putShort((short) 1).putShort((short) 24)
+                    .put(fourCc(MJPG)).putInt(width * height * 3).putInt(0).putInt(0).putInt(0).putInt(0)
+                    .put(fourCc(LIST)).putInt(0).put(fourCc("movi"));
+
+            randomAccessFile.write(headers.array());
+        }
+
+        protected BufferedImage toRgb(final BufferedImage bufferedImage) {
+            if (bufferedImage.getType() == TYPE_INT_RGB) {
+                return bufferedImage;
+            }
+
+            final BufferedImage rgb = new BufferedImage(bufferedImage.getWidth(), bufferedImage.getHeight(), TYPE_INT_RGB);
+            rgb.createGraphics().drawImage(bufferedImage, 0, 0, null);
+            return rgb;
+        }
+
+        protected void patch(final long offset, final int value) throws IOException {
+            randomAccessFile.seek(offset);
+            randomAccessFile.write(littleEndian(Integer.BYTES).putInt(value).array());
+            randomAccessFile.seek(randomAccessFile.length());
+        }
+
+        protected static byte[] chunkHeader(final String fourCc, final int size) {
+            return littleEndian(8).put(fourCc(fourCc)).putInt(size).array();
+        }
+
+        protected static byte[] fourCc(final String fourCc) {
+            return fourCc.getBytes(US_ASCII);
+        }
+
+        protected static ByteBuffer littleEndian(final int capacity) {
+            return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.giulong.spectrum.utils.video.encoders;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static com.fasterxml.jackson.annotation.JsonTypeInfo.As.WRAPPER_OBJECT;
+import static com.fasterxml.jackson.annotation.JsonTypeInfo.Id.NAME;
+
+@JsonTypeInfo(use = NAME, include = WRAPPER_OBJECT)
+@JsonSubTypes({
+        @Type(value = H264VideoEncoder.class, name = "h264"),
+        @Type(value = MjpegVideoEncoder.class, name = "mjpeg"),
+})
+public abstract class VideoEncoder {
+
+    public static final int FRAME_RATE = 1;
+
+    public abstract String getExtension();
+
+    public abstract String getMimeType();
+
+    public abstract Encoding open(File file, int frameRate) throws IOException;
+
+    public Encoding open(final File file) throws IOException {
+        return open(file, FRAME_RATE);
+    }
+
+    public interface Encoding {
+
+        void encodeImage(BufferedImage bufferedImage) throws IOException;
+
+        void finish() throws IOException;
+    }
+}
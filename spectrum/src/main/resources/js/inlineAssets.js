@@ -0,0 +1,28 @@
+// Points the elements of the inline report to the assets they reference. Each asset is embedded once, as a base64 data island,
+// and decoded once into a blob shared by all its references.
+(function () {
+    const assets = JSON.parse(document.getElementById('inline-assets').textContent);
+    const urls = {};
+
+    const urlOf = id => {
+        const island = document.getElementById(assets[id]);
+        if (!island) {
+            return undefined;
+        }
+
+        if (!urls[island.id]) {
+            const binary = atob(island.textContent);
+            const bytes = new Uint8Array(binary.length);
+            for (let i = 0; i < binary.length; i++) {
+                bytes[i] = binary.charCodeAt(i);
+            }
+
+            urls[island.id] = URL.createObjectURL(new Blob([bytes], {type: island.dataset.type}));
+        }
+
+        return urls[island.id];
+    };
+
+    document.querySelectorAll('[data-inline-href]').forEach(element => element.href = urlOf(element.dataset.inlineHref) ?? '');
+    document.querySelectorAll('[data-inline-src]').forEach(element => element.src = urlOf(element.dataset.inlineSrc) ?? '');
+})();
@@ -0,0 +1,14 @@
+// Counts DOM mutations, scrolls and resizes of the current page, returning a token that changes along with them.
+// The id changes when a new page is loaded, since the counter is bound to the window.
+let changes = window.spectrumPageChanges;
+
+if (!changes) {
+    changes = window.spectrumPageChanges = {id: Date.now() + '-' + Math.random(), count: 0};
+    const count = () => changes.count++;
+
+    new MutationObserver(count).observe(document, {subtree: true, childList: true, attributes: true, characterData: true});
+    window.addEventListener('scroll', count, true);
+    window.addEventListener('resize', count);
+}
+
+return changes.id + ':' + changes.count;
@@ -4,6 +4,11 @@ import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.model.Media;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.Screenshot;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import io.github.giulong.spectrum.types.TestData;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterAll;
@@ -43,13 +48,14 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 import static org.openqa.selenium.By.tagName;
-import static org.openqa.selenium.OutputType.BYTES;
+import static org.openqa.selenium.OutputType.BASE64;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("SpectrumEntity")
 class SpectrumEntityTest {
 
-    private static final String UUID_REGEX = MANUAL.getValue() + "-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png";
+    private static final String UUID_REGEX = MANUAL.getValue() + "-\\d+-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png";
+    private static final String SCREENSHOT = "AQID";
     private static final List<Path> REPORTS_FOLDERS = new ArrayList<>();
 
     @Mock
@@ -61,6 +67,11 @@ class SpectrumEntityTest {
     @Mock
     private Configuration.Runtime runtime;
 
+    @Mock
+    private Configuration.Extent extent;
+
+    private final Screenshot screenshot = new Screenshot();
+
     @Mock
     private ExtentTest extentTest;
 
@@ -79,6 +90,15 @@ class SpectrumEntityTest {
     @Mock
     private TestData testData;
 
+    @Mock
+    private Video video;
+
+    @Mock
+    private VideoStream videoStream;
+
+    @Mock
+    private FrameBuffer frameBuffer;
+
     @Captor
     private ArgumentCaptor<Function<WebDriver, Boolean>> functionArgumentCaptor;
 
@@ -107,7 +127,9 @@ class SpectrumEntityTest {
 
         when(testData.getScreenshotFolderPath()).thenReturn(path);
         when(webDriver.findElement(tagName("body"))).thenReturn(webElement);
-        when(webElement.getScreenshotAs(BYTES)).thenReturn(new byte[]{1, 2, 3});
+        when(webElement.getScreenshotAs(BASE64)).thenReturn(SCREENSHOT);
+        when(configuration.getExtent()).thenReturn(extent);
+        when(extent.getScreenshot()).thenReturn(screenshot);
 
         return path;
     }
@@ -153,7 +175,7 @@ class SpectrumEntityTest {
 
         assertEquals(spectrumEntity, spectrumEntity.screenshot());
 
-        verify(webElement).getScreenshotAs(BYTES);
+        verify(webElement).getScreenshotAs(BASE64);
         verify(extentTest).log(eq(INFO), (String) eq(null), any());
     }
 
@@ -165,7 +187,7 @@ class SpectrumEntityTest {
 
         assertEquals(spectrumEntity, spectrumEntity.screenshotInfo(msg));
 
-        verify(webElement).getScreenshotAs(BYTES);
+        verify(webElement).getScreenshotAs(BASE64);
         verify(extentTest).log(eq(INFO), eq("<div class=\"screenshot-container\">" + msg + "</div>"), any());
     }
 
@@ -177,7 +199,7 @@ class SpectrumEntityTest {
 
         assertEquals(spectrumEntity, spectrumEntity.screenshotWarning(msg));
 
-        verify(webElement).getScreenshotAs(BYTES);
+        verify(webElement).getScreenshotAs(BASE64);
         verify(extentTest).log(eq(WARNING), eq("<div class=\"screenshot-container\">" + msg + "</div>"), any());
     }
 
@@ -189,7 +211,7 @@ class SpectrumEntityTest {
 
         assertEquals(spectrumEntity, spectrumEntity.screenshotFail(msg));
 
-        verify(webElement).getScreenshotAs(BYTES);
+        verify(webElement).getScreenshotAs(BASE64);
         verify(extentTest).log(eq(FAIL), eq("<div class=\"screenshot-container\">" + msg + "</div>"), any());
     }
 
@@ -204,14 +226,58 @@ class SpectrumEntityTest {
         assertNotNull(screenShot);
 
         final Path screenshotPath = Path.of(screenShot.getPath());
+        ScreenshotWriter.getInstance().flush(path);
 
         assertTrue(Files.exists(screenshotPath));
         assertEquals(path, screenshotPath.getParent());
         assertThat(screenshotPath.getFileName().toString(), matchesPattern(UUID_REGEX));
-        verify(webElement).getScreenshotAs(BYTES);
+        verify(webElement).getScreenshotAs(BASE64);
         verify(extentTest).log(status, "<div class=\"screenshot-container\">" + msg + "</div>", screenShot);
     }
 
+    @DisplayName("addScreenshotToReport should push the screenshot to the video stream, if any and if manual frames should be recorded")
+    @ParameterizedTest(name = "with shouldRecord {0}")
+    @ValueSource(booleans = {true, false})
+    public void addScreenshotToReportStreaming(final boolean shouldRecord) {
+        addScreenshotToReportStubs();
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.shouldRecord(MANUAL.getValue())).thenReturn(shouldRecord);
+
+        spectrumEntity.addScreenshotToReport("msg", INFO);
+
+        verify(videoStream, times(shouldRecord ? 1 : 0)).push(SCREENSHOT);
+    }
+
+    @DisplayName("addScreenshotToReport should add the screenshot to the frame buffer, if any and if manual frames should be recorded, even if the video is not streamed")
+    @ParameterizedTest(name = "with shouldRecord {0}")
+    @ValueSource(booleans = {true, false})
+    public void addScreenshotToReportBuffering(final boolean shouldRecord) {
+        addScreenshotToReportStubs();
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.shouldRecord(MANUAL.getValue())).thenReturn(shouldRecord);
+
+        spectrumEntity.addScreenshotToReport("msg", INFO);
+
+        verify(frameBuffer, times(shouldRecord ? 1 : 0)).add(MANUAL, SCREENSHOT);
+    }
+
+    @Test
+    @DisplayName("addScreenshotToReport should add the screenshot to the frame buffer instead of pushing it to the video stream")
+    public void addScreenshotToReportBufferingStreaming() {
+        addScreenshotToReportStubs();
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.shouldRecord(MANUAL.getValue())).thenReturn(true);
+
+        spectrumEntity.addScreenshotToReport("msg", INFO);
+
+        verify(frameBuffer).add(MANUAL, SCREENSHOT);
+        verifyNoInteractions(videoStream);
+    }
+
     @Test
     @DisplayName("addScreenshotToReport should fall back to taking a screenshot of the visible page if an exception is thrown")
     public void addScreenshotToReportException() throws IOException {
@@ -222,7 +288,9 @@ class SpectrumEntityTest {
         when(testData.getScreenshotFolderPath()).thenReturn(reportsFolder);
 
         when(webDriver.findElement(tagName("body"))).thenThrow(new WebDriverException(exceptionMessage));
-        when(((TakesScreenshot) webDriver).getScreenshotAs(BYTES)).thenReturn(new byte[]{1, 2, 3});
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn(SCREENSHOT);
+        when(configuration.getExtent()).thenReturn(extent);
+        when(extent.getScreenshot()).thenReturn(screenshot);
 
         final String msg = "msg";
         final Status status = INFO;
@@ -232,6 +300,7 @@ class SpectrumEntityTest {
 
         final String screenShotName = screenShot.getPath();
         final Path screenshotPath = Path.of(screenShotName);
+        ScreenshotWriter.getInstance().flush(reportsFolder);
 
         assertTrue(Files.exists(screenshotPath));
         assertEquals(reportsFolder, screenshotPath.getParent());
@@ -23,10 +23,12 @@ import org.slf4j.bridge.SLF4JBridgeHandler;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static io.github.giulong.spectrum.SpectrumSessionListener.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
@@ -86,6 +88,12 @@ class SpectrumSessionListenerTest {
     @Mock
     private MetadataManager metadataManager;
 
+    @Mock
+    private DriverPool driverPool;
+
+    @Mock
+    private ScreenshotWriter screenshotWriter;
+
     @InjectMocks
     private SpectrumSessionListener spectrumSessionListener;
 
@@ -100,6 +108,8 @@ class SpectrumSessionListenerTest {
         Reflections.setField("configuration", spectrumSessionListener, configuration);
         Reflections.setField("eventsDispatcher", spectrumSessionListener, eventsDispatcher);
         Reflections.setField("metadataManager", spectrumSessionListener, metadataManager);
+        Reflections.setField("driverPool", spectrumSessionListener, driverPool);
+        Reflections.setField("screenshotWriter", spectrumSessionListener, screenshotWriter);
 
         slf4JBridgeHandlerMockedStatic = mockStatic(SLF4JBridgeHandler.class);
     }
@@ -148,6 +158,7 @@ class SpectrumSessionListenerTest {
 
         verify(launcher).registerTestExecutionListeners(summaryGeneratingListener);
         verify(environment).sessionOpened();
+        verify(driverPool).sessionOpened();
         verify(testBook).sessionOpened();
         verify(summary).sessionOpened();
         verify(extentReporter).sessionOpened();
@@ -166,9 +177,11 @@ class SpectrumSessionListenerTest {
 
         spectrumSessionListener.launcherSessionClosed(launcherSession);
 
+        verify(driverPool).sessionClosed();
         verify(environment).sessionClosed();
         verify(testBook).sessionClosed();
         verify(summary).sessionClosed();
+        verify(screenshotWriter).sessionClosed();
         verify(extentReporter).sessionClosed();
         verify(extentReporterInline).sessionClosed();
         verify(eventsDispatcher).sessionClosed();
@@ -221,6 +234,58 @@ class SpectrumSessionListenerTest {
         verify(yamlUtils).updateWithFile(configuration, profileConfiguration);
     }
 
+    @Test
+    @DisplayName("configureParallelism should set JUnit's parallel execution properties if parallelism is greater than 1")
+    public void configureParallelism() {
+        final String parallelEnabled = System.clearProperty(PARALLEL_ENABLED);
+
+        when(configuration.getRuntime()).thenReturn(runtime);
+        when(runtime.getParallelism()).thenReturn(4);
+
+        spectrumSessionListener.configureParallelism();
+
+        assertEquals("true", System.getProperty(PARALLEL_ENABLED));
+        assertEquals("concurrent", System.getProperty(PARALLEL_MODE_DEFAULT));
+        assertEquals("concurrent", System.getProperty(PARALLEL_MODE_CLASSES_DEFAULT));
+        assertEquals("fixed", System.getProperty(PARALLEL_STRATEGY));
+        assertEquals("4", System.getProperty(PARALLEL_FIXED_PARALLELISM));
+
+        Stream.of(PARALLEL_MODE_DEFAULT, PARALLEL_MODE_CLASSES_DEFAULT, PARALLEL_STRATEGY, PARALLEL_FIXED_PARALLELISM).forEach(System::clearProperty);
+        Optional.ofNullable(parallelEnabled).ifPresent(value -> System.setProperty(PARALLEL_ENABLED, value));
+    }
+
+    @Test
+    @DisplayName("configureParallelism should not set JUnit's parallel execution properties if parallelism is lower than 2")
+    public void configureParallelismSequential() {
+        final String parallelEnabled = System.clearProperty(PARALLEL_ENABLED);
+
+        when(configuration.getRuntime()).thenReturn(runtime);
+        when(runtime.getParallelism()).thenReturn(1);
+
+        spectrumSessionListener.configureParallelism();
+
+        assertNull(System.getProperty(PARALLEL_ENABLED));
+        assertNull(System.getProperty(PARALLEL_FIXED_PARALLELISM));
+
+        Optional.ofNullable(parallelEnabled).ifPresent(value -> System.setProperty(PARALLEL_ENABLED, value));
+    }
+
+    @Test
+    @DisplayName("setPropertyIfAbsent should not override a system property already set")
+    public void setPropertyIfAbsent() {
+        final String key = "spectrum.test.key";
+        System.setProperty(key, "value");
+
+        spectrumSessionListener.setPropertyIfAbsent(key, "another");
+        assertEquals("value", System.getProperty(key));
+
+        System.clearProperty(key);
+        spectrumSessionListener.setPropertyIfAbsent(key, "another");
+        assertEquals("another", System.getProperty(key));
+
+        System.clearProperty(key);
+    }
+
     @DisplayName("parseProfiles should parse the profile node from both the internal configuration.yaml and the base configuration.yaml and return the merged value")
     @ParameterizedTest(name = "with profile {0} and default profile {1} we expect {2}")
     @MethodSource("profilesValuesProvider")
@@ -1,6 +1,7 @@
 package io.github.giulong.spectrum.drivers;
 
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.DriverPool;
 import io.github.giulong.spectrum.utils.Reflections;
 import io.github.giulong.spectrum.utils.environments.Environment;
 import org.junit.jupiter.api.AfterEach;
@@ -23,6 +24,7 @@ import java.util.logging.Level;
 
 import static io.github.giulong.spectrum.drivers.Driver.WEB_DRIVER_THREAD_LOCAL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -93,6 +95,9 @@ class DriverTest {
     @Captor
     private ArgumentCaptor<DesiredCapabilities> desiredCapabilitiesArgumentCaptor;
 
+    @Mock
+    private DriverPool driverPool;
+
     @InjectMocks
     private Chrome driver;
 
@@ -104,6 +109,7 @@ class DriverTest {
         loggingPreferencesMockedConstruction = mockConstruction(LoggingPreferences.class);
 
         Reflections.setField("configuration", driver, configuration);
+        Reflections.setField("driverPool", driver, driverPool);
     }
 
     @AfterEach
@@ -131,8 +137,23 @@ class DriverTest {
     }
 
     @Test
-    @DisplayName("build should return the instance of the requested webdriver")
+    @DisplayName("build should lease a webdriver from the pool and return it protected by the ThreadGuard")
     public void build() {
+        final String className = "className";
+
+        when(driverPool.leaseFor(driver, className)).thenReturn(webDriver);
+        when(ThreadGuard.protect(webDriver)).thenReturn(protectedWebDriver);
+
+        final WebDriver actual = driver.build(className);
+        final WebDriver threadLocalWebDriver = WEB_DRIVER_THREAD_LOCAL.get();
+
+        assertEquals(protectedWebDriver, threadLocalWebDriver);
+        assertEquals(protectedWebDriver, actual);
+    }
+
+    @Test
+    @DisplayName("create should return a new instance of the requested webdriver")
+    public void create() {
         // buildCapabilitiesFrom stubs
         final List<String> arguments = List.of("args");
         when(configuration.getDrivers()).thenReturn(driversConfig);
@@ -161,15 +182,21 @@ class DriverTest {
         when(timeouts.scriptTimeout(scriptDuration)).thenReturn(timeouts);
         when(environment.setupFor(driver)).thenReturn(webDriver);
 
-        when(ThreadGuard.protect(webDriver)).thenReturn(protectedWebDriver);
+        assertEquals(webDriver, driver.create());
 
-        final WebDriver actual = driver.build();
-        final WebDriver threadLocalWebDriver = WEB_DRIVER_THREAD_LOCAL.get();
+        chromeOptionsMockedConstruction.close();
+        Reflections.setField("capabilities", driver, null);
+    }
 
-        assertEquals(protectedWebDriver, threadLocalWebDriver);
-        assertEquals(protectedWebDriver, actual);
+    @Test
+    @DisplayName("initCapabilities should not build the capabilities again if they're already built")
+    public void initCapabilitiesAlreadyBuilt() {
+        Reflections.setField("capabilities", driver, driverOptions);
 
-        chromeOptionsMockedConstruction.close();
+        driver.initCapabilities();
+
+        verifyNoInteractions(configuration);
+        Reflections.setField("capabilities", driver, null);
     }
 
     @Test
@@ -190,12 +217,13 @@ class DriverTest {
     }
 
     @Test
-    @DisplayName("shutdown should quit the webDriver")
+    @DisplayName("shutdown should release the webDriver to the pool")
     public void shutdown() {
         WEB_DRIVER_THREAD_LOCAL.set(webDriver);
 
-        driver.shutdown();
+        driver.shutdown(true);
 
-        verify(webDriver).quit();
+        verify(driverPool).release(true);
+        assertNull(WEB_DRIVER_THREAD_LOCAL.get());
     }
 }
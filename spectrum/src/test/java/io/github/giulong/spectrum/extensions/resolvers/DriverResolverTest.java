@@ -1,10 +1,17 @@
 package io.github.giulong.spectrum.extensions.resolvers;
 
 import com.aventstack.extentreports.ExtentTest;
+import io.appium.java_client.AppiumDriver;
 import io.github.giulong.spectrum.drivers.Driver;
 import io.github.giulong.spectrum.internals.EventsListener;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.DriverPool;
+import io.github.giulong.spectrum.utils.Reflections;
 import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.video.BackgroundCapture;
+import io.github.giulong.spectrum.utils.video.FrameSampler;
+import io.github.giulong.spectrum.utils.video.ScreenRecorder;
+import io.github.giulong.spectrum.utils.video.ScreencastCapture;
 import io.github.giulong.spectrum.utils.video.Video;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,19 +25,27 @@ import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
 import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.openqa.selenium.support.events.WebDriverListener;
 
+import java.util.Optional;
 import java.util.regex.Pattern;
 
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
 import static io.github.giulong.spectrum.extensions.resolvers.ExtentTestResolver.EXTENT_TEST;
 import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
+import static io.github.giulong.spectrum.extensions.resolvers.DriverResolver.FRAME_CAPTURE;
 import static io.github.giulong.spectrum.extensions.resolvers.DriverResolver.DRIVER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 import static org.mockito.Mockito.*;
+import static org.openqa.selenium.Platform.ANDROID;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("DriverResolver")
@@ -57,6 +72,9 @@ class DriverResolverTest {
     @Mock
     private Configuration configuration;
 
+    @Mock
+    private Video.Capture capture;
+
     @Mock
     private Configuration.Runtime runtime;
 
@@ -69,6 +87,24 @@ class DriverResolverTest {
     @Mock
     private WebDriver decoratedWebDriver;
 
+    @Mock
+    private WebDriver leasedWebDriver;
+
+    @Mock
+    private DriverPool driverPool;
+
+    @Mock
+    private ChromiumDriver chromiumDriver;
+
+    @Mock
+    private DevTools devTools;
+
+    @Mock
+    private AppiumDriver appiumDriver;
+
+    @Mock
+    private Capabilities capabilities;
+
     @Mock
     private Configuration.Drivers driversConfiguration;
 
@@ -103,6 +139,8 @@ class DriverResolverTest {
     public void beforeEach() {
         eventsListenerMockedStatic = mockStatic(EventsListener.class);
         patternMockedStatic = mockStatic(Pattern.class);
+
+        Reflections.setField("driverPool", driverResolver, driverPool);
     }
 
     @AfterEach
@@ -123,7 +161,8 @@ class DriverResolverTest {
         when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
         when(configuration.getRuntime()).thenReturn(runtime);
         doReturn(driver).when(runtime).getDriver();
-        when(driver.build()).thenReturn(webDriver);
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
         when(configuration.getDrivers()).thenReturn(driversConfiguration);
         when(driversConfiguration.getEvents()).thenReturn(events);
         when(configuration.getExtent()).thenReturn(extentConfiguration);
@@ -141,7 +180,16 @@ class DriverResolverTest {
         when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
         when(eventsListenerBuilder.driver(webDriver)).thenReturn(eventsListenerBuilder);
         when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(null)).thenReturn(eventsListenerBuilder);
         when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(true);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class, (mock, context) -> {
+            assertEquals(capture, context.arguments().getFirst());
+            assertEquals(events, context.arguments().get(1));
+        });
 
         //noinspection rawtypes
         MockedConstruction<EventFiringDecorator> mockedConstruction = mockConstruction(EventFiringDecorator.class, (mock, context) -> {
@@ -153,7 +201,293 @@ class DriverResolverTest {
         verify(store).put(DRIVER, decoratedWebDriver);
 
         assertEquals(decoratedWebDriver, actual);
+        verify(eventsListenerBuilder).frameSampler(frameSamplerMockedConstruction.constructed().getFirst());
 
+        frameSamplerMockedConstruction.close();
         mockedConstruction.close();
     }
+
+    @Test
+    @DisplayName("resolveParameter should return the instance of the webdriver without decorating it, if no event is active")
+    public void resolveParameterNotActive() {
+        final String locatorRegex = "locatorRegex";
+
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(extensionContext.getRoot()).thenReturn(rootContext);
+        when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
+        when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
+        when(configuration.getDrivers()).thenReturn(driversConfiguration);
+        when(driversConfiguration.getEvents()).thenReturn(events);
+        when(configuration.getExtent()).thenReturn(extentConfiguration);
+        when(extentConfiguration.getLocatorRegex()).thenReturn(locatorRegex);
+        when(Pattern.compile(locatorRegex)).thenReturn(pattern);
+
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(configuration.getVideo()).thenReturn(video);
+
+        when(EventsListener.builder()).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.locatorPattern(pattern)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.extentTest(extentTest)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.video(video)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.driver(webDriver)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(null)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(false);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class);
+
+        //noinspection rawtypes
+        MockedConstruction<EventFiringDecorator> mockedConstruction = mockConstruction(EventFiringDecorator.class);
+        WebDriver actual = driverResolver.resolveParameter(parameterContext, extensionContext);
+        verify(store).put(DRIVER, webDriver);
+
+        assertEquals(webDriver, actual);
+        assertTrue(mockedConstruction.constructed().isEmpty());
+
+        frameSamplerMockedConstruction.close();
+        mockedConstruction.close();
+    }
+
+    @Test
+    @DisplayName("resolveParameter should start the background capture of the video frames with the leased driver, if configured, and take the events frames with it too")
+    public void resolveParameterBackground() {
+        final String locatorRegex = "locatorRegex";
+
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(extensionContext.getRoot()).thenReturn(rootContext);
+        when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
+        when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
+        when(driverPool.getLeasedDriver()).thenReturn(Optional.of(leasedWebDriver));
+        when(configuration.getDrivers()).thenReturn(driversConfiguration);
+        when(driversConfiguration.getEvents()).thenReturn(events);
+        when(configuration.getExtent()).thenReturn(extentConfiguration);
+        when(extentConfiguration.getLocatorRegex()).thenReturn(locatorRegex);
+        when(Pattern.compile(locatorRegex)).thenReturn(pattern);
+
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isBackground()).thenReturn(true);
+
+        when(EventsListener.builder()).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.locatorPattern(pattern)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.extentTest(extentTest)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.video(video)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.driver(leasedWebDriver)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(null)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(false);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class);
+        MockedConstruction<BackgroundCapture> backgroundCaptureMockedConstruction = mockConstruction(BackgroundCapture.class, (mock, context) -> {
+            assertEquals(video, context.arguments().getFirst());
+            assertEquals(leasedWebDriver, context.arguments().get(1));
+            assertEquals(testData, context.arguments().get(2));
+
+            when(mock.start()).thenReturn(mock);
+        });
+
+        //noinspection rawtypes
+        MockedConstruction<EventFiringDecorator> mockedConstruction = mockConstruction(EventFiringDecorator.class);
+        WebDriver actual = driverResolver.resolveParameter(parameterContext, extensionContext);
+        verify(store).put(DRIVER, webDriver);
+
+        assertEquals(webDriver, actual);
+        verify(store).put(FRAME_CAPTURE, backgroundCaptureMockedConstruction.constructed().getFirst());
+
+        backgroundCaptureMockedConstruction.close();
+        frameSamplerMockedConstruction.close();
+        mockedConstruction.close();
+    }
+
+    @Test
+    @DisplayName("resolveParameter should start the screencast of the video frames on leased Chromium drivers, if configured")
+    public void resolveParameterScreencast() {
+        final String locatorRegex = "locatorRegex";
+
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(extensionContext.getRoot()).thenReturn(rootContext);
+        when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
+        when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
+        when(driverPool.getLeasedDriver()).thenReturn(Optional.of(chromiumDriver));
+        when(configuration.getDrivers()).thenReturn(driversConfiguration);
+        when(driversConfiguration.getEvents()).thenReturn(events);
+        when(configuration.getExtent()).thenReturn(extentConfiguration);
+        when(extentConfiguration.getLocatorRegex()).thenReturn(locatorRegex);
+        when(Pattern.compile(locatorRegex)).thenReturn(pattern);
+
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isScreencast()).thenReturn(true);
+        when(chromiumDriver.maybeGetDevTools()).thenReturn(Optional.of(devTools));
+
+        when(EventsListener.builder()).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.locatorPattern(pattern)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.extentTest(extentTest)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.video(video)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.driver(chromiumDriver)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(null)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(false);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class);
+        MockedConstruction<ScreencastCapture> screencastCaptureMockedConstruction = mockConstruction(ScreencastCapture.class, (mock, context) -> {
+            assertEquals(video, context.arguments().getFirst());
+            assertEquals(devTools, context.arguments().get(1));
+            assertEquals(testData, context.arguments().get(2));
+
+            when(mock.start()).thenReturn(mock);
+        });
+        MockedConstruction<BackgroundCapture> backgroundCaptureMockedConstruction = mockConstruction(BackgroundCapture.class);
+
+        WebDriver actual = driverResolver.resolveParameter(parameterContext, extensionContext);
+        verify(store).put(DRIVER, webDriver);
+
+        assertEquals(webDriver, actual);
+        verify(store).put(FRAME_CAPTURE, screencastCaptureMockedConstruction.constructed().getFirst());
+        assertTrue(backgroundCaptureMockedConstruction.constructed().isEmpty());
+
+        screencastCaptureMockedConstruction.close();
+        backgroundCaptureMockedConstruction.close();
+        frameSamplerMockedConstruction.close();
+    }
+
+    @Test
+    @DisplayName("resolveParameter should start the screen recording on leased Appium drivers, if configured")
+    public void resolveParameterScreenRecording() {
+        final String locatorRegex = "locatorRegex";
+
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(extensionContext.getRoot()).thenReturn(rootContext);
+        when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
+        when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
+        when(driverPool.getLeasedDriver()).thenReturn(Optional.of(appiumDriver));
+        when(configuration.getDrivers()).thenReturn(driversConfiguration);
+        when(driversConfiguration.getEvents()).thenReturn(events);
+        when(configuration.getExtent()).thenReturn(extentConfiguration);
+        when(extentConfiguration.getLocatorRegex()).thenReturn(locatorRegex);
+        when(Pattern.compile(locatorRegex)).thenReturn(pattern);
+
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isScreenRecording()).thenReturn(true);
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(ANDROID);
+
+        when(EventsListener.builder()).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.locatorPattern(pattern)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.extentTest(extentTest)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.video(video)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.driver(appiumDriver)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(null)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(false);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class);
+        MockedConstruction<ScreenRecorder> screenRecorderMockedConstruction = mockConstruction(ScreenRecorder.class, (mock, context) -> {
+            assertEquals(video, context.arguments().getFirst());
+            assertEquals(appiumDriver, context.arguments().get(1));
+            assertEquals(testData, context.arguments().get(2));
+
+            when(mock.start()).thenReturn(mock);
+        });
+        MockedConstruction<BackgroundCapture> backgroundCaptureMockedConstruction = mockConstruction(BackgroundCapture.class);
+
+        WebDriver actual = driverResolver.resolveParameter(parameterContext, extensionContext);
+        verify(store).put(DRIVER, webDriver);
+
+        assertEquals(webDriver, actual);
+        verify(store).put(FRAME_CAPTURE, screenRecorderMockedConstruction.constructed().getFirst());
+        assertTrue(backgroundCaptureMockedConstruction.constructed().isEmpty());
+
+        screenRecorderMockedConstruction.close();
+        backgroundCaptureMockedConstruction.close();
+        frameSamplerMockedConstruction.close();
+    }
+
+    @Test
+    @DisplayName("resolveParameter should fall back to the autoAfter frames when screencast is configured on non-Chromium drivers")
+    public void resolveParameterScreencastFallback() {
+        final String locatorRegex = "locatorRegex";
+
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(extensionContext.getRoot()).thenReturn(rootContext);
+        when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
+        when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(DriverResolverTest.class).when(extensionContext).getRequiredTestClass();
+        when(driver.build(DriverResolverTest.class.getName())).thenReturn(webDriver);
+        when(configuration.getDrivers()).thenReturn(driversConfiguration);
+        when(driversConfiguration.getEvents()).thenReturn(events);
+        when(configuration.getExtent()).thenReturn(extentConfiguration);
+        when(extentConfiguration.getLocatorRegex()).thenReturn(locatorRegex);
+        when(Pattern.compile(locatorRegex)).thenReturn(pattern);
+
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isScreencast()).thenReturn(true);
+
+        when(EventsListener.builder()).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.locatorPattern(pattern)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.extentTest(extentTest)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.video(video)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.testData(testData)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.driver(webDriver)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.events(events)).thenReturn(eventsListenerBuilder);
+        when(video.getCapture()).thenReturn(capture);
+        when(eventsListenerBuilder.frameSampler(any(FrameSampler.class))).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.fallbackFrame(AUTO_AFTER)).thenReturn(eventsListenerBuilder);
+        when(eventsListenerBuilder.build()).thenReturn(eventsListener);
+        when(eventsListener.isActive()).thenReturn(false);
+
+        MockedConstruction<FrameSampler> frameSamplerMockedConstruction = mockConstruction(FrameSampler.class);
+        MockedConstruction<ScreencastCapture> screencastCaptureMockedConstruction = mockConstruction(ScreencastCapture.class);
+
+        WebDriver actual = driverResolver.resolveParameter(parameterContext, extensionContext);
+        verify(store).put(DRIVER, webDriver);
+
+        assertEquals(webDriver, actual);
+        assertTrue(screencastCaptureMockedConstruction.constructed().isEmpty());
+        verify(store, never()).put(eq(FRAME_CAPTURE), any());
+
+        screencastCaptureMockedConstruction.close();
+        frameSamplerMockedConstruction.close();
+    }
 }
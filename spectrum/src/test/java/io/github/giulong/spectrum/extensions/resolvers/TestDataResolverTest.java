@@ -12,20 +12,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
 import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -78,6 +84,9 @@ class TestDataResolverTest {
     @Mock
     private Video video;
 
+    @Mock
+    private Video.FailuresOnly failuresOnly;
+
     @Captor
     private ArgumentCaptor<Path> pathArgumentCaptor;
 
@@ -130,6 +139,7 @@ class TestDataResolverTest {
         when(extensionContext.getRequiredTestMethod()).thenReturn(getClass().getDeclaredMethod(methodName));
         when(configuration.getVideo()).thenReturn(video);
         when(video.isDisabled()).thenReturn(false);
+        when(video.getExtension()).thenReturn("mp4");
 
         when(TestData.builder()).thenReturn(testDataBuilder);
         when(testDataBuilder.className(className)).thenReturn(testDataBuilder);
@@ -142,6 +152,8 @@ class TestDataResolverTest {
         when(testDataBuilder.testId(testId)).thenReturn(testDataBuilder);
         when(testDataBuilder.screenshotFolderPath(path)).thenReturn(testDataBuilder);
         when(testDataBuilder.videoPath(pathArgumentCaptor.capture())).thenReturn(testDataBuilder);
+        when(testDataBuilder.videoStream(null)).thenReturn(testDataBuilder);
+        when(testDataBuilder.frameBuffer(null)).thenReturn(testDataBuilder);
         when(testDataBuilder.build()).thenReturn(testData);
 
         final TestData actual = testDataResolver.resolveParameter(parameterContext, extensionContext);
@@ -166,15 +178,69 @@ class TestDataResolverTest {
 
         when(fileUtils.deleteContentOf(Path.of(REPORTS_FOLDER, extentFileName, "videos", CLASS_NAME, METHOD_NAME).toAbsolutePath())).thenReturn(path);
         when(path.resolve(stringArgumentCaptor.capture())).thenReturn(path);
+        when(video.isDisabled()).thenReturn(false);
+        when(video.getExtension()).thenReturn("mp4");
 
-        assertEquals(path, testDataResolver.getVideoPathForCurrentTest(false, REPORTS_FOLDER, extentFileName, CLASS_NAME, METHOD_NAME));
+        assertEquals(path, testDataResolver.getVideoPathForCurrentTest(video, REPORTS_FOLDER, extentFileName, CLASS_NAME, METHOD_NAME));
         assertThat(stringArgumentCaptor.getValue(), matchesPattern(UUID_REGEX));
     }
 
+    @Test
+    @DisplayName("getVideoStreamFor should return a new video stream if streaming is enabled")
+    public void getVideoStreamFor() {
+        when(video.isStreaming()).thenReturn(true);
+
+        assertNotNull(testDataResolver.getVideoStreamFor(video, path));
+    }
+
+    @DisplayName("getVideoStreamFor should return null if video or streaming are disabled")
+    @ParameterizedTest(name = "with video path {0} and streaming {1}")
+    @MethodSource("videoStreamValuesProvider")
+    public void getVideoStreamForDisabled(final Path videoPath, final boolean streaming) {
+        lenient().when(video.isStreaming()).thenReturn(streaming);
+
+        assertNull(testDataResolver.getVideoStreamFor(video, videoPath));
+    }
+
+    public static Stream<Arguments> videoStreamValuesProvider() {
+        return Stream.of(
+                arguments(null, true),
+                arguments(Path.of("video.mp4"), false)
+        );
+    }
+
+    @Test
+    @DisplayName("getFrameBufferFor should return a new frame buffer if failuresOnly is enabled")
+    public void getFrameBufferFor() {
+        when(video.getFailuresOnly()).thenReturn(failuresOnly);
+        when(failuresOnly.isEnabled()).thenReturn(true);
+
+        assertNotNull(testDataResolver.getFrameBufferFor(video, path));
+    }
+
+    @DisplayName("getFrameBufferFor should return null if video or failuresOnly are disabled")
+    @ParameterizedTest(name = "with video path {0} and failuresOnly enabled {1}")
+    @MethodSource("frameBufferValuesProvider")
+    public void getFrameBufferForDisabled(final Path videoPath, final boolean enabled) {
+        lenient().when(video.getFailuresOnly()).thenReturn(failuresOnly);
+        lenient().when(failuresOnly.isEnabled()).thenReturn(enabled);
+
+        assertNull(testDataResolver.getFrameBufferFor(video, videoPath));
+    }
+
+    public static Stream<Arguments> frameBufferValuesProvider() {
+        return Stream.of(
+                arguments(null, true),
+                arguments(Path.of("video.mp4"), false)
+        );
+    }
+
     @Test
     @DisplayName("getVideoPathForCurrentTest should return null if video is disabled")
     public void getVideoPathForCurrentTestDisabled() {
-        assertNull(testDataResolver.getVideoPathForCurrentTest(true, REPORTS_FOLDER, "extentFileName", CLASS_NAME, METHOD_NAME));
+        when(video.isDisabled()).thenReturn(true);
+
+        assertNull(testDataResolver.getVideoPathForCurrentTest(video, REPORTS_FOLDER, "extentFileName", CLASS_NAME, METHOD_NAME));
     }
 
     @Test
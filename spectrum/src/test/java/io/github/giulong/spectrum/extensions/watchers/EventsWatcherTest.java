@@ -1,14 +1,17 @@
 package io.github.giulong.spectrum.extensions.watchers;
 
 import io.github.giulong.spectrum.enums.Result;
+import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.Reflections;
 import io.github.giulong.spectrum.utils.events.EventsDispatcher;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -18,7 +21,9 @@ import java.util.Optional;
 import java.util.Set;
 
 import static io.github.giulong.spectrum.enums.Result.*;
+import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
 import static io.github.giulong.spectrum.utils.events.EventsDispatcher.*;
+import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +47,15 @@ class EventsWatcherTest {
     @Mock
     private EventsDispatcher eventsDispatcher;
 
+    @Mock
+    private ExtensionContext.Store store;
+
+    @Mock
+    private TestData testData;
+
+    @Mock
+    private FrameBuffer frameBuffer;
+
     @InjectMocks
     private EventsWatcher eventsWatcher;
 
@@ -69,6 +83,12 @@ class EventsWatcherTest {
         when(parentContext.getDisplayName()).thenReturn(className);
     }
 
+    private void persistFramesStubs() {
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+    }
+
     @Test
     @DisplayName("beforeAll should dispatch an event")
     public void testBeforeAll() {
@@ -110,19 +130,39 @@ class EventsWatcherTest {
     }
 
     @Test
-    @DisplayName("testAborted should dispatch an event")
+    @DisplayName("testAborted should persist the buffered frames and dispatch an event")
     public void testAborted() {
         notifyTestStubs();
+        persistFramesStubs();
         eventsWatcher.testAborted(extensionContext, new RuntimeException());
-        verify(eventsDispatcher).fire(className, displayName, AFTER, ABORTED, Set.of(TEST), extensionContext);
+
+        final InOrder inOrder = inOrder(frameBuffer, eventsDispatcher);
+        inOrder.verify(frameBuffer).persist(testData);
+        inOrder.verify(eventsDispatcher).fire(className, displayName, AFTER, ABORTED, Set.of(TEST), extensionContext);
     }
 
     @Test
-    @DisplayName("testFailed should dispatch an event")
+    @DisplayName("testFailed should persist the buffered frames and dispatch an event")
     public void testFailed() {
         notifyTestStubs();
+        persistFramesStubs();
         eventsWatcher.testFailed(extensionContext, new RuntimeException());
-        verify(eventsDispatcher).fire(className, displayName, AFTER, FAILED, Set.of(TEST), extensionContext);
+
+        final InOrder inOrder = inOrder(frameBuffer, eventsDispatcher);
+        inOrder.verify(frameBuffer).persist(testData);
+        inOrder.verify(eventsDispatcher).fire(className, displayName, AFTER, FAILED, Set.of(TEST), extensionContext);
+    }
+
+    @Test
+    @DisplayName("persistFramesOf should do nothing when frames are not buffered")
+    public void persistFramesOfNotBuffered() {
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+
+        eventsWatcher.persistFramesOf(extensionContext);
+
+        verify(testData).getFrameBuffer();
+        verifyNoInteractions(frameBuffer);
     }
 
     @Test
@@ -4,9 +4,18 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.markuputils.Markup;
+import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.utils.Configuration.Drivers.Event;
+import io.github.giulong.spectrum.enums.Frame;
 import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.MessageTemplate;
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.Screenshot;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import io.github.giulong.spectrum.utils.video.FrameSampler;
 import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
+import io.github.giulong.spectrum.utils.video.VideoStream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,16 +30,21 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -41,17 +55,21 @@ import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
 import static io.github.giulong.spectrum.extensions.resolvers.ExtentTestResolver.EXTENT_TEST;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
-import static org.openqa.selenium.OutputType.BYTES;
+import static org.openqa.selenium.OutputType.BASE64;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("EventsListener")
 class EventsListenerTest {
 
-    private static final String UUID_REGEX = AUTO_AFTER.getValue() + "-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png";
+    private static final String UUID_REGEX = AUTO_AFTER.getValue() + "-\\d+-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png";
 
     private final String arg = "arg";
     private final String message = "message <div>%s</div>";
@@ -85,12 +103,32 @@ class EventsListenerTest {
     @Mock
     private Video video;
 
+    @Mock
+    private VideoStream videoStream;
+
+    @Mock
+    private FrameBuffer frameBuffer;
+
+    @Mock
+    private FrameSampler frameSampler;
+
+    @Mock
+    private Video.Capture capture;
+
+    private final Screenshot screenshot = new Screenshot();
+
     @Mock
     private Pattern locatorPattern;
 
     @Mock
     private Matcher matcher;
 
+    @Mock
+    private Supplier<String> supplier;
+
+    @Mock
+    private InvocationTargetException invocationTargetException;
+
     @Captor
     private ArgumentCaptor<Markup> markupArgumentCaptor;
 
@@ -102,14 +140,24 @@ class EventsListenerTest {
         ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(INFO);
     }
 
+    private JavascriptExecutor javascriptExecutorDriver() {
+        final WebDriver javascriptExecutorDriver = mock(WebDriver.class, withSettings().extraInterfaces(TakesScreenshot.class, JavascriptExecutor.class));
+        Reflections.setField("driver", eventsListener, javascriptExecutorDriver);
+
+        return (JavascriptExecutor) javascriptExecutorDriver;
+    }
+
     @SneakyThrows
     private Path recordViewFrameForStubs() {
         final Path path = Files.createTempDirectory("reportsFolder");
         path.toFile().deleteOnExit();
 
         when(testData.getScreenshotFolderPath()).thenReturn(path);
-        when(video.shouldRecord(path.resolve(anyString()).getFileName().toString())).thenReturn(true);
-        when(((TakesScreenshot) webDriver).getScreenshotAs(BYTES)).thenReturn(new byte[]{1, 2, 3});
+        when(video.shouldRecord(anyString())).thenReturn(true);
+        when(frameSampler.accept(any(Frame.class), eq(event))).thenReturn(true);
+        when(video.getCapture()).thenReturn(capture);
+        when(video.getScreenshot()).thenReturn(screenshot);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
 
         return path;
     }
@@ -145,42 +193,22 @@ class EventsListenerTest {
     }
 
     @Test
-    @DisplayName("parse should return a list of strings calling the extractSelectorFrom for each WebElement in the provided list, and using String.valueOf to avoid NPEs")
-    public void parse() {
-        final String webElement1ToString = "[[ChromeDriver: chrome on WINDOWS (5db9fd1ca57389187f02aa09397ea93c)] -> id: message]";
-        final String webElement2ToString = "[[[[ChromeDriver: chrome on WINDOWS (5db9fd1ca57389187f02aa09397ea93c)] -> css selector: #gettotal]] -> tag name: button]";
-        final String webElement3ToString = "[[[[ChromeDriver: chrome on WINDOWS (5db9fd1ca57389187f02aa09397ea93c)] -> css selector: #get1-.total]] -> tag name: button]";
-        final String expected1 = "id: message";
-        final String expected2 = "css selector: #gettotal -> tag name: button";
-        final String expected3 = "css selector: #get1-.total -> tag name: button";
-
-        final String s = "string";
-        final List<String> expected = Arrays.asList(
-                "<code>id: message</code>",
-                "<code>" + s + "</code>",
-                "<code>null</code>",
-                "<code>css selector: #gettotal -> tag name: button</code>",
-                "<code>css selector: #get1-.total -> tag name: button</code>"
-        );
+    @DisplayName("extractSelectorFrom should cache the selector of the provided webElement for the current driver")
+    public void extractSelectorFromCached() {
+        final String fullWebElement = "fullWebElement";
+        final String expected = "id: message";
+        final int selectorsCacheHits = EventsListener.getSelectorsCacheHits();
 
-        when(webElement1.toString()).thenReturn(webElement1ToString);
-        when(webElement2.toString()).thenReturn(webElement2ToString);
-        when(webElement3.toString()).thenReturn(webElement3ToString);
-        when(locatorPattern.matcher(webElement1ToString)).thenReturn(matcher);
-        when(locatorPattern.matcher(webElement2ToString)).thenReturn(matcher);
-        when(locatorPattern.matcher(webElement3ToString)).thenReturn(matcher);
-        when(matcher.find())
-                .thenReturn(true).thenReturn(false)
-                .thenReturn(true).thenReturn(false)
-                .thenReturn(true).thenReturn(false);
-        when(matcher.group(1))
-                .thenReturn(expected1)
-                .thenReturn(expected2)
-                .thenReturn(expected3);
+        when(locatorPattern.matcher(fullWebElement)).thenReturn(matcher);
+        when(webElement1.toString()).thenReturn(fullWebElement);
+        when(matcher.find()).thenReturn(true).thenReturn(false);
+        when(matcher.group(1)).thenReturn(expected);
 
-        final Object[] args = new Object[]{webElement1, s, null, webElement2, webElement3};
+        assertEquals(expected, eventsListener.extractSelectorFrom(webElement1));
+        assertEquals(expected, eventsListener.extractSelectorFrom(webElement1));
 
-        assertEquals(expected, eventsListener.parse(args, "<code>%s</code>"));
+        verify(locatorPattern).matcher(fullWebElement);
+        assertEquals(selectorsCacheHits + 1, EventsListener.getSelectorsCacheHits());
     }
 
     @Test
@@ -219,29 +247,212 @@ class EventsListenerTest {
 
         final Object[] args = new Object[]{webElement1, s, null, webElement2, webElement3};
 
-        assertEquals(expected, eventsListener.parse(args));
+        assertArrayEquals(expected.toArray(), eventsListener.parse(args));
+    }
+
+    @Test
+    @DisplayName("render should turn arrays, exceptions and suppliers into strings")
+    public void render() {
+        assertEquals("[a, 1, null]", eventsListener.render(new Object[]{"a", 1, null}));
+        assertEquals("[k, e, y]", eventsListener.render(new CharSequence[]{"k", "e", "y"}));
+        assertEquals("message", eventsListener.render(new InvocationTargetException(null, "message")));
+        assertEquals("&lt;html&gt;", eventsListener.render((Supplier<String>) () -> "&lt;html&gt;"));
+        assertEquals("null", eventsListener.render(null));
+        assertEquals("1", eventsListener.render(1));
+    }
+
+    @Test
+    @DisplayName("lazy args should not be rendered if the event is not logged")
+    public void listenLazyArgs() {
+        ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(OFF);
+        when(event.getLevel()).thenReturn(INFO);
+        when(event.getWait()).thenReturn(0L);
+
+        eventsListener.listenTo(AUTO_BEFORE, event, supplier, invocationTargetException);
+
+        verifyNoInteractions(supplier, invocationTargetException);
     }
 
     @Test
     @DisplayName("recordVideoFrameFor should take a webdriver screenshot")
     public void recordVideoFrameFor() {
         final Path path = recordViewFrameForStubs();
-        final Path screenshotPath = eventsListener.record(AUTO_AFTER);
+        final Path screenshotPath = eventsListener.record(AUTO_AFTER, event);
 
         assertEquals(path, screenshotPath.getParent());
         assertThat(screenshotPath.getFileName().toString(), matchesPattern(UUID_REGEX));
+        verify(video).shouldRecord(AUTO_AFTER.getValue());
+
+        ScreenshotWriter.getInstance().flush(path);
+        assertTrue(Files.exists(screenshotPath));
     }
 
     @Test
-    @DisplayName("recordVideoFrameFor should take a webdriver screenshot")
-    public void recordVideoFrameForDisabled() throws IOException {
-        final Path path = Files.createTempDirectory("reportsFolder");
-        path.toFile().deleteOnExit();
+    @DisplayName("recordVideoFrameFor should push the screenshot to the video stream, if any, instead of writing it")
+    public void recordVideoFrameForStreaming() {
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(true);
+        when(frameSampler.accept(AUTO_AFTER, event)).thenReturn(true);
+        when(video.getCapture()).thenReturn(capture);
+        when(video.getScreenshot()).thenReturn(screenshot);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+
+        verify(videoStream).push("AQID");
+        verify(testData, never()).getScreenshotFolderPath();
+    }
 
-        when(testData.getScreenshotFolderPath()).thenReturn(path);
-        when(video.shouldRecord(path.resolve(anyString()).getFileName().toString())).thenReturn(false);
+    @Test
+    @DisplayName("recordVideoFrameFor should add the screenshot to the frame buffer, if any, instead of streaming or writing it")
+    public void recordVideoFrameForBuffering() {
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(true);
+        when(frameSampler.accept(AUTO_AFTER, event)).thenReturn(true);
+        when(video.getCapture()).thenReturn(capture);
+        when(video.getScreenshot()).thenReturn(screenshot);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+
+        verify(frameBuffer).add(AUTO_AFTER, "AQID");
+        verify(testData, never()).getVideoStream();
+        verify(testData, never()).getScreenshotFolderPath();
+    }
+
+    @Test
+    @DisplayName("recordVideoFrameFor should discard a frame identical to one already recorded")
+    public void recordVideoFrameForDuplicate() throws IOException {
+        final Path path = recordViewFrameForStubs();
+        final Path screenshotPath = eventsListener.record(AUTO_AFTER, event);
+
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+
+        ScreenshotWriter.getInstance().flush(path);
+        try (Stream<Path> files = Files.list(path)) {
+            assertEquals(List.of(screenshotPath), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("recordVideoFrameFor should not take a screenshot if the frame sampler discards it")
+    public void recordVideoFrameForNotSampled() {
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(true);
+        when(frameSampler.accept(AUTO_AFTER, event)).thenReturn(false);
+
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+        verify((TakesScreenshot) webDriver, never()).getScreenshotAs(BASE64);
+    }
+
+    @Test
+    @DisplayName("recordVideoFrameFor should not take a screenshot if the page didn't change since the previous frame")
+    public void recordVideoFrameForUnchanged() {
+        final JavascriptExecutor javascriptExecutor = javascriptExecutorDriver();
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(true);
+        when(frameSampler.accept(AUTO_AFTER, event)).thenReturn(true);
+        when(video.getCapture()).thenReturn(capture);
+        when(capture.isDetectChanges()).thenReturn(true);
+        when(javascriptExecutor.executeScript(anyString())).thenReturn("id:1");
+        when(video.getScreenshot()).thenReturn(screenshot);
+        when(((TakesScreenshot) javascriptExecutor).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        eventsListener.record(AUTO_AFTER, event);
+        eventsListener.record(AUTO_AFTER, event);
+
+        verify((TakesScreenshot) javascriptExecutor).getScreenshotAs(BASE64);
+        verify(videoStream).push("AQID");
+    }
+
+    @DisplayName("pageChanged should tell if the token returned by the page changes script changed since the previous call")
+    @ParameterizedTest(name = "with previous token {0} and current token {1} we expect {2}")
+    @MethodSource("pageChangedValuesProvider")
+    public void pageChanged(final String previousToken, final String token, final boolean expected) {
+        final JavascriptExecutor javascriptExecutor = javascriptExecutorDriver();
+        Reflections.setField("pageChangesToken", eventsListener, new AtomicReference<>(previousToken));
+        when(video.getCapture()).thenReturn(capture);
+        when(capture.isDetectChanges()).thenReturn(true);
+        when(javascriptExecutor.executeScript(anyString())).thenReturn(token);
+
+        assertEquals(expected, eventsListener.pageChanged());
+    }
+
+    public static Stream<Arguments> pageChangedValuesProvider() {
+        return Stream.of(
+                arguments(null, "id:0", true),
+                arguments("id:0", "id:0", false),
+                arguments("id:0", "id:1", true),
+                arguments("id:1", "newId:0", true)
+        );
+    }
+
+    @Test
+    @DisplayName("pageChanged should return true if changes detection is disabled")
+    public void pageChangedDisabled() {
+        final JavascriptExecutor javascriptExecutor = javascriptExecutorDriver();
+        when(video.getCapture()).thenReturn(capture);
+        when(capture.isDetectChanges()).thenReturn(false);
+
+        assertTrue(eventsListener.pageChanged());
+        verifyNoInteractions(javascriptExecutor);
+    }
+
+    @Test
+    @DisplayName("pageChanged should return true if the driver can't execute scripts")
+    public void pageChangedNotJavascriptExecutor() {
+        when(video.getCapture()).thenReturn(capture);
+        when(capture.isDetectChanges()).thenReturn(true);
+
+        assertTrue(eventsListener.pageChanged());
+    }
 
-        assertNull(eventsListener.record(AUTO_AFTER));
+    @Test
+    @DisplayName("pageChanged should return true if the page changes script fails")
+    public void pageChangedScriptFailure() {
+        final JavascriptExecutor javascriptExecutor = javascriptExecutorDriver();
+        when(video.getCapture()).thenReturn(capture);
+        when(capture.isDetectChanges()).thenReturn(true);
+        when(javascriptExecutor.executeScript(anyString())).thenThrow(new WebDriverException("native context"));
+
+        assertTrue(eventsListener.pageChanged());
+        assertTrue(eventsListener.pageChanged());
+    }
+
+    @Test
+    @DisplayName("recordVideoFrameFor should not take a screenshot if the frame shouldn't be recorded, checking the video configuration just once per frame")
+    public void recordVideoFrameForDisabled() {
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(false);
+
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+        verify((TakesScreenshot) webDriver, never()).getScreenshotAs(BASE64);
+        verify(video).shouldRecord(AUTO_AFTER.getValue());
+    }
+
+    @Test
+    @DisplayName("recordVideoFrameFor should record autoAfter frames when falling back from screencast, even if they're not configured")
+    public void recordVideoFrameForScreencastFallback() {
+        Reflections.setField("fallbackFrame", eventsListener, AUTO_AFTER);
+        when(video.shouldRecord(AUTO_AFTER.getValue())).thenReturn(false);
+        when(video.shouldRecord(AUTO_BEFORE.getValue())).thenReturn(false);
+        when(frameSampler.accept(AUTO_AFTER, event)).thenReturn(true);
+        when(video.getCapture()).thenReturn(capture);
+        when(video.getScreenshot()).thenReturn(screenshot);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        assertNull(eventsListener.record(AUTO_BEFORE, event));
+        assertNull(eventsListener.record(AUTO_AFTER, event));
+
+        verify(videoStream).push("AQID");
+    }
+
+    @Test
+    @DisplayName("hashOf should return the same hash for equal screenshots, and different ones otherwise")
+    public void hashOf() {
+        assertEquals(eventsListener.hashOf("AQID"), eventsListener.hashOf(new String("AQID")));
+        assertNotEquals(eventsListener.hashOf("AQID"), eventsListener.hashOf("AQIE"));
+        assertNotEquals(eventsListener.hashOf("AQID"), eventsListener.hashOf("AQIDBA=="));
     }
 
     @Test
@@ -250,7 +461,7 @@ class EventsListenerTest {
         when(event.getLevel()).thenReturn(Level.OFF);
 
         eventsListener.listenTo(AUTO_BEFORE, event, arg);
-        verify(event, never()).getMessage();
+        verify(event, never()).getTemplate();
     }
 
     @Test
@@ -259,7 +470,7 @@ class EventsListenerTest {
         recordViewFrameForStubs();
 
         ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(TRACE);
-        when(event.getMessage()).thenReturn(message);
+        when(event.getTemplate()).thenReturn(MessageTemplate.compile(message));
         when(event.getLevel()).thenReturn(TRACE);
         when(event.getWait()).thenReturn(0L);
 
@@ -275,7 +486,7 @@ class EventsListenerTest {
         when(event.getWait()).thenReturn(wait);
 
         eventsListener.listenTo(AUTO_BEFORE, event, arg);
-        verify(event, never()).getMessage();
+        verify(event, never()).getTemplate();
         verify(extentTest, never()).info(tagsMessage);
     }
 
@@ -285,7 +496,7 @@ class EventsListenerTest {
         recordViewFrameForStubs();
 
         ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(DEBUG);
-        when(event.getMessage()).thenReturn(message);
+        when(event.getTemplate()).thenReturn(MessageTemplate.compile(message));
         when(event.getLevel()).thenReturn(DEBUG);
         when(event.getWait()).thenReturn(wait);
 
@@ -301,7 +512,7 @@ class EventsListenerTest {
         when(event.getWait()).thenReturn(wait);
 
         eventsListener.listenTo(AUTO_BEFORE, event, arg);
-        verify(event, never()).getMessage();
+        verify(event, never()).getTemplate();
         verify(extentTest, never()).info(tagsMessage);
     }
 
@@ -311,7 +522,7 @@ class EventsListenerTest {
         recordViewFrameForStubs();
 
         ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(INFO);
-        when(event.getMessage()).thenReturn(message);
+        when(event.getTemplate()).thenReturn(MessageTemplate.compile(message));
         when(event.getLevel()).thenReturn(INFO);
         when(event.getWait()).thenReturn(wait);
 
@@ -327,7 +538,7 @@ class EventsListenerTest {
         when(event.getWait()).thenReturn(wait);
 
         eventsListener.listenTo(AUTO_BEFORE, event, arg);
-        verify(event, never()).getMessage();
+        verify(event, never()).getTemplate();
         verify(extentTest, never()).info(tagsMessage);
     }
 
@@ -337,7 +548,7 @@ class EventsListenerTest {
         recordViewFrameForStubs();
 
         ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(WARN);
-        when(event.getMessage()).thenReturn(message);
+        when(event.getTemplate()).thenReturn(MessageTemplate.compile(message));
         when(event.getLevel()).thenReturn(WARN);
         when(event.getWait()).thenReturn(wait);
 
@@ -356,7 +567,7 @@ class EventsListenerTest {
         when(event.getWait()).thenReturn(wait);
 
         eventsListener.listenTo(AUTO_BEFORE, event, arg);
-        verify(event, never()).getMessage();
+        verify(event, never()).getTemplate();
         verify(extentTest, never()).warning(markupArgumentCaptor.capture());
     }
 
@@ -371,4 +582,53 @@ class EventsListenerTest {
         verify(store, never()).get(EXTENT_TEST, ExtentTest.class);
         verify(extentTest, never()).warning(markupArgumentCaptor.capture());
     }
+
+    @DisplayName("isActive should tell if the provided event can have an effect at the current log level")
+    @ParameterizedTest(name = "with event level {0}, wait {1} and log level {2} we expect {3}")
+    @MethodSource("activeValuesProvider")
+    public void isActiveEvent(final Level level, final long eventWait, final Level logLevel, final boolean expected) {
+        ((Logger) LoggerFactory.getLogger(EventsListener.class)).setLevel(logLevel);
+        when(event.getLevel()).thenReturn(level);
+        lenient().when(event.getWait()).thenReturn(eventWait);
+
+        assertEquals(expected, eventsListener.isActive(event));
+    }
+
+    public static Stream<Arguments> activeValuesProvider() {
+        return Stream.of(
+                arguments(Level.OFF, 0L, ALL, false),
+                arguments(Level.OFF, 1L, ALL, false),
+                arguments(TRACE, 0L, TRACE, true),
+                arguments(TRACE, 0L, DEBUG, false),
+                arguments(TRACE, 1L, DEBUG, true),
+                arguments(DEBUG, 0L, DEBUG, true),
+                arguments(DEBUG, 0L, INFO, false),
+                arguments(INFO, 0L, INFO, true),
+                arguments(INFO, 0L, WARN, false),
+                arguments(WARN, 0L, WARN, true),
+                arguments(WARN, 0L, Level.OFF, false),
+                arguments(ERROR, 0L, Level.OFF, true)
+        );
+    }
+
+    @Test
+    @DisplayName("isActive should return false if the provided event is null")
+    public void isActiveNull() {
+        assertFalse(eventsListener.isActive(null));
+    }
+
+    @Test
+    @DisplayName("isActive should tell if any of the configured events is active")
+    public void isActive() {
+        Reflections.setField("events", eventsListener, new Configuration.Drivers.Events());
+
+        assertFalse(eventsListener.isActive());
+
+        final Configuration.Drivers.Events events = new Configuration.Drivers.Events();
+        when(event.getLevel()).thenReturn(INFO);
+        Reflections.setField("afterClick", events, event);
+        Reflections.setField("events", eventsListener, events);
+
+        assertTrue(eventsListener.isActive());
+    }
 }
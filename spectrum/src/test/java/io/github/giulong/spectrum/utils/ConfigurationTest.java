@@ -3,18 +3,52 @@ package io.github.giulong.spectrum.utils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Configuration")
 class ConfigurationTest {
 
+    @Mock
+    private Configuration.Drivers.Event event;
+
     @Test
     @DisplayName("getInstance should return the singleton")
     public void getInstance() {
         //noinspection EqualsWithItself
         assertSame(Configuration.getInstance(), Configuration.getInstance());
     }
+
+    @Test
+    @DisplayName("setMessage should compile the message template of the event")
+    public void setMessage() {
+        final Configuration.Drivers.Event event = YamlUtils.getInstance().readInternalNode("/drivers/events/afterGet", "yaml/configuration.default.yaml", Configuration.Drivers.Event.class);
+
+        assertEquals("Got <a href=\"<code>url</code>\" target=\"_blank\"><code>url</code></a>", event.getTemplate().render(new Object[]{"driver", "url"}).getHtml());
+        assertEquals("Got url", event.getTemplate().render(new Object[]{"driver", "url"}).getLog());
+    }
+
+    @Test
+    @DisplayName("isActive should tell if any of the events is active, computing it just once")
+    public void isActive() {
+        final Configuration.Drivers.Events events = new Configuration.Drivers.Events();
+        Reflections.setField("afterClick", events, event);
+
+        assertTrue(events.isActive(Objects::nonNull));
+        assertTrue(events.isActive(e -> false));
+    }
+
+    @Test
+    @DisplayName("isActive should return false if none of the events is active")
+    public void isActiveFalse() {
+        assertFalse(new Configuration.Drivers.Events().isActive(Objects::nonNull));
+    }
 }
@@ -0,0 +1,518 @@
+package io.github.giulong.spectrum.utils;
+
+import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.PoolScope;
+import io.github.giulong.spectrum.utils.DriverPool.PooledDriver;
+import io.github.giulong.spectrum.utils.environments.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.PoolScope.*;
+import static io.github.giulong.spectrum.utils.DriverPool.LEASED_DRIVER_THREAD_LOCAL;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DriverPool")
+class DriverPoolTest {
+
+    private static final String CLASS_NAME = "className";
+
+    private final Map<String, Deque<PooledDriver>> idleDrivers = new ConcurrentHashMap<>();
+
+    private final Deque<PooledDriver> warmDrivers = new ConcurrentLinkedDeque<>();
+
+    private final Semaphore permits = new Semaphore(10);
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private Configuration.Drivers drivers;
+
+    @Mock
+    private Configuration.Drivers.Pool pool;
+
+    @Mock
+    private Configuration.Runtime runtime;
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private DriverService driverService;
+
+    @Mock
+    private Driver<?, ?, ?> driver;
+
+    @Mock
+    private ExecutorService executorService;
+
+    @Captor
+    private ArgumentCaptor<Runnable> runnableArgumentCaptor;
+
+    @Mock
+    private WebDriver webDriver;
+
+    @Mock
+    private WebDriver idleWebDriver;
+
+    @Mock
+    private WebDriver.Options options;
+
+    @Mock
+    private WebDriver.Timeouts timeouts;
+
+    @InjectMocks
+    private DriverPool driverPool;
+
+    @BeforeEach
+    public void beforeEach() {
+        LEASED_DRIVER_THREAD_LOCAL.remove();
+
+        Reflections.setField("configuration", driverPool, configuration);
+        Reflections.setField("idleDrivers", driverPool, idleDrivers);
+        Reflections.setField("permits", driverPool, permits);
+        Reflections.setField("warmDrivers", driverPool, warmDrivers);
+    }
+
+    private PooledDriver addIdleDriver(final String key, final WebDriver idle) {
+        final PooledDriver pooledDriver = new PooledDriver(key, idle, null);
+
+        idleDrivers.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).add(pooledDriver);
+        return pooledDriver;
+    }
+
+    @Test
+    @DisplayName("getInstance should return the singleton")
+    public void getInstance() {
+        //noinspection EqualsWithItself
+        assertSame(DriverPool.getInstance(), DriverPool.getInstance());
+    }
+
+    @DisplayName("sessionOpened should size the pool according to the configured max size")
+    @ParameterizedTest(name = "with max size {0} we expect {1} permits")
+    @MethodSource("maxSizeValuesProvider")
+    public void sessionOpened(final int maxSize, final int expected) {
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(TEST);
+        when(pool.getMaxSize()).thenReturn(maxSize);
+
+        driverPool.sessionOpened();
+
+        assertEquals(expected, ((Semaphore) Reflections.getFieldValue("permits", driverPool)).availablePermits());
+    }
+
+    public static Stream<Arguments> maxSizeValuesProvider() {
+        return Stream.of(
+                arguments(0, Integer.MAX_VALUE),
+                arguments(3, 3)
+        );
+    }
+
+    @Test
+    @DisplayName("sessionClosed should quit all the idle drivers")
+    public void sessionClosed() {
+        addIdleDriver(CLASS_NAME, idleWebDriver);
+        addIdleDriver("another", webDriver);
+
+        driverPool.sessionClosed();
+
+        verify(idleWebDriver).quit();
+        verify(webDriver).quit();
+        assertTrue(idleDrivers.isEmpty());
+        assertEquals(12, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("leaseFor should create a new driver if there are no idle ones")
+    public void leaseFor() {
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(CLASS);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+
+        assertEquals(webDriver, driverPool.leaseFor(driver, CLASS_NAME));
+
+        final PooledDriver pooledDriver = LEASED_DRIVER_THREAD_LOCAL.get();
+        assertEquals(CLASS_NAME, pooledDriver.getKey());
+        assertEquals(1, pooledDriver.getLeases());
+        assertEquals(9, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("leaseFor should reuse a healthy idle driver")
+    public void leaseForIdle() {
+        final PooledDriver pooledDriver = addIdleDriver(CLASS_NAME, idleWebDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(CLASS);
+        when(pool.isHealthCheck()).thenReturn(true);
+        when(idleWebDriver.manage()).thenReturn(options);
+        when(options.timeouts()).thenReturn(timeouts);
+
+        assertEquals(idleWebDriver, driverPool.leaseFor(driver, CLASS_NAME));
+
+        assertEquals(pooledDriver, LEASED_DRIVER_THREAD_LOCAL.get());
+        assertEquals(1, pooledDriver.getLeases());
+        verify(driver, never()).create();
+    }
+
+    @Test
+    @DisplayName("leaseFor should evict an unhealthy idle driver and create a new one")
+    public void leaseForUnhealthy() {
+        addIdleDriver(CLASS_NAME, idleWebDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(CLASS);
+        when(pool.isHealthCheck()).thenReturn(true);
+        when(idleWebDriver.manage()).thenThrow(new WebDriverException("dead"));
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+
+        assertEquals(webDriver, driverPool.leaseFor(driver, CLASS_NAME));
+
+        verify(idleWebDriver).quit();
+    }
+
+    @Test
+    @DisplayName("getLeasedDriver should return the driver leased by the current thread, as it was created")
+    public void getLeasedDriver() {
+        LEASED_DRIVER_THREAD_LOCAL.set(new PooledDriver(CLASS_NAME, webDriver, null));
+
+        assertEquals(Optional.of(webDriver), driverPool.getLeasedDriver());
+    }
+
+    @Test
+    @DisplayName("getLeasedDriver should return an empty optional if the current thread didn't lease any driver")
+    public void getLeasedDriverNothing() {
+        assertTrue(driverPool.getLeasedDriver().isEmpty());
+    }
+
+    @Test
+    @DisplayName("release should do nothing if the current thread didn't lease any driver")
+    public void releaseNothing() {
+        driverPool.release(false);
+
+        verifyNoInteractions(configuration);
+    }
+
+    @DisplayName("release should quit the driver if it has to be evicted")
+    @ParameterizedTest(name = "with evict {0}, scope {1}, max reuse {2}")
+    @MethodSource("evictValuesProvider")
+    public void releaseEvicting(final boolean evict, final PoolScope scope, final int maxReuse) {
+        final PooledDriver pooledDriver = new PooledDriver(CLASS_NAME, webDriver, null);
+        pooledDriver.lease();
+        LEASED_DRIVER_THREAD_LOCAL.set(pooledDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        lenient().when(pool.getScope()).thenReturn(scope);
+        when(pool.getMaxReuse()).thenReturn(maxReuse);
+
+        driverPool.release(evict);
+
+        verify(webDriver).quit();
+        assertNull(LEASED_DRIVER_THREAD_LOCAL.get());
+        assertTrue(idleDrivers.isEmpty());
+    }
+
+    public static Stream<Arguments> evictValuesProvider() {
+        return Stream.of(
+                arguments(true, SUITE, 0),
+                arguments(false, TEST, 0),
+                arguments(false, CLASS, 1)
+        );
+    }
+
+    @Test
+    @DisplayName("release should return the driver to the pool")
+    public void release() {
+        final PooledDriver pooledDriver = new PooledDriver(CLASS_NAME, webDriver, null);
+        pooledDriver.lease();
+        LEASED_DRIVER_THREAD_LOCAL.set(pooledDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(CLASS);
+        when(pool.getMaxReuse()).thenReturn(2);
+
+        driverPool.release(false);
+
+        verify(webDriver, never()).quit();
+        assertEquals(pooledDriver, idleDrivers.get(CLASS_NAME).getFirst());
+    }
+
+    @Test
+    @DisplayName("closeClass should quit the idle drivers of the provided class if the scope is class")
+    public void closeClass() {
+        addIdleDriver(CLASS_NAME, idleWebDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(CLASS);
+
+        driverPool.closeClass(CLASS_NAME);
+
+        verify(idleWebDriver).quit();
+        assertFalse(idleDrivers.containsKey(CLASS_NAME));
+    }
+
+    @Test
+    @DisplayName("closeClass should do nothing if the scope is not class")
+    public void closeClassNotClassScope() {
+        addIdleDriver(CLASS_NAME, idleWebDriver);
+
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(SUITE);
+
+        driverPool.closeClass(CLASS_NAME);
+
+        verify(idleWebDriver, never()).quit();
+    }
+
+    @DisplayName("keyFor should return the key of the pool according to the scope")
+    @ParameterizedTest(name = "with scope {0} we expect {1}")
+    @MethodSource("keyValuesProvider")
+    public void keyFor(final PoolScope scope, final String expected) {
+        assertEquals(expected, driverPool.keyFor(scope, CLASS_NAME));
+    }
+
+    public static Stream<Arguments> keyValuesProvider() {
+        return Stream.of(
+                arguments(TEST, CLASS_NAME),
+                arguments(CLASS, CLASS_NAME),
+                arguments(SUITE, "suite")
+        );
+    }
+
+    @Test
+    @DisplayName("pollHealthyDriverFrom should skip the health check if not enabled")
+    public void pollHealthyDriverFromNoHealthCheck() {
+        final PooledDriver pooledDriver = addIdleDriver(CLASS_NAME, idleWebDriver);
+
+        assertEquals(pooledDriver, driverPool.pollHealthyDriverFrom(idleDrivers.get(CLASS_NAME), false));
+        verifyNoInteractions(idleWebDriver);
+    }
+
+    @Test
+    @DisplayName("pollHealthyDriverFrom should return null if there are no idle drivers")
+    public void pollHealthyDriverFromEmpty() {
+        assertNull(driverPool.pollHealthyDriverFrom(new ConcurrentLinkedDeque<>(), true));
+    }
+
+    @Test
+    @DisplayName("sessionOpened should warm up the configured number of drivers in background")
+    public void sessionOpenedWarmUp() {
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(TEST);
+        when(pool.getWarmUp()).thenReturn(2);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(driver).when(runtime).getDriver();
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+        when(environment.detachDriverService()).thenReturn(Optional.of(driverService));
+
+        driverPool.sessionOpened();
+        verify(driver, timeout(5000).times(2)).create();
+
+        driverPool.sessionClosed();
+
+        verify(webDriver, times(2)).quit();
+        verify(driverService, times(2)).close();
+        assertTrue(warmDrivers.isEmpty());
+    }
+
+    @Test
+    @DisplayName("sessionClosed should wait for the warm-up to complete and quit the warm drivers")
+    public void sessionClosedWarmUp() throws InterruptedException {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+        warmDrivers.add(new PooledDriver("warmUp", webDriver, null));
+
+        when(executorService.awaitTermination(1, MINUTES)).thenReturn(true);
+
+        driverPool.sessionClosed();
+
+        verify(executorService).shutdown();
+        verify(webDriver).quit();
+        assertTrue(warmDrivers.isEmpty());
+        assertNull(Reflections.getFieldValue("warmUpExecutor", driverPool));
+    }
+
+    @Test
+    @DisplayName("pollWarmDriverFor should return an empty optional if warm-up is disabled")
+    public void pollWarmDriverForDisabled() {
+        assertTrue(driverPool.pollWarmDriverFor(driver, CLASS_NAME, true).isEmpty());
+    }
+
+    @Test
+    @DisplayName("pollWarmDriverFor should return a warm driver and warm up another one")
+    public void pollWarmDriverFor() {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+        warmDrivers.add(new PooledDriver("warmUp", webDriver, driverService));
+
+        final PooledDriver actual = driverPool.pollWarmDriverFor(driver, CLASS_NAME, false).orElseThrow();
+
+        assertEquals(CLASS_NAME, actual.getKey());
+        assertEquals(webDriver, actual.getWebDriver());
+        assertEquals(driverService, actual.getDriverService());
+        assertEquals(1, ((AtomicInteger) Reflections.getFieldValue("warmUpHits", driverPool)).get());
+        verify(executorService).execute(any());
+    }
+
+    @Test
+    @DisplayName("pollWarmDriverFor should count a miss if there are no warm drivers")
+    public void pollWarmDriverForMiss() {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+
+        assertTrue(driverPool.pollWarmDriverFor(driver, CLASS_NAME, false).isEmpty());
+        assertEquals(1, ((AtomicInteger) Reflections.getFieldValue("warmUpMisses", driverPool)).get());
+        verifyNoInteractions(executorService);
+    }
+
+    @Test
+    @DisplayName("warmUp should create a driver in background, with the driver service started for it, and add it to the warm ones")
+    public void warmUp() {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+        when(environment.detachDriverService()).thenReturn(Optional.of(driverService));
+
+        driverPool.warmUp(driver);
+
+        verify(executorService).execute(runnableArgumentCaptor.capture());
+        runnableArgumentCaptor.getValue().run();
+
+        assertEquals(webDriver, warmDrivers.getFirst().getWebDriver());
+        assertEquals(driverService, warmDrivers.getFirst().getDriverService());
+        assertEquals(9, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("warmUp should give the permit back if the driver creation fails")
+    public void warmUpFails() {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+        when(driver.create()).thenThrow(new WebDriverException("failed"));
+
+        driverPool.warmUp(driver);
+
+        verify(executorService).execute(runnableArgumentCaptor.capture());
+        runnableArgumentCaptor.getValue().run();
+
+        assertTrue(warmDrivers.isEmpty());
+        assertEquals(10, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("warmUp should skip the creation if the pool is full")
+    public void warmUpFull() {
+        Reflections.setField("warmUpExecutor", driverPool, executorService);
+        Reflections.setField("permits", driverPool, new Semaphore(0));
+
+        driverPool.warmUp(driver);
+
+        verify(executorService).execute(runnableArgumentCaptor.capture());
+        runnableArgumentCaptor.getValue().run();
+
+        verify(driver, never()).create();
+        assertTrue(warmDrivers.isEmpty());
+    }
+
+    @Test
+    @DisplayName("create should evict an idle driver when the pool is full")
+    public void createFull() {
+        Reflections.setField("permits", driverPool, new Semaphore(0));
+        addIdleDriver("another", idleWebDriver);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+
+        final PooledDriver actual = driverPool.create(driver, CLASS_NAME);
+
+        assertEquals(webDriver, actual.getWebDriver());
+        verify(idleWebDriver).quit();
+    }
+
+    @Test
+    @DisplayName("create should give the permit back if the driver creation fails")
+    public void createFails() {
+        final WebDriverException exception = new WebDriverException("failed");
+        when(driver.create()).thenThrow(exception);
+
+        assertThrows(WebDriverException.class, () -> driverPool.create(driver, CLASS_NAME));
+        assertEquals(10, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("pooledDriverOf should create the driver taking over the driver service started for it")
+    public void pooledDriverOf() {
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(webDriver).when(driver).create();
+        when(environment.detachDriverService()).thenReturn(Optional.of(driverService));
+
+        final PooledDriver actual = driverPool.pooledDriverOf(driver, CLASS_NAME);
+
+        assertEquals(CLASS_NAME, actual.getKey());
+        assertEquals(webDriver, actual.getWebDriver());
+        assertEquals(driverService, actual.getDriverService());
+        verify(driverService, never()).close();
+    }
+
+    @Test
+    @DisplayName("quit should close the driver service dedicated to the driver after quitting it")
+    public void quitDriverService() {
+        driverPool.quit(new PooledDriver(CLASS_NAME, webDriver, driverService));
+
+        final InOrder inOrder = inOrder(webDriver, driverService);
+        inOrder.verify(webDriver).quit();
+        inOrder.verify(driverService).close();
+        assertEquals(11, permits.availablePermits());
+    }
+
+    @Test
+    @DisplayName("quit should give the permit back and close the driver service even if quitting the driver fails")
+    public void quit() {
+        doThrow(new WebDriverException("failed")).when(webDriver).quit();
+
+        driverPool.quit(new PooledDriver(CLASS_NAME, webDriver, driverService));
+
+        verify(driverService).close();
+        assertEquals(11, permits.availablePermits());
+    }
+}
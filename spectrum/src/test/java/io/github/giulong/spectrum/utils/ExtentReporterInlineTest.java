@@ -1,17 +1,18 @@
 package io.github.giulong.spectrum.utils;
 
+import io.github.giulong.spectrum.utils.video.VideoEncodingPool;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.File;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -74,6 +75,9 @@ class ExtentReporterInlineTest {
     @Mock
     private HtmlUtils htmlUtils;
 
+    @Mock
+    private VideoEncodingPool videoEncodingPool;
+
     @InjectMocks
     private ExtentReporterInline extentReporterInline;
 
@@ -82,6 +86,7 @@ class ExtentReporterInlineTest {
         Reflections.setField("fileUtils", extentReporterInline, fileUtils);
         Reflections.setField("htmlUtils", extentReporterInline, htmlUtils);
         Reflections.setField("configuration", extentReporterInline, configuration);
+        Reflections.setField("videoEncodingPool", extentReporterInline, videoEncodingPool);
 
         pathMockedStatic = mockStatic(Path.class);
         filesMockedStatic = mockStatic(Files.class);
@@ -173,14 +178,13 @@ class ExtentReporterInlineTest {
         extentReporterInline.sessionClosed();
 
         verifyNoInteractions(htmlUtils);
+        verifyNoInteractions(videoEncodingPool);
     }
 
     @Test
     @DisplayName("sessionClosed should produce the inline report and cleanup the old ones")
-    public void sessionClosed() throws IOException {
+    public void sessionClosed() {
         final String fileName = "fileName";
-        final String readString = "readString";
-        final String inlineReport = "inlineReport";
 
         when(configuration.getExtent()).thenReturn(extent);
         when(extent.isInline()).thenReturn(true);
@@ -197,14 +201,14 @@ class ExtentReporterInlineTest {
         cleanupOldReportsStubsFor(REPORT_FOLDER);
         cleanupOldReportsStubsFor(INLINE_REPORT_FOLDER);
 
-        when(Files.readString(absolutePath)).thenReturn(readString);
-        when(htmlUtils.inline(readString)).thenReturn(inlineReport);
         when(extent.getInlineReportFolder()).thenReturn(INLINE_REPORT_FOLDER);
         when(Path.of(INLINE_REPORT_FOLDER, fileName)).thenReturn(inlinePath);
 
         extentReporterInline.sessionClosed();
 
-        verify(fileUtils).write(inlinePath, inlineReport);
+        final InOrder inOrder = inOrder(videoEncodingPool, htmlUtils);
+        inOrder.verify(videoEncodingPool).awaitCompletion();
+        inOrder.verify(htmlUtils).inline(absolutePath, inlinePath);
     }
 
     @Test
@@ -5,11 +5,14 @@ import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
 import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.model.Log;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.ExtentSparkReporterConfig;
 import io.github.giulong.spectrum.SpectrumTest;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.video.Video;
+import io.github.giulong.spectrum.utils.video.VideoEncodingPool;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -23,6 +26,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -69,6 +73,9 @@ class ExtentReporterTest {
     @Mock
     private TestData testData;
 
+    @Mock
+    private com.aventstack.extentreports.model.Test testModel;
+
     @Mock
     private Path path;
 
@@ -141,6 +148,15 @@ class ExtentReporterTest {
     @Captor
     private ArgumentCaptor<Markup> skipMarkupArgumentCaptor;
 
+    @Mock
+    private VideoEncodingPool videoEncodingPool;
+
+    @Mock
+    private Video video;
+
+    @Mock
+    private VideoEncoder videoEncoder;
+
     @InjectMocks
     private ExtentReporter extentReporter;
 
@@ -148,6 +164,7 @@ class ExtentReporterTest {
     public void beforeEach() {
         Reflections.setField("fileUtils", extentReporter, fileUtils);
         Reflections.setField("configuration", extentReporter, configuration);
+        Reflections.setField("videoEncodingPool", extentReporter, videoEncodingPool);
         testDataMockedStatic = mockStatic(TestData.class);
         freeMarkerWrapperMockedStatic = mockStatic(FreeMarkerWrapper.class);
         pathMockedStatic = mockStatic(Path.class);
@@ -254,7 +271,7 @@ class ExtentReporterTest {
     }
 
     @Test
-    @DisplayName("sessionClosed should flush the extent report and cleanup old ones")
+    @DisplayName("sessionClosed should wait for the videos to be encoded, flush the extent report and cleanup old ones")
     public void sessionClosed() {
         final int total = 123;
 
@@ -267,7 +284,9 @@ class ExtentReporterTest {
 
         extentReporter.sessionClosed();
 
-        verify(extentReports).flush();
+        final InOrder inOrder = inOrder(videoEncodingPool, extentReports);
+        inOrder.verify(videoEncodingPool).awaitCompletion();
+        inOrder.verify(extentReports).flush();
 
         // cleanupOldReports
         verify(fileUtils).deleteDirectory(directory1Path);
@@ -378,12 +397,32 @@ class ExtentReporterTest {
         when(testData.getVideoPath()).thenReturn(path);
         when(videoExtentTest.getWidth()).thenReturn(width);
         when(videoExtentTest.getHeight()).thenReturn(height);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(videoEncoder.getMimeType()).thenReturn("video/mp4");
 
         extentReporter.attachVideo(extentTest, videoExtentTest, testData);
 
         verify(extentTest).info(String.format("<video id=\"video-%s\" controls width=\"%d\" height=\"%d\" src=\"%s\" type=\"video/mp4\"/>", testId, width, height, path));
     }
 
+    @Test
+    @DisplayName("detachVideo should remove the video tag of the provided test, leaving the other logs")
+    public void detachVideo() {
+        final Log videoLog = Log.builder().details("<video id=\"video-testId\" controls/>").build();
+        final Log otherLog = Log.builder().details("other").build();
+        final Log markupLog = Log.builder().build();
+        final List<Log> logs = new ArrayList<>(List.of(videoLog, otherLog, markupLog));
+
+        when(testData.getTestId()).thenReturn("testId");
+        when(extentTest.getModel()).thenReturn(testModel);
+        when(testModel.getLogs()).thenReturn(logs);
+
+        extentReporter.detachVideo(extentTest, testData);
+
+        assertEquals(List.of(otherLog, markupLog), logs);
+    }
+
     @Test
     @DisplayName("logTestStartOf should log the start label in the provided test")
     public void logTestStartOf() {
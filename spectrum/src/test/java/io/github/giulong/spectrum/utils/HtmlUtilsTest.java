@@ -1,52 +1,70 @@
 package io.github.giulong.spectrum.utils;
 
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
-import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 @DisplayName("HtmlUtils")
 class HtmlUtilsTest {
 
-    private static MockedStatic<Path> pathMockedStatic;
-    private static MockedStatic<Files> filesMockedStatic;
+    @TempDir
+    private Path tempDir;
 
-    @Mock
-    private Path path;
+    private String src1;
+    private String src2;
 
-    @Mock
-    private Path path2;
-
-    @InjectMocks
-    private HtmlUtils htmlUtils;
+    private final HtmlUtils htmlUtils = HtmlUtils.getInstance();
 
     @BeforeEach
-    public void beforeEach() {
-        pathMockedStatic = mockStatic(Path.class);
-        filesMockedStatic = mockStatic(Files.class);
+    public void beforeEach() throws IOException {
+        src1 = Files.write(tempDir.resolve("src1.png"), new byte[]{1, 2, 3}).toString();
+        src2 = Files.write(tempDir.resolve("src2.mp4"), new byte[]{4, 5, 6}).toString();
+    }
+
+    private String inline(final String html) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        htmlUtils.inline(new StringReader(html), outputStream);
+
+        return outputStream.toString(UTF_8);
+    }
+
+    private static String imageTagOf(final String src) {
+        return "<div class=\"row mb-3\">\n  <div class=\"col-md-3\">\n    <img class=\"inline\" src=\"" + src + "\"/>\n  </div>\n</div>";
+    }
+
+    private static String inlineImageTagOf(final String id) {
+        return "<div class=\"row mb-3\"><div class=\"col-md-3\"><a data-inline-href=\"" + id + "\" data-featherlight=\"image\">" +
+                "<img class=\"inline\" data-inline-src=\"" + id + "\"/></a></div></div>";
+    }
+
+    private static String islandOf(final byte[] bytes, final String mimeType) throws NoSuchAlgorithmException {
+        return String.format("<script type=\"text/plain\" id=\"%s\" data-type=\"%s\">%s</script>", idOf(bytes), mimeType, Base64.getEncoder().encodeToString(bytes));
     }
 
-    @AfterEach
-    public void afterEach() {
-        pathMockedStatic.close();
-        filesMockedStatic.close();
+    private static String idOf(final byte[] bytes) throws NoSuchAlgorithmException {
+        return "inline-" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private static int countOf(final String text, final String substring) {
+        return text.split(Pattern.quote(substring), -1).length - 1;
     }
 
     @Test
@@ -57,48 +75,91 @@ class HtmlUtilsTest {
     }
 
     @Test
-    @DisplayName("inline should call both the inlineImagesOf and inlineVideosOf on the provided html and return the one with all of those replaced")
-    public void inline() throws IOException {
-        final String report = "abc<video src=\"src1\"/>def<div class=\"row mb-3\"><div class=\"col-md-3\"><img class=\"inline\" src=\"src2\"/></div></div>def";
-        when(Path.of("src1")).thenReturn(path);
-        when(Path.of("src2")).thenReturn(path2);
-        when(Files.readAllBytes(path)).thenReturn(new byte[]{1, 2, 3});
-        when(Files.readAllBytes(path2)).thenReturn(new byte[]{4, 5, 6});
+    @DisplayName("inline should write the provided report to the destination, creating its folder, with images and videos referencing their base64 embedded before the end of the body")
+    public void inline() throws IOException, NoSuchAlgorithmException {
+        final Path source = Files.writeString(tempDir.resolve("report.html"),
+                "<html><body>abc<video src=\"" + src2 + "\"/>def" + imageTagOf(src1) + "ghi</body></html>");
+        final Path destination = tempDir.resolve("inline").resolve("report.html");
+
+        htmlUtils.inline(source, destination);
+
+        final String actual = Files.readString(destination);
+        assertThat(actual, startsWith("<html><body>abc<video data-inline-src=\"asset-0\"/>def" + inlineImageTagOf("asset-1") + "ghi" +
+                islandOf(new byte[]{4, 5, 6}, "video/mp4") + islandOf(new byte[]{1, 2, 3}, "image/png") +
+                "<script type=\"application/json\" id=\"inline-assets\">{\"asset-0\":\"" + idOf(new byte[]{4, 5, 6}) + "\",\"asset-1\":\"" + idOf(new byte[]{1, 2, 3}) + "\"}</script><script>"));
+        assertThat(actual, endsWith("</div></body></html>"));
+    }
+
+    @Test
+    @DisplayName("inline should embed each distinct content once, even if referenced many times and by different paths, stating the bytes saved")
+    public void inlineDuplicates() throws IOException, NoSuchAlgorithmException {
+        final String copy = Files.write(tempDir.resolve("copy.png"), new byte[]{1, 2, 3}).toString();
+
+        final String actual = inline("<body>" + imageTagOf(src1) + imageTagOf(src1) + imageTagOf(copy) + "</body>");
+
+        assertThat(actual, startsWith("<body>" + inlineImageTagOf("asset-0") + inlineImageTagOf("asset-0") + inlineImageTagOf("asset-1") +
+                islandOf(new byte[]{1, 2, 3}, "image/png") + "<script type=\"application/json\""));
+        assertEquals(1, countOf(actual, "AQID"));
+        assertThat(actual, containsString(">Inline assets: 2 files with 1 distinct contents. 20 bytes saved by embedding each content once</div>"));
+    }
+
+    @Test
+    @DisplayName("inline should use the jpeg mime type for jpg images, and the mime type of each video, if provided")
+    public void inlineMimeTypes() throws IOException, NoSuchAlgorithmException {
+        final String jpg = Files.write(tempDir.resolve("src3.jpg"), new byte[]{7, 8, 9}).toString();
+
+        final String actual = inline("abc" + imageTagOf(jpg) + "def<video id=\"video-1\" controls src=\"" + src2 + "\" type=\"video/x-msvideo\"/>ghi");
 
-        final String actual = htmlUtils.inline(report);
+        assertThat(actual, startsWith("abc" + inlineImageTagOf("asset-0") + "def<video id=\"video-1\" controls data-inline-src=\"asset-1\" type=\"video/x-msvideo\"/>ghi" +
+                islandOf(new byte[]{7, 8, 9}, "image/jpeg") + islandOf(new byte[]{4, 5, 6}, "video/x-msvideo")));
+    }
+
+    @Test
+    @DisplayName("inline should leave the rest of the html as it is, including tags similar to the ones of assets and non-ascii chars")
+    public void inlineNoAssets() throws IOException {
+        final String html = "àbc<div class=\"row mb-3\"><div class=\"col-md-6\">text</div></div>\n<video controls>\n<source src=\"video.mp4\"/></video>€<div";
 
-        assertEquals("abc<video src=\"data:video/mp4;base64,AQID\"/>def<div class=\"row mb-3\"><div class=\"col-md-3\"><a href=\"data:image/png;base64,BAUG\" data-featherlight=\"image\"><img class=\"inline\" src=\"data:image/png;base64,BAUG\"/></a></div></div>def", actual);
+        assertThat(inline(html), startsWith(html + "<script type=\"application/json\" id=\"inline-assets\">{}</script>"));
     }
 
     @Test
-    @DisplayName("inlineImagesOf should return the provided html with all the images replaced with their own base64")
-    public void inlineImagesOf() throws IOException {
-        final String html = "abc<div class=\"row mb-3\"><div class=\"col-md-3\"><img class=\"inline\" src=\"src1\"/></div></div>def" +
-                "<div class=\"row mb-3\"><div class=\"col-md-3\"><img class=\"inline\" src=\"src2\"/></div></div>ghi";
+    @DisplayName("inline should keep the chars outside the basic multilingual plane that straddle the chunks the report is written in")
+    public void inlineSurrogatePairsAcrossChunks() throws IOException {
+        final int chunkSize = 64 * 1024;
 
-        when(Path.of("src1")).thenReturn(path);
-        when(Path.of("src2")).thenReturn(path2);
-        when(Files.readAllBytes(path)).thenReturn(new byte[]{1, 2, 3});
-        when(Files.readAllBytes(path2)).thenReturn(new byte[]{4, 5, 6});
+        for (int i = chunkSize - 64; i < chunkSize; i++) {
+            final String html = "x".repeat(i) + "\uD83D\uDE00" + "y".repeat(100);
 
-        final String actual = htmlUtils.inlineImagesOf(html);
+            assertThat(inline(html), startsWith(html + "<script type=\"application/json\" id=\"inline-assets\">{}</script>"));
+        }
+    }
 
-        assertThat(actual, matchesPattern(".*<div class=\"row mb-3\"><div class=\"col-md-3\"><a href=\"data:image/png;base64,AQID\" data-featherlight=\"image\"><img class=\"inline\" src=\"data:image/png;base64,AQID\"/></a></div></div>.*" +
-                "<div class=\"row mb-3\"><div class=\"col-md-3\"><a href=\"data:image/png;base64,BAUG\" data-featherlight=\"image\"><img class=\"inline\" src=\"data:image/png;base64,BAUG\"/></a></div></div>.*"));
+    @Test
+    @DisplayName("inline should skip the assets that can't be read")
+    public void inlineMissingAsset() throws IOException {
+        final String actual = inline("<video src=\"" + tempDir.resolve("missing.mp4") + "\"/><video src=\"" + src2 + "\"/>");
+
+        assertThat(actual, containsString("<script type=\"application/json\" id=\"inline-assets\">{\"asset-1\":"));
+        assertEquals(1, countOf(actual, "<script type=\"text/plain\""));
     }
 
     @Test
-    @DisplayName("inlineVideosOf should return the provided html with all the videos replaced with their own base64")
-    public void inlineVideosOf() throws IOException {
-        final String html = "abc<video src=\"src1\"/>def<video src=\"src2\"/>ghi";
+    @DisplayName("inline should find the assets spanning over the chunks the report is read in")
+    public void inlineAcrossChunks() throws IOException {
+        final StringBuilder html = new StringBuilder("<body>");
+        final StringBuilder expected = new StringBuilder("<body>");
+
+        for (int i = 0; i < 5000; i++) {
+            final String padding = "x".repeat(i % 97);
 
-        when(Path.of("src1")).thenReturn(path);
-        when(Path.of("src2")).thenReturn(path2);
-        when(Files.readAllBytes(path)).thenReturn(new byte[]{1, 2, 3});
-        when(Files.readAllBytes(path2)).thenReturn(new byte[]{4, 5, 6});
+            html.append(padding).append(imageTagOf(src1)).append("<video src=\"").append(src2).append("\"/>");
+            expected.append(padding).append(inlineImageTagOf("asset-0")).append("<video data-inline-src=\"asset-1\"/>");
+        }
 
-        final String actual = htmlUtils.inlineVideosOf(html);
+        final String actual = inline(html.append("</body>").toString());
 
-        assertThat(actual, matchesPattern(".*<video.*src=\"data:video/mp4;base64,AQID\"/>.*<video.*src=\"data:video/mp4;base64,BAUG\"/>.*"));
+        assertThat(actual, startsWith(expected.toString() + "<script type=\"text/plain\""));
+        assertEquals(2, countOf(actual, "<script type=\"text/plain\""));
+        assertThat(actual, endsWith("</div></body>"));
     }
-}
\ No newline at end of file
+}
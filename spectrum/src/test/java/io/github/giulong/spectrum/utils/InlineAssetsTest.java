@@ -0,0 +1,77 @@
+package io.github.giulong.spectrum.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InlineAssets")
+class InlineAssetsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("referenceTo should return the same id for all the references to the same path")
+    public void referenceTo() throws IOException {
+        final String src1 = Files.write(tempDir.resolve("src1.png"), new byte[]{1, 2, 3}).toString();
+        final String src2 = Files.write(tempDir.resolve("src2.png"), new byte[]{1, 2, 3}).toString();
+
+        try (InlineAssets inlineAssets = new InlineAssets()) {
+            assertEquals("asset-0", inlineAssets.referenceTo(src1, "image/png"));
+            assertEquals("asset-1", inlineAssets.referenceTo(src2, "image/png"));
+            assertEquals("asset-0", inlineAssets.referenceTo(src1, "image/png"));
+        }
+    }
+
+    @Test
+    @DisplayName("writeTo should write a data island per distinct content, followed by the loader script, and show the bytes saved")
+    public void writeTo() throws IOException {
+        final byte[] bytes = new byte[3000];
+        final String src1 = Files.write(tempDir.resolve("src1.png"), bytes).toString();
+        final String src2 = Files.write(tempDir.resolve("src2.png"), bytes).toString();
+        final String src3 = Files.write(tempDir.resolve("src3.mp4"), new byte[]{1, 2, 3}).toString();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (InlineAssets inlineAssets = new InlineAssets()) {
+            inlineAssets.referenceTo(src1, "image/png");
+            inlineAssets.referenceTo(src1, "image/png");
+            inlineAssets.referenceTo(src2, "image/png");
+            inlineAssets.referenceTo(src3, "video/mp4");
+            inlineAssets.writeTo(outputStream);
+
+            // 4000 base64 bytes for each of the two additional references to the same content
+            assertEquals(8000, inlineAssets.getSavedBytes());
+        }
+
+        final String actual = outputStream.toString(UTF_8);
+        assertEquals(2, actual.split("<script type=\"text/plain\"", -1).length - 1);
+        assertThat(actual, containsString("data-type=\"video/mp4\">AQID</script>"));
+        assertThat(actual, containsString("document.getElementById('inline-assets')"));
+        assertThat(actual, containsString("<div id=\"inline-assets-summary\""));
+        assertThat(actual, containsString(">Inline assets: 3 files with 2 distinct contents. 8000 bytes saved by embedding each content once</div>"));
+    }
+
+    @Test
+    @DisplayName("close should delete the temporary files of the encoded assets")
+    public void close() throws IOException {
+        final String src = Files.write(tempDir.resolve("src.png"), new byte[]{1, 2, 3}).toString();
+        final InlineAssets inlineAssets = new InlineAssets();
+        final Path folder = (Path) Reflections.getFieldValue("folder", inlineAssets);
+
+        inlineAssets.referenceTo(src, "image/png");
+        inlineAssets.writeTo(new ByteArrayOutputStream());
+        inlineAssets.close();
+
+        assertFalse(Files.exists(folder));
+    }
+}
@@ -69,6 +69,16 @@ class JsonUtilsTest {
         assertEquals(expected, jsonUtils.readOrEmpty(file, String.class));
     }
 
+    @Test
+    @DisplayName("read should deserialize the provided json string onto an instance of the provided class")
+    public void readString() throws IOException {
+        final String json = "json";
+        final String expected = "expected";
+        when(jsonMapper.readValue(json, String.class)).thenReturn(expected);
+
+        assertEquals(expected, jsonUtils.read(json, String.class));
+    }
+
     @Test
     @DisplayName("write should write the provided object")
     public void write() throws JsonProcessingException {
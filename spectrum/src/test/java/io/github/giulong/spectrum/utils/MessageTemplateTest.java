@@ -0,0 +1,88 @@
+package io.github.giulong.spectrum.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.MissingFormatArgumentException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DisplayName("MessageTemplate")
+class MessageTemplateTest {
+
+    @Test
+    @DisplayName("compile should return null if the provided message is null")
+    public void compileNull() {
+        assertNull(MessageTemplate.compile(null));
+    }
+
+    @DisplayName("render should produce the same messages as String.format, stripping html tags from the log one and wrapping args in code tags in the html one")
+    @ParameterizedTest(name = "with message {0}")
+    @MethodSource("valuesProvider")
+    public void render(final String message, final Object[] args) {
+        final Object[] codeArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            codeArgs[i] = "<code>" + args[i] + "</code>";
+        }
+
+        final MessageTemplate.Messages messages = MessageTemplate.compile(message).render(args);
+
+        assertEquals(String.format(message, args).replaceAll("<.*?>", ""), messages.getLog());
+        assertEquals(String.format(message, codeArgs), messages.getHtml());
+    }
+
+    public static Stream<Arguments> valuesProvider() {
+        return Stream.of(
+                arguments("About to call method %2$s with args %3$s on target %1$s", new Object[]{"target", "method", "[]"}),
+                arguments("About to get <a href=\"%2$s\" target=\"_blank\">%2$s</a>", new Object[]{"driver", "https://url"}),
+                arguments("Page source is:<br/><pre>%2$s</pre>", new Object[]{"driver", "&lt;html&gt;"}),
+                arguments("Text is <b>%s</b>", new Object[]{"<span class=\"text\">text</span>"}),
+                arguments("Comparing %s < %s", new Object[]{"a", "b>c"}),
+                arguments("%s and %s, then %1$s", new Object[]{"a", "b"}),
+                arguments("100%% done%n", new Object[]{}),
+                arguments("no args", new Object[]{"unused"}),
+                arguments("padded %-5s|", new Object[]{"a"}),
+                arguments("upper %s %S", new Object[]{"a", "b"})
+        );
+    }
+
+    @Test
+    @DisplayName("render should throw a MissingFormatArgumentException if args are less than the ones referenced in the message, as String.format does")
+    public void renderMissingArgs() {
+        final MessageTemplate messageTemplate = MessageTemplate.compile("%s and %3$s");
+        final Object[] args = new Object[]{"a", "b"};
+
+        assertThrows(MissingFormatArgumentException.class, () -> messageTemplate.render(args));
+    }
+
+    @Test
+    @DisplayName("stripTags should remove the html tags from the provided text, returning it as it is if there are none")
+    public void stripTags() {
+        final String text = "no tags";
+
+        assertSame(text, MessageTemplate.stripTags(text));
+        assertEquals("a text", MessageTemplate.stripTags("a <b>text</b>"));
+    }
+
+    @Test
+    @DisplayName("parse should return null for messages with specifiers that can't be precompiled")
+    public void parseNotSupported() {
+        assertNull(MessageTemplate.parse("%d"));
+        assertNull(MessageTemplate.parse("%0$s"));
+        assertNull(MessageTemplate.parse("trailing %"));
+        assertNotNull(MessageTemplate.parse("%s %2$s %% %n"));
+    }
+
+    @Test
+    @DisplayName("arityOf should return the number of args referenced by the provided parts")
+    public void arityOf() {
+        assertEquals(0, MessageTemplate.arityOf(MessageTemplate.parse("no args")));
+        assertEquals(3, MessageTemplate.arityOf(MessageTemplate.parse("%s %3$s")));
+        assertEquals(2, MessageTemplate.arityOf(MessageTemplate.parse("%s %s %1$s")));
+    }
+}
@@ -35,6 +35,15 @@ class ReflectionsTest {
         assertEquals(value, Reflections.getFieldValue(fieldName, dummy));
     }
 
+    @Test
+    @DisplayName("getFieldValue should return the value of the provided field on the provided object")
+    public void getFieldValueField() throws NoSuchFieldException {
+        final String value = "value";
+        final Dummy dummy = new Dummy(value);
+
+        assertEquals(value, Reflections.getFieldValue(Dummy.class.getDeclaredField("fieldString"), dummy));
+    }
+
     @Test
     @DisplayName("setField should set the field with the provided name on the provided object with the provided value")
     public void setFieldString() throws NoSuchFieldException, IllegalAccessException {
@@ -0,0 +1,182 @@
+package io.github.giulong.spectrum.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.giulong.spectrum.utils.Screenshot.JPEG;
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.openqa.selenium.OutputType.BASE64;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Screenshot")
+class ScreenshotTest {
+
+    @Mock(extraInterfaces = TakesScreenshot.class)
+    private WebDriver webDriver;
+
+    @Mock
+    private ChromiumDriver chromiumDriver;
+
+    @Mock(extraInterfaces = HasDevTools.class)
+    private RemoteWebDriver augmentedDriver;
+
+    @Mock
+    private DevTools devTools;
+
+    private final Screenshot screenshot = new Screenshot();
+
+    private static String pngOf(final int width, final int height) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, TYPE_INT_ARGB), "png", outputStream);
+
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    private static BufferedImage imageOf(final String base64) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+    }
+
+    @Test
+    @DisplayName("by default, screenshots should be taken and kept as they are")
+    public void original() throws IOException {
+        final String png = pngOf(40, 20);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn(png);
+
+        assertTrue(screenshot.isOriginal());
+        assertEquals(png, screenshot.take(webDriver));
+        assertEquals(png, screenshot.shrink(png));
+    }
+
+    @Test
+    @DisplayName("shrink should downscale wider screenshots to the configured width, keeping their aspect ratio")
+    public void shrink() throws IOException {
+        Reflections.setField("width", screenshot, 20);
+
+        final BufferedImage image = imageOf(screenshot.shrink(pngOf(40, 30)));
+
+        assertEquals(20, image.getWidth());
+        assertEquals(15, image.getHeight());
+    }
+
+    @Test
+    @DisplayName("shrink should keep png screenshots that are already narrower than the configured width")
+    public void shrinkNarrower() throws IOException {
+        Reflections.setField("width", screenshot, 100);
+        final String png = pngOf(40, 30);
+
+        assertEquals(png, screenshot.shrink(png));
+    }
+
+    @Test
+    @DisplayName("shrink should compress screenshots as jpeg, when configured")
+    public void shrinkJpeg() throws IOException {
+        Reflections.setField("format", screenshot, JPEG);
+
+        final String jpeg = screenshot.shrink(pngOf(40, 30));
+        final BufferedImage image = imageOf(jpeg);
+
+        assertFalse(screenshot.isOriginal());
+        assertEquals("jpg", ScreenshotWriter.extensionOf(jpeg));
+        assertEquals(40, image.getWidth());
+        assertEquals(30, image.getHeight());
+    }
+
+    @Test
+    @DisplayName("shrink should keep screenshots that can't be read")
+    public void shrinkUnreadable() {
+        Reflections.setField("format", screenshot, JPEG);
+
+        assertEquals("AQID", screenshot.shrink("AQID"));
+    }
+
+    @Test
+    @DisplayName("take should ask Chromium browsers for the screenshot of the viewport, already scaled and compressed")
+    @SuppressWarnings("unchecked")
+    public void takeChromium() {
+        final ArgumentCaptor<Command<Map<String, Object>>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+        Reflections.setField("width", screenshot, 400);
+        Reflections.setField("format", screenshot, JPEG);
+
+        when(chromiumDriver.maybeGetDevTools()).thenReturn(Optional.of(devTools));
+        when(devTools.send(any())).thenReturn(
+                Map.of("cssVisualViewport", Map.of("pageX", 0, "pageY", 100, "clientWidth", 800, "clientHeight", 600)),
+                Map.of("data", "captured"));
+
+        assertEquals("captured", screenshot.take(chromiumDriver));
+
+        verify(devTools).createSessionIfThereIsNotOne();
+        verify(devTools, times(2)).send(commandArgumentCaptor.capture());
+        final List<Command<Map<String, Object>>> commands = commandArgumentCaptor.getAllValues();
+        assertEquals("Page.getLayoutMetrics", commands.getFirst().getMethod());
+        assertEquals("Page.captureScreenshot", commands.getLast().getMethod());
+        assertEquals(Map.of(
+                "format", JPEG,
+                "quality", 80,
+                "clip", Map.of("x", 0, "y", 100, "width", 800D, "height", 600, "scale", 0.5)), commands.getLast().getParams());
+        verify(chromiumDriver, never()).getScreenshotAs(BASE64);
+    }
+
+    @Test
+    @DisplayName("take should capture the screenshot via devtools on remote Chromium drivers augmented with devtools, as built by the environments")
+    @SuppressWarnings("unchecked")
+    public void takeAugmented() {
+        final ArgumentCaptor<Command<Map<String, Object>>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+        Reflections.setField("format", screenshot, JPEG);
+
+        when(augmentedDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("browserName", "chrome"));
+        when(((HasDevTools) augmentedDriver).maybeGetDevTools()).thenReturn(Optional.of(devTools));
+        when(devTools.send(any())).thenReturn(Map.of("data", "captured"));
+
+        assertEquals("captured", screenshot.take(augmentedDriver));
+
+        verify(devTools).send(commandArgumentCaptor.capture());
+        assertEquals("Page.captureScreenshot", commandArgumentCaptor.getValue().getMethod());
+        verify(augmentedDriver, never()).getScreenshotAs(BASE64);
+    }
+
+    @Test
+    @DisplayName("take should fall back to shrinking the driver's screenshot if devtools fail")
+    public void takeChromiumFailure() throws IOException {
+        Reflections.setField("width", screenshot, 20);
+
+        when(chromiumDriver.maybeGetDevTools()).thenReturn(Optional.of(devTools));
+        when(devTools.send(any())).thenThrow(new WebDriverException("closed"));
+        when(chromiumDriver.getScreenshotAs(BASE64)).thenReturn(pngOf(40, 30));
+
+        assertEquals(20, imageOf(screenshot.take(chromiumDriver)).getWidth());
+    }
+
+    @Test
+    @DisplayName("take should shrink the screenshots of drivers other than Chromium ones as soon as they arrive")
+    public void takeOtherDrivers() throws IOException {
+        Reflections.setField("width", screenshot, 20);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn(pngOf(40, 30));
+
+        assertEquals(20, imageOf(screenshot.take(webDriver)).getWidth());
+    }
+}
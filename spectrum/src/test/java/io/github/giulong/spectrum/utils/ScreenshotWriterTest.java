@@ -0,0 +1,147 @@
+package io.github.giulong.spectrum.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
+import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
+import static io.github.giulong.spectrum.enums.Frame.MANUAL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreenshotWriter")
+class ScreenshotWriterTest {
+
+    private static final String SCREENSHOT = "AQID";
+
+    private Path folder;
+
+    @InjectMocks
+    private ScreenshotWriter screenshotWriter;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Files.createTempDirectory("screenshots");
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            //noinspection ResultOfMethodCallIgnored
+            files
+                    .sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    @Test
+    @DisplayName("getInstance should return the singleton")
+    public void getInstance() {
+        //noinspection EqualsWithItself
+        assertSame(ScreenshotWriter.getInstance(), ScreenshotWriter.getInstance());
+    }
+
+    @Test
+    @DisplayName("sequenceOf should return the sequence number encoded in the provided screenshot name")
+    public void sequenceOf() {
+        assertEquals(123, ScreenshotWriter.sequenceOf(Path.of("folder", "autoBefore-123-uuid.png")));
+    }
+
+    @Test
+    @DisplayName("sequenceOf should sort last the files that aren't screenshots")
+    public void sequenceOfNotScreenshot() {
+        assertEquals(Long.MAX_VALUE, ScreenshotWriter.sequenceOf(Path.of("folder", ".DS_Store")));
+        assertEquals(Long.MAX_VALUE, ScreenshotWriter.sequenceOf(Path.of("folder", "autoBefore-abc-uuid.png")));
+    }
+
+    @Test
+    @DisplayName("isScreenshot should tell if the provided file is named as a screenshot")
+    public void isScreenshot() {
+        assertTrue(ScreenshotWriter.isScreenshot(Path.of("folder", "autoBefore-123-0f8fad5b-d9cb-469f-a165-70867728950e.png")));
+        assertTrue(ScreenshotWriter.isScreenshot(Path.of("folder", "screenRecording-1-uuid.jpg")));
+        assertFalse(ScreenshotWriter.isScreenshot(Path.of("folder", ".DS_Store")));
+        assertFalse(ScreenshotWriter.isScreenshot(Path.of("folder", "Thumbs.db")));
+        assertFalse(ScreenshotWriter.isScreenshot(Path.of("folder", "autoBefore-123-uuid.txt")));
+    }
+
+    @Test
+    @DisplayName("write should return the path of the screenshot, which is persisted asynchronously and available after flushing")
+    public void write() throws IOException {
+        final Path first = screenshotWriter.write(folder, AUTO_AFTER, SCREENSHOT);
+        final Path second = screenshotWriter.write(folder, MANUAL, SCREENSHOT);
+
+        assertEquals(folder, first.getParent());
+        assertThat(first.getFileName().toString(), matchesPattern(AUTO_AFTER.getValue() + "-\\d+-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png"));
+        assertThat(second.getFileName().toString(), matchesPattern(MANUAL.getValue() + "-\\d+-([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})\\.png"));
+        assertTrue(ScreenshotWriter.sequenceOf(first) < ScreenshotWriter.sequenceOf(second));
+
+        screenshotWriter.flush(folder);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(first));
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(second));
+        assertFalse(((Map<?, ?>) Reflections.getFieldValue("pendingWrites", screenshotWriter)).containsKey(folder));
+    }
+
+    @Test
+    @DisplayName("write should use the provided sequence, reserved when the screenshot was taken")
+    public void writeWithSequence() {
+        final long sequence = screenshotWriter.nextSequence();
+        final Path later = screenshotWriter.write(folder, AUTO_AFTER, SCREENSHOT);
+        final Path screenshotPath = screenshotWriter.write(folder, AUTO_BEFORE, sequence, SCREENSHOT);
+
+        assertEquals(sequence, ScreenshotWriter.sequenceOf(screenshotPath));
+        assertTrue(ScreenshotWriter.sequenceOf(screenshotPath) < ScreenshotWriter.sequenceOf(later));
+        assertThat(screenshotPath.getFileName().toString(), matchesPattern(AUTO_BEFORE.getValue() + "-" + sequence + "-.+\\.png"));
+
+        screenshotWriter.flush(folder);
+    }
+
+    @Test
+    @DisplayName("extensionOf should return jpg for jpeg screenshots and png otherwise")
+    public void extensionOf() {
+        assertEquals("jpg", ScreenshotWriter.extensionOf("/9j/4AAQSkZJRg"));
+        assertEquals("png", ScreenshotWriter.extensionOf("iVBORw0KGgo"));
+    }
+
+    @Test
+    @DisplayName("flush should do nothing if there are no pending writes for the provided folder")
+    public void flushNoPendingWrites() {
+        assertDoesNotThrow(() -> screenshotWriter.flush(folder));
+    }
+
+    @Test
+    @DisplayName("persist should not throw if the screenshot cannot be written")
+    public void persistException() {
+        final Path screenshotPath = folder.resolve("not-existing").resolve("screenshot.png");
+
+        assertDoesNotThrow(() -> screenshotWriter.persist(screenshotPath, SCREENSHOT));
+        assertFalse(Files.exists(screenshotPath));
+    }
+
+    @Test
+    @DisplayName("sessionClosed should flush all the pending writes")
+    public void sessionClosed() {
+        final Path screenshotPath = screenshotWriter.write(folder, MANUAL, SCREENSHOT);
+
+        screenshotWriter.sessionClosed();
+
+        assertTrue(Files.exists(screenshotPath));
+        assertTrue(((Map<?, ?>) Reflections.getFieldValue("pendingWrites", screenshotWriter)).isEmpty());
+    }
+}
@@ -21,6 +21,7 @@ import java.net.URL;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.slf4j.event.Level.INFO;
 
@@ -183,10 +184,10 @@ class AppiumEnvironmentTest {
     }
 
     @Test
-    @DisplayName("shutdown should just close the driverService")
-    public void shutdown() {
-        appiumEnvironment.shutdown();
+    @DisplayName("detachDriverService should return an empty optional, since the Appium driver service lasts for the whole session")
+    public void detachDriverService() {
+        assertTrue(appiumEnvironment.detachDriverService().isEmpty());
 
-        verify(driverService).close();
+        verifyNoInteractions(driverService);
     }
 }
\ No newline at end of file
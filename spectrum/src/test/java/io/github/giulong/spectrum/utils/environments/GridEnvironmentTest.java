@@ -23,6 +23,7 @@ import java.net.URL;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -117,8 +118,8 @@ class GridEnvironmentTest {
     }
 
     @Test
-    @DisplayName("shutdown should do nothing for a remoteWebDriver")
-    public void shutdown() {
-        gridEnvironment.shutdown();
+    @DisplayName("detachDriverService should return an empty optional, since there's no driver service in a grid environment")
+    public void detachDriverService() {
+        assertTrue(gridEnvironment.detachDriverService().isEmpty());
     }
 }
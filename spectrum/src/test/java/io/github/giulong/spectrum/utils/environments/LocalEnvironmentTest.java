@@ -1,6 +1,7 @@
 package io.github.giulong.spectrum.utils.environments;
 
 import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.ServiceScope;
 import io.github.giulong.spectrum.internals.DriverLog;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.utils.Configuration.Drivers.Logs;
@@ -10,6 +11,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.openqa.selenium.WebDriver;
@@ -19,8 +23,15 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.RemoteWebDriverBuilder;
 import org.openqa.selenium.remote.service.DriverService;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.ServiceScope.*;
 import static io.github.giulong.spectrum.utils.environments.LocalEnvironment.DRIVER_SERVICE_THREAD_LOCAL;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 import static org.slf4j.event.Level.DEBUG;
 
@@ -40,6 +51,18 @@ class LocalEnvironmentTest {
     @Mock
     private Logs logs;
 
+    @Mock
+    private Configuration.Environments environments;
+
+    @Mock
+    private Configuration.Environments.Local local;
+
+    @Mock
+    private ChromeDriverService runningDriverService;
+
+    @Mock
+    private URL url;
+
     @Mock
     private DriverLog.DriverLogBuilder driverLogBuilder;
 
@@ -88,6 +111,9 @@ class LocalEnvironmentTest {
     @Test
     @DisplayName("setupFrom should set the driver service and return an instance of WebDriver")
     public void setupFromDownload() {
+        when(configuration.getEnvironments()).thenReturn(environments);
+        when(environments.getLocal()).thenReturn(local);
+        when(local.getServiceScope()).thenReturn(DRIVER);
         when(configuration.getDrivers()).thenReturn(drivers);
         when(drivers.getLogs()).thenReturn(logs);
         when(logs.getLevel()).thenReturn(DEBUG);
@@ -109,12 +135,157 @@ class LocalEnvironmentTest {
     }
 
     @Test
-    @DisplayName("shutdown should do close the driver service")
-    public void shutdown() {
+    @DisplayName("detachDriverService should hand over the driver service of the current thread without closing it")
+    public void detachDriverService() {
         DRIVER_SERVICE_THREAD_LOCAL.set(chromeDriverService);
 
-        localEnvironment.shutdown();
+        assertEquals(chromeDriverService, localEnvironment.detachDriverService().orElseThrow());
+
+        verify(chromeDriverService, never()).close();
+        assertNull(DRIVER_SERVICE_THREAD_LOCAL.get());
+    }
+
+    @Test
+    @DisplayName("detachDriverService should return an empty optional if there's no driver service for the current thread")
+    public void detachDriverServiceNoDriverService() {
+        assertTrue(localEnvironment.detachDriverService().isEmpty());
+    }
+
+    @Test
+    @DisplayName("setupFor should start a shared driver service and create the webDriver pointing to it")
+    public void setupForShared() throws IOException {
+        when(configuration.getEnvironments()).thenReturn(environments);
+        when(environments.getLocal()).thenReturn(local);
+        when(local.getServiceScope()).thenReturn(SUITE);
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getLogs()).thenReturn(logs);
+        when(logs.getLevel()).thenReturn(DEBUG);
+        when(DriverLog.builder()).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.level(DEBUG)).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.build()).thenReturn(driverLog);
+        doReturn(chromeDriverServiceBuilder).when(driver).getDriverServiceBuilder();
+        when(chromeDriverServiceBuilder.withLogOutput(driverLog)).thenReturn(chromeDriverServiceBuilder);
+        when(chromeDriverServiceBuilder.build()).thenReturn(chromeDriverService);
+        when(chromeDriverService.getUrl()).thenReturn(url);
+        when(driver.getCapabilities()).thenReturn(chromeOptions);
+        when(RemoteWebDriver.builder()).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.address(url)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.oneOf(chromeOptions)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.build()).thenReturn(webDriver);
+
+        assertEquals(webDriver, localEnvironment.setupFor(driver));
+
+        verify(chromeDriverService).start();
+        assertEquals(chromeDriverService, localEnvironment.driverServices.get("suite").resultNow());
+        assertNull(DRIVER_SERVICE_THREAD_LOCAL.get());
+    }
+
+    @Test
+    @DisplayName("setupFor should reuse the shared driver service if it's still running")
+    public void setupForSharedRunning() throws IOException {
+        localEnvironment.driverServices.put("suite", startedTaskOf(runningDriverService));
+
+        when(configuration.getEnvironments()).thenReturn(environments);
+        when(environments.getLocal()).thenReturn(local);
+        when(local.getServiceScope()).thenReturn(SUITE);
+        when(runningDriverService.isRunning()).thenReturn(true);
+        when(runningDriverService.getUrl()).thenReturn(url);
+        when(driver.getCapabilities()).thenReturn(chromeOptions);
+        when(RemoteWebDriver.builder()).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.address(url)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.oneOf(chromeOptions)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.build()).thenReturn(webDriver);
+
+        assertEquals(webDriver, localEnvironment.setupFor(driver));
+
+        verify(runningDriverService, never()).start();
+        verify(driver, never()).getDriverServiceBuilder();
+    }
+
+    @Test
+    @DisplayName("setupFor should start a new shared driver service if the previous one is not running anymore")
+    public void setupForSharedNotRunning() throws IOException {
+        localEnvironment.driverServices.put("suite", startedTaskOf(runningDriverService));
+
+        when(configuration.getEnvironments()).thenReturn(environments);
+        when(environments.getLocal()).thenReturn(local);
+        when(local.getServiceScope()).thenReturn(SUITE);
+        when(runningDriverService.isRunning()).thenReturn(false);
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getLogs()).thenReturn(logs);
+        when(logs.getLevel()).thenReturn(DEBUG);
+        when(DriverLog.builder()).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.level(DEBUG)).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.build()).thenReturn(driverLog);
+        doReturn(chromeDriverServiceBuilder).when(driver).getDriverServiceBuilder();
+        when(chromeDriverServiceBuilder.withLogOutput(driverLog)).thenReturn(chromeDriverServiceBuilder);
+        when(chromeDriverServiceBuilder.build()).thenReturn(chromeDriverService);
+        when(chromeDriverService.getUrl()).thenReturn(url);
+        when(driver.getCapabilities()).thenReturn(chromeOptions);
+        when(RemoteWebDriver.builder()).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.address(url)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.oneOf(chromeOptions)).thenReturn(webDriverBuilder);
+        when(webDriverBuilder.build()).thenReturn(webDriver);
+
+        assertEquals(webDriver, localEnvironment.setupFor(driver));
+
+        verify(chromeDriverService).start();
+        assertEquals(chromeDriverService, localEnvironment.driverServices.get("suite").resultNow());
+    }
+
+    @Test
+    @DisplayName("setupFor should not keep the shared driver service that failed to start, so that the next drivers try again")
+    public void setupForSharedStartFailure() throws IOException {
+        final IOException exception = new IOException("failure");
+
+        when(configuration.getEnvironments()).thenReturn(environments);
+        when(environments.getLocal()).thenReturn(local);
+        when(local.getServiceScope()).thenReturn(SUITE);
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getLogs()).thenReturn(logs);
+        when(logs.getLevel()).thenReturn(DEBUG);
+        when(DriverLog.builder()).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.level(DEBUG)).thenReturn(driverLogBuilder);
+        when(driverLogBuilder.build()).thenReturn(driverLog);
+        doReturn(chromeDriverServiceBuilder).when(driver).getDriverServiceBuilder();
+        when(chromeDriverServiceBuilder.withLogOutput(driverLog)).thenReturn(chromeDriverServiceBuilder);
+        when(chromeDriverServiceBuilder.build()).thenReturn(chromeDriverService);
+        doThrow(exception).when(chromeDriverService).start();
+
+        assertEquals(exception, assertThrows(IOException.class, () -> localEnvironment.setupFor(driver)));
+
+        assertTrue(localEnvironment.driverServices.isEmpty());
+    }
+
+    @Test
+    @DisplayName("sessionClosed should stop all the shared driver services")
+    public void sessionClosed() {
+        localEnvironment.driverServices.put("suite", startedTaskOf(runningDriverService));
+
+        localEnvironment.sessionClosed();
+
+        verify(runningDriverService).stop();
+        assertTrue(localEnvironment.driverServices.isEmpty());
+    }
+
+    @DisplayName("keyFor should return the key of the driver service according to the scope")
+    @ParameterizedTest(name = "with scope {0} we expect {1}")
+    @MethodSource("valuesProvider")
+    public void keyFor(final ServiceScope serviceScope, final String expected) {
+        assertEquals(expected, localEnvironment.keyFor(serviceScope));
+    }
+
+    public static Stream<Arguments> valuesProvider() {
+        return Stream.of(
+                arguments(THREAD, String.valueOf(Thread.currentThread().threadId())),
+                arguments(SUITE, "suite")
+        );
+    }
+
+    private FutureTask<DriverService> startedTaskOf(final DriverService driverService) {
+        final FutureTask<DriverService> task = new FutureTask<>(() -> driverService);
 
-        verify(chromeDriverService).close();
+        task.run();
+        return task;
     }
 }
@@ -1,19 +1,37 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.enums.Result;
+import io.github.giulong.spectrum.utils.DriverPool;
+import io.github.giulong.spectrum.utils.Reflections;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.pojos.events.Event;
 import io.github.giulong.spectrum.utils.environments.LocalEnvironment;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.Result.*;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
+import static io.github.giulong.spectrum.utils.events.EventsDispatcher.CLASS;
+import static io.github.giulong.spectrum.utils.events.EventsDispatcher.TEST;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,20 +65,63 @@ class DriverConsumerTest {
     @InjectMocks
     private DriverConsumer driverConsumer;
 
-    @Test
-    @DisplayName("accept should shutdown the driver")
-    public void accept() {
+    @BeforeEach
+    public void beforeEach() {
+        Reflections.setField("driverPool", driverConsumer, driverPool);
+    }
+
+    @Mock
+    private DriverPool driverPool;
+
+    @DisplayName("accept should release the driver, evicting it if the test failed or was aborted")
+    @ParameterizedTest(name = "with result {0} we expect evict {1}")
+    @MethodSource("valuesProvider")
+    public void accept(final Result result, final boolean evict) {
+        when(event.getTags()).thenReturn(Set.of(TEST));
+        when(event.getResult()).thenReturn(result);
         when(event.getContext()).thenReturn(context);
         when(context.getRoot()).thenReturn(rootContext);
         when(rootContext.getStore(GLOBAL)).thenReturn(rootStore);
         when(rootStore.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
         when(configuration.getRuntime()).thenReturn(runtime);
         doReturn(driver).when(runtime).getDriver();
-        doReturn(environment).when(runtime).getEnvironment();
 
         driverConsumer.accept(event);
 
-        verify(driver).shutdown();
-        verify(environment).shutdown();
+        verify(driver).shutdown(evict);
+        verifyNoInteractions(driverPool, environment);
+    }
+
+    public static Stream<Arguments> valuesProvider() {
+        return Stream.of(
+                arguments(SUCCESSFUL, false),
+                arguments(DISABLED, false),
+                arguments(FAILED, true),
+                arguments(ABORTED, true)
+        );
+    }
+
+    @Test
+    @DisplayName("accept should quit the idle drivers of the class when the class is done")
+    public void acceptClass() {
+        when(event.getTags()).thenReturn(Set.of(CLASS));
+        when(event.getContext()).thenReturn(context);
+        doReturn(DriverConsumerTest.class).when(context).getRequiredTestClass();
+
+        driverConsumer.accept(event);
+
+        verify(driverPool).closeClass(DriverConsumerTest.class.getName());
+        verifyNoInteractions(driver);
+        verifyNoInteractions(environment);
+    }
+
+    @Test
+    @DisplayName("deserialization should ignore the async and batch nodes, since events must be consumed on the thread that fired them")
+    public void synchronous() throws IOException {
+        final EventsConsumer consumer = new YAMLMapper().readValue("driver:\n  async:\n    threads: 2\n  batch:\n    size: 3\n", EventsConsumer.class);
+
+        assertInstanceOf(DriverConsumer.class, consumer);
+        assertNull(consumer.getAsync());
+        assertNull(consumer.getBatch());
     }
 }
@@ -0,0 +1,160 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.pojos.events.Event;
+import io.github.giulong.spectrum.utils.Reflections;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventsBatcher")
+class EventsBatcherTest {
+
+    private static EventsConsumer.Batch batchOf(final int size, final long interval, final long drainTimeout) {
+        final EventsConsumer.Batch batch = new EventsConsumer.Batch();
+        Reflections.setField("size", batch, size);
+        Reflections.setField("interval", batch, interval);
+        Reflections.setField("drainTimeout", batch, drainTimeout);
+
+        return batch;
+    }
+
+    private static Event eventOf(final String reason) {
+        return Event.builder().reason(reason).build();
+    }
+
+    @Test
+    @DisplayName("add should consume a digest every time the configured number of events is buffered, and the remaining ones on shutdown")
+    public void addSize() {
+        final RecordingConsumer consumer = new RecordingConsumer(batchOf(2, 0, 10), null);
+        final EventsBatcher eventsBatcher = new EventsBatcher(consumer).start();
+        final Event event1 = eventOf("1");
+        final Event event2 = eventOf("2");
+        final Event event3 = eventOf("3");
+
+        eventsBatcher.add(event1);
+        eventsBatcher.add(event2);
+        eventsBatcher.add(event3);
+        eventsBatcher.shutdown();
+        eventsBatcher.awaitTermination(System.nanoTime());
+
+        assertEquals(List.of(List.of(event1, event2), List.of(event3)), consumer.digests);
+        assertNotEquals(Thread.currentThread(), consumer.threads.getFirst());
+        assertEquals(0, eventsBatcher.getPending());
+    }
+
+    @Test
+    @DisplayName("add should buffer all the events until shutdown, if neither size nor interval are configured")
+    public void addUnbounded() {
+        final RecordingConsumer consumer = new RecordingConsumer(batchOf(0, 0, 10), null);
+        final EventsBatcher eventsBatcher = new EventsBatcher(consumer).start();
+        final Event event1 = eventOf("1");
+        final Event event2 = eventOf("2");
+
+        eventsBatcher.add(event1);
+        eventsBatcher.add(event2);
+        assertTrue(consumer.digests.isEmpty());
+
+        eventsBatcher.shutdown();
+        eventsBatcher.awaitTermination(System.nanoTime());
+
+        assertEquals(List.of(List.of(event1, event2)), consumer.digests);
+    }
+
+    @Test
+    @DisplayName("start should schedule the consumption of the events buffered as a digest every time the configured interval elapses")
+    public void interval() throws InterruptedException {
+        final CountDownLatch consumed = new CountDownLatch(1);
+        final RecordingConsumer consumer = new RecordingConsumer(batchOf(0, 1, 10), consumed::countDown);
+        final EventsBatcher eventsBatcher = new EventsBatcher(consumer).start();
+        final Event event = eventOf("1");
+
+        eventsBatcher.add(event);
+
+        assertTrue(consumed.await(5, SECONDS));
+        assertEquals(List.of(List.of(event)), consumer.digests);
+
+        eventsBatcher.shutdown();
+        eventsBatcher.awaitTermination(System.nanoTime());
+
+        assertEquals(1, consumer.digests.size());
+    }
+
+    @Test
+    @DisplayName("consume should log digests that fail without breaking the batcher")
+    public void consumeFailure() {
+        final RecordingConsumer consumer = new RecordingConsumer(batchOf(1, 0, 10), () -> {
+            throw new IllegalStateException("THE STACKTRACE BELOW IS EXPECTED!!!");
+        });
+        final EventsBatcher eventsBatcher = new EventsBatcher(consumer).start();
+
+        eventsBatcher.add(eventOf("1"));
+        eventsBatcher.add(eventOf("2"));
+        eventsBatcher.shutdown();
+        eventsBatcher.awaitTermination(System.nanoTime());
+
+        assertEquals(2, consumer.digests.size());
+        assertEquals(0, eventsBatcher.getPending());
+    }
+
+    @Test
+    @DisplayName("awaitTermination should stop waiting for the digests once the drain timeout elapses")
+    public void awaitTerminationTimeout() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final RecordingConsumer consumer = new RecordingConsumer(batchOf(1, 0, 0), () -> {
+            blocked.countDown();
+            Thread.sleep(10_000);
+        });
+        final EventsBatcher eventsBatcher = new EventsBatcher(consumer).start();
+
+        eventsBatcher.add(eventOf("running"));
+        assertTrue(blocked.await(5, SECONDS));
+        eventsBatcher.add(eventOf("pending"));
+        eventsBatcher.shutdown();
+        eventsBatcher.awaitTermination(System.nanoTime());
+
+        assertEquals(1, consumer.digests.size());
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static class RecordingConsumer extends EventsConsumer {
+
+        private final List<List<Event>> digests = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final Action action;
+
+        RecordingConsumer(final Batch batch, final Action action) {
+            this.batch = batch;
+            this.action = action;
+        }
+
+        @Override
+        public void accept(final Event event) {
+            fail("events should be consumed as digests");
+        }
+
+        @Override
+        public void acceptDigest(final List<Event> events) {
+            digests.add(events);
+            threads.add(Thread.currentThread());
+
+            if (action != null) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+}
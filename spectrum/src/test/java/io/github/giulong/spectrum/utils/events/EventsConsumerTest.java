@@ -2,24 +2,20 @@ package io.github.giulong.spectrum.utils.events;
 
 import io.github.giulong.spectrum.enums.Result;
 import io.github.giulong.spectrum.pojos.events.Event;
+import io.github.giulong.spectrum.utils.Reflections;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
 
-import static io.github.giulong.spectrum.enums.Result.FAILED;
 import static io.github.giulong.spectrum.enums.Result.SUCCESSFUL;
 import static io.github.giulong.spectrum.utils.events.EventsDispatcher.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,159 +25,125 @@ class EventsConsumerTest {
     @InjectMocks
     private DummyEventsConsumer eventsConsumer;
 
-    @DisplayName("tagsIntersect")
-    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
-    @MethodSource("tagsIntersectProvider")
-    public void tagsIntersect(final Set<String> value1, final Set<String> value2, final boolean expected) {
-        final Event e1 = Event.builder().tags(value1).build();
-        final Event e2 = Event.builder().tags(value2).build();
-
-        assertEquals(expected, eventsConsumer.tagsIntersect(e1, e2));
-    }
+    @Test
+    @DisplayName("match should filter all the consumers listening to the provided event and let them consume it")
+    public void match() {
+        final Event firedEvent = mock(Event.class);
+        final Event matchingEvent = mock(Event.class);
+        final Event neverMatchingEvent = mock(Event.class);
+        final Result result = SUCCESSFUL;
+        final String className = "className";
 
-    public static Stream<Arguments> tagsIntersectProvider() {
-        return Stream.of(
-                arguments(null, null, false),
-                arguments(Set.of(TEST), null, false),
-                arguments(null, Set.of(TEST), false),
-                arguments(Set.of(SUITE, TEST), Set.of(TEST), true),
-                arguments(Set.of(TEST), Set.of(SUITE, TEST), true)
-        );
-    }
+        when(firedEvent.getResult()).thenReturn(result);
+        when(matchingEvent.getResult()).thenReturn(result);
+        when(firedEvent.getPrimaryId()).thenReturn(className);
+        when(matchingEvent.getPrimaryId()).thenReturn(className);
 
-    @DisplayName("primaryAndSecondaryIdMatch")
-    @ParameterizedTest(name = "with value1 {0}, value2 {1}, value3 {2}, value4 {3} we expect {5}")
-    @MethodSource("primaryAndSecondaryIdMatchProvider")
-    public void primaryAndSecondaryIdMatch(final String value1, final String value2, final String value3, final String value4, final boolean expected) {
-        final Event e1 = Event.builder().primaryId(value1).secondaryId(value2).build();
-        final Event e2 = Event.builder().primaryId(value3).secondaryId(value4).build();
+        eventsConsumer.events = List.of(matchingEvent, neverMatchingEvent);
+        eventsConsumer.match(firedEvent);
 
-        assertEquals(expected, eventsConsumer.primaryAndSecondaryIdMatch(e1, e2));
+        // we use the getContext method in the consumes of the DummyEventsConsumer below just to verify the interaction
+        verify(firedEvent).getContext();
+        verify(matchingEvent, never()).getContext();    // we never consume the user-defined event (as "event"). We consume the fired event
+        verify(neverMatchingEvent, never()).getContext();
     }
 
-    public static Stream<Arguments> primaryAndSecondaryIdMatchProvider() {
-        return Stream.of(
-                arguments(null, null, "nope", "nope", false),
-                arguments(null, "test", "nope", "nope", false),
-                arguments("class", null, "nope", "nope", false),
-                arguments("class", "test", null, null, false),
-                arguments("class", "test", null, "nope", false),
-                arguments("class", "test", "nope", null, false),
-                arguments("class", "test", "nope", "nope", false),
-                arguments("class", "test", "class", "nope", false),
-                arguments("class", "test", "class", "test", true),
-                arguments("classAAA", "test", "class.*", "test", true),
-                arguments("class", "testAAA", "class", "test.*", true),
-                arguments("classAAA", "testAAA", "class.*", "test.*", true)
-        );
-    }
+    @Test
+    @DisplayName("match should let the consumer consume the provided event once for each matching rule")
+    public void matchEachRule() {
+        final Event firedEvent = Event.builder().reason(AFTER).tags(Set.of(TEST)).build();
 
-    @DisplayName("justPrimaryIdMatches")
-    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
-    @MethodSource("justPrimaryIdMatchesProvider")
-    public void justPrimaryIdMatches(final String value1, final String value2, final boolean expected) {
-        final Event e1 = Event.builder().primaryId(value1).build();
-        final Event e2 = Event.builder().primaryId(value2).build();
+        eventsConsumer.events = List.of(
+                Event.builder().reason(AFTER).tags(Set.of(TEST)).build(),
+                Event.builder().reason("aft.*").tags(Set.of(TEST)).build(),
+                Event.builder().reason(BEFORE).tags(Set.of(TEST)).build());
 
-        assertEquals(expected, eventsConsumer.justPrimaryIdMatches(e1, e2));
-    }
+        eventsConsumer.match(firedEvent);
 
-    public static Stream<Arguments> justPrimaryIdMatchesProvider() {
-        return Stream.of(
-                arguments(null, "nope", false),
-                arguments("class", null, false),
-                arguments("class", "nope", false),
-                arguments("class", "class", true),
-                arguments("classAAA", "class.*", true)
-        );
+        assertEquals(2, eventsConsumer.consumed);
     }
 
-    @DisplayName("reasonMatches")
-    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
-    @MethodSource("reasonMatchesProvider")
-    public void reasonMatches(final String value1, final String value2, final boolean expected) {
-        final Event e1 = Event.builder().reason(value1).build();
-        final Event e2 = Event.builder().reason(value2).build();
+    @Test
+    @DisplayName("getEventsIndex should build the index once, and again only if the events are replaced")
+    public void getEventsIndex() {
+        final EventsIndex eventsIndex = eventsConsumer.getEventsIndex();
 
-        assertEquals(expected, eventsConsumer.reasonMatches(e1, e2));
-    }
+        assertSame(eventsIndex, eventsConsumer.getEventsIndex());
+        assertSame(eventsConsumer.events, eventsIndex.getEvents());
+
+        eventsConsumer.events = List.of(Event.builder().reason(AFTER).primaryId("class").build());
 
-    public static Stream<Arguments> reasonMatchesProvider() {
-        return Stream.of(
-                arguments(null, BEFORE, false),
-                arguments(AFTER, null, false),
-                arguments(AFTER, BEFORE, false),
-                arguments(AFTER, AFTER, true),
-                arguments("afterAAA", "after.*", true)
-        );
+        assertNotSame(eventsIndex, eventsConsumer.getEventsIndex());
+        assertSame(eventsConsumer.events, eventsConsumer.getEventsIndex().getEvents());
     }
 
-    @DisplayName("resultMatches")
-    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
-    @MethodSource("resultProvider")
-    public void resultMatches(final Result value1, final Result value2, final boolean expected) {
-        final Event e1 = Event.builder().result(value1).build();
-        final Event e2 = Event.builder().result(value2).build();
+    @Test
+    @DisplayName("match should submit the provided event to the executor when the consumer is asynchronous")
+    public void matchAsync() {
+        final EventsExecutor eventsExecutor = mock(EventsExecutor.class);
+        final Event firedEvent = Event.builder().reason(BEFORE).primaryId("class").build();
 
-        assertEquals(expected, eventsConsumer.resultMatches(e1, e2));
-    }
+        eventsConsumer.async = new EventsConsumer.Async();
+        Reflections.setField("eventsExecutor", eventsConsumer, eventsExecutor);
+        eventsConsumer.match(firedEvent);
 
-    public static Stream<Arguments> resultProvider() {
-        return Stream.of(
-                arguments(null, FAILED, false),
-                arguments(SUCCESSFUL, FAILED, false),
-                arguments(SUCCESSFUL, SUCCESSFUL, true)
-        );
+        verify(eventsExecutor).submit(firedEvent);
+        assertEquals(0, eventsConsumer.consumed);
     }
 
-    @DisplayName("findMatchFor")
-    @ParameterizedTest(name = "with event1 {0} and event2 {1} we expect {2}")
-    @MethodSource("findMatchForProvider")
-    public void findMatchFor(final Event e1, final Event e2, final boolean expected) {
-        assertEquals(expected, eventsConsumer.findMatchFor(e1, e2));
+    @Test
+    @DisplayName("match should buffer the provided event in the batcher when the consumer is batching")
+    public void matchBatch() {
+        final EventsBatcher eventsBatcher = mock(EventsBatcher.class);
+        final Event firedEvent = Event.builder().reason(BEFORE).primaryId("class").build();
+
+        eventsConsumer.batch = new EventsConsumer.Batch();
+        eventsConsumer.async = new EventsConsumer.Async();
+        Reflections.setField("eventsBatcher", eventsConsumer, eventsBatcher);
+        eventsConsumer.match(firedEvent);
+
+        verify(eventsBatcher).add(firedEvent);
+        assertNull(Reflections.getFieldValue("eventsExecutor", eventsConsumer));
+        assertEquals(0, eventsConsumer.consumed);
     }
 
-    public static Stream<Arguments> findMatchForProvider() {
-        return Stream.of(
-                arguments(Event.builder().build(), Event.builder().build(), false),
-                arguments(Event.builder().reason(BEFORE).build(), Event.builder().reason(BEFORE).build(), false),
-                arguments(Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), Event.builder().reason(BEFORE).primaryId("class").build(), false),
-                arguments(Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), true),
-                arguments(Event.builder().reason(BEFORE).primaryId("class").build(), Event.builder().reason(BEFORE).primaryId("nope").build(), false),
-                arguments(Event.builder().reason(BEFORE).primaryId("class").build(), Event.builder().reason(BEFORE).primaryId("class").build(), true),
-                arguments(Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), Event.builder().reason(BEFORE).tags(Set.of(SUITE)).build(), false),
-                arguments(Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), true),
-                arguments(Event.builder().result(FAILED).build(), Event.builder().result(FAILED).build(), false),
-                arguments(Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), Event.builder().result(FAILED).primaryId("class").build(), false),
-                arguments(Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), true),
-                arguments(Event.builder().result(FAILED).primaryId("class").build(), Event.builder().result(FAILED).primaryId("nope").build(), false),
-                arguments(Event.builder().result(FAILED).primaryId("class").build(), Event.builder().result(FAILED).primaryId("class").build(), true),
-                arguments(Event.builder().result(FAILED).tags(Set.of(TEST)).build(), Event.builder().result(FAILED).tags(Set.of(SUITE)).build(), false),
-                arguments(Event.builder().result(FAILED).tags(Set.of(TEST)).build(), Event.builder().result(FAILED).tags(Set.of(TEST)).build(), true)
-        );
+    @Test
+    @DisplayName("shutdown and awaitTermination should drain the executor and the batcher, if any, so that new ones are created afterwards")
+    public void drain() {
+        final EventsExecutor eventsExecutor = mock(EventsExecutor.class);
+        final EventsBatcher eventsBatcher = mock(EventsBatcher.class);
+        final long startNanos = 123;
+
+        Reflections.setField("eventsExecutor", eventsConsumer, eventsExecutor);
+        Reflections.setField("eventsBatcher", eventsConsumer, eventsBatcher);
+        eventsConsumer.shutdown();
+        eventsConsumer.awaitTermination(startNanos);
+
+        final InOrder inOrder = inOrder(eventsExecutor, eventsBatcher);
+        inOrder.verify(eventsExecutor).shutdown();
+        inOrder.verify(eventsBatcher).shutdown();
+        inOrder.verify(eventsExecutor).awaitTermination(startNanos);
+        inOrder.verify(eventsBatcher).awaitTermination(startNanos);
+        assertNull(Reflections.getFieldValue("eventsExecutor", eventsConsumer));
+        assertNull(Reflections.getFieldValue("eventsBatcher", eventsConsumer));
     }
 
     @Test
-    @DisplayName("match should filter all the consumers listening to the provided event and let them consume it")
-    public void match() {
-        final Event firedEvent = mock(Event.class);
-        final Event matchingEvent = mock(Event.class);
-        final Event neverMatchingEvent = mock(Event.class);
-        final Result result = SUCCESSFUL;
-        final String className = "className";
+    @DisplayName("acceptDigest should consume the provided events one by one by default")
+    public void acceptDigest() {
+        final Event event1 = Event.builder().build();
+        final Event event2 = Event.builder().build();
 
-        when(firedEvent.getResult()).thenReturn(result);
-        when(matchingEvent.getResult()).thenReturn(result);
-        when(firedEvent.getPrimaryId()).thenReturn(className);
-        when(matchingEvent.getPrimaryId()).thenReturn(className);
+        eventsConsumer.acceptDigest(List.of(event1, event2));
 
-        eventsConsumer.events = List.of(matchingEvent, neverMatchingEvent);
-        eventsConsumer.match(firedEvent);
+        assertEquals(2, eventsConsumer.consumed);
+    }
 
-        // we use the getContext method in the consumes of the DummyEventsConsumer below just to verify the interaction
-        verify(firedEvent).getContext();
-        verify(matchingEvent, never()).getContext();    // we never consume the user-defined event (as "event"). We consume the fired event
-        verify(neverMatchingEvent, never()).getContext();
+    @Test
+    @DisplayName("shutdown and awaitTermination should do nothing for synchronous consumers")
+    public void drainSync() {
+        assertDoesNotThrow(() -> eventsConsumer.shutdown());
+        assertDoesNotThrow(() -> eventsConsumer.awaitTermination(0));
     }
 
     @Test
@@ -198,6 +160,8 @@ class EventsConsumerTest {
 
     private static class DummyEventsConsumer extends EventsConsumer {
 
+        private int consumed;
+
         public DummyEventsConsumer() {
             events = List.of(
                     Event.builder().reason(BEFORE).primaryId("class").build()
@@ -206,6 +170,7 @@ class EventsConsumerTest {
 
         @Override
         public void accept(final Event event) {
+            consumed++;
             //noinspection ResultOfMethodCallIgnored
             event.getContext();
         }
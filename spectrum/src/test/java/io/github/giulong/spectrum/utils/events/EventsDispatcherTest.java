@@ -11,6 +11,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -90,7 +91,7 @@ class EventsDispatcherTest {
     }
 
     @Test
-    @DisplayName("sessionClosed should fire the after suite event")
+    @DisplayName("sessionClosed should fire the after suite event and then drain the asynchronous consumers")
     public void sessionClosed() {
         final Set<String> tags = Set.of(SUITE);
         final Result result = SUCCESSFUL;
@@ -107,7 +108,17 @@ class EventsDispatcherTest {
         when(eventBuilder.context(null)).thenReturn(eventBuilder);
         when(eventBuilder.build()).thenReturn(event);
 
+        when(configuration.getEventsConsumers()).thenReturn(List.of(consumer1, consumer2));
+
         eventsDispatcher.sessionClosed();
+
+        final InOrder inOrder = inOrder(consumer1, consumer2);
+        inOrder.verify(consumer1).match(event);
+        inOrder.verify(consumer2).match(event);
+        inOrder.verify(consumer1).shutdown();
+        inOrder.verify(consumer2).shutdown();
+        inOrder.verify(consumer1).awaitTermination(anyLong());
+        inOrder.verify(consumer2).awaitTermination(anyLong());
     }
 
     @Test
@@ -0,0 +1,195 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.pojos.events.Event;
+import io.github.giulong.spectrum.utils.Reflections;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventsExecutor")
+class EventsExecutorTest {
+
+    private static EventsConsumer.Async asyncOf(final int queueSize, final long timeout, final int retries, final long drainTimeout) {
+        final EventsConsumer.Async async = new EventsConsumer.Async();
+        Reflections.setField("queueSize", async, queueSize);
+        Reflections.setField("timeout", async, timeout);
+        Reflections.setField("retries", async, retries);
+        Reflections.setField("drainTimeout", async, drainTimeout);
+
+        return async;
+    }
+
+    @DisplayName("submit should consume events off the thread that fired them, on virtual or platform threads")
+    @ParameterizedTest(name = "with virtual {0}")
+    @ValueSource(booleans = {true, false})
+    public void submit(final boolean virtual) {
+        final EventsConsumer.Async async = asyncOf(10, 10, 0, 10);
+        Reflections.setField("virtual", async, virtual);
+        final RecordingConsumer consumer = new RecordingConsumer(async, null);
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+        final Event event1 = Event.builder().reason("first").build();
+        final Event event2 = Event.builder().reason("second").build();
+
+        eventsExecutor.submit(event1);
+        eventsExecutor.submit(event2);
+        eventsExecutor.shutdown();
+        eventsExecutor.awaitTermination(System.nanoTime());
+
+        assertEquals(List.of(event1, event2), consumer.events);
+        assertEquals(virtual, consumer.threads.getFirst().isVirtual());
+        assertNotEquals(Thread.currentThread(), consumer.threads.getFirst());
+        assertEquals(0, eventsExecutor.getDropped());
+    }
+
+    @Test
+    @DisplayName("submit should drop events fired while the queue is full, without blocking")
+    public void submitQueueFull() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingConsumer consumer = new RecordingConsumer(asyncOf(1, 0, 0, 10), () -> {
+            blocked.countDown();
+            release.await();
+        });
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+
+        eventsExecutor.submit(Event.builder().reason("running").build());
+        assertTrue(blocked.await(5, SECONDS));
+        eventsExecutor.submit(Event.builder().reason("queued").build());
+        eventsExecutor.submit(Event.builder().reason("dropped").build());
+        release.countDown();
+
+        eventsExecutor.shutdown();
+        eventsExecutor.awaitTermination(System.nanoTime());
+
+        assertEquals(List.of("running", "queued"), consumer.events.stream().map(Event::getReason).toList());
+        assertEquals(1, eventsExecutor.getDropped());
+    }
+
+    @Test
+    @DisplayName("consume should retry failed events up to the configured times, and then drop them")
+    public void consumeRetries() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final RecordingConsumer consumer = new RecordingConsumer(asyncOf(10, 0, 2, 10), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("THE STACKTRACE BELOW IS EXPECTED!!!");
+        });
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+
+        eventsExecutor.consume(Event.builder().build(), 1);
+        awaitAttempts(attempts, 3);
+        eventsExecutor.shutdown();
+        eventsExecutor.awaitTermination(System.nanoTime());
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, eventsExecutor.getDropped());
+    }
+
+    @Test
+    @DisplayName("consume should interrupt events not consumed within the timeout")
+    public void consumeTimeout() {
+        final RecordingConsumer consumer = new RecordingConsumer(asyncOf(10, 1, 0, 10), () -> Thread.sleep(10_000));
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+
+        final long start = System.nanoTime();
+        eventsExecutor.consume(Event.builder().build(), 1);
+
+        assertTrue(System.nanoTime() - start < SECONDS.toNanos(5));
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1, eventsExecutor.getDropped());
+    }
+
+    @Test
+    @DisplayName("consume should neither retry nor drop events consumed just as the timeout expired")
+    public void consumeTimeoutAfterConsumed() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final RecordingConsumer consumer = new RecordingConsumer(asyncOf(10, 1, 1, 10), () -> {
+            attempts.incrementAndGet();
+
+            // completing after the watchdog fired, without failing
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+        });
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+
+        eventsExecutor.consume(Event.builder().build(), 1);
+        eventsExecutor.shutdown();
+        eventsExecutor.awaitTermination(System.nanoTime());
+
+        assertEquals(1, attempts.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(0, eventsExecutor.getDropped());
+    }
+
+    @Test
+    @DisplayName("awaitTermination should drop the events still queued after the drain timeout, and interrupt the ones in progress without counting nor retrying them")
+    public void awaitTerminationTimeout() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final RecordingConsumer consumer = new RecordingConsumer(asyncOf(10, 0, 1, 0), () -> {
+            blocked.countDown();
+            Thread.sleep(10_000);
+        });
+        final EventsExecutor eventsExecutor = new EventsExecutor(consumer);
+        final Event running = Event.builder().reason("running").build();
+
+        eventsExecutor.submit(running);
+        assertTrue(blocked.await(5, SECONDS));
+        eventsExecutor.submit(Event.builder().reason("pending").build());
+        eventsExecutor.shutdown();
+        eventsExecutor.awaitTermination(System.nanoTime());
+
+        assertTrue(((ThreadPoolExecutor) Reflections.getFieldValue("executor", eventsExecutor)).awaitTermination(5, SECONDS));
+        assertEquals(1, eventsExecutor.getDropped());
+        assertEquals(List.of(running), consumer.events);
+    }
+
+    private static void awaitAttempts(final AtomicInteger attempts, final int expected) {
+        final long deadline = System.nanoTime() + SECONDS.toNanos(5);
+
+        while (attempts.get() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static class RecordingConsumer extends EventsConsumer {
+
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final Action action;
+
+        RecordingConsumer(final Async async, final Action action) {
+            this.async = async;
+            this.action = action;
+        }
+
+        @Override
+        public void accept(final Event event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+
+            if (action != null) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.giulong.spectrum.utils.events;
+
+import io.github.giulong.spectrum.enums.Result;
+import io.github.giulong.spectrum.pojos.events.Event;
+import io.github.giulong.spectrum.utils.events.EventsIndex.Rule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static io.github.giulong.spectrum.enums.Result.FAILED;
+import static io.github.giulong.spectrum.enums.Result.SUCCESSFUL;
+import static io.github.giulong.spectrum.utils.events.EventsDispatcher.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DisplayName("EventsIndex")
+class EventsIndexTest {
+
+    @DisplayName("tagsIntersect")
+    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
+    @MethodSource("tagsIntersectProvider")
+    public void tagsIntersect(final Set<String> value1, final Set<String> value2, final boolean expected) {
+        final Event e1 = Event.builder().tags(value1).build();
+        final Event e2 = Event.builder().tags(value2).build();
+
+        assertEquals(expected, new Rule(e2).tagsIntersect(e1));
+    }
+
+    public static Stream<Arguments> tagsIntersectProvider() {
+        return Stream.of(
+                arguments(null, null, false),
+                arguments(Set.of(TEST), null, false),
+                arguments(null, Set.of(TEST), false),
+                arguments(Set.of(SUITE, TEST), Set.of(TEST), true),
+                arguments(Set.of(TEST), Set.of(SUITE, TEST), true)
+        );
+    }
+
+    @DisplayName("primaryAndSecondaryIdMatch")
+    @ParameterizedTest(name = "with value1 {0}, value2 {1}, value3 {2}, value4 {3} we expect {5}")
+    @MethodSource("primaryAndSecondaryIdMatchProvider")
+    public void primaryAndSecondaryIdMatch(final String value1, final String value2, final String value3, final String value4, final boolean expected) {
+        final Event e1 = Event.builder().primaryId(value1).secondaryId(value2).build();
+        final Event e2 = Event.builder().primaryId(value3).secondaryId(value4).build();
+
+        assertEquals(expected, new Rule(e2).primaryAndSecondaryIdMatch(e1));
+    }
+
+    public static Stream<Arguments> primaryAndSecondaryIdMatchProvider() {
+        return Stream.of(
+                arguments(null, null, "nope", "nope", false),
+                arguments(null, "test", "nope", "nope", false),
+                arguments("class", null, "nope", "nope", false),
+                arguments("class", "test", null, null, false),
+                arguments("class", "test", null, "nope", false),
+                arguments("class", "test", "nope", null, false),
+                arguments("class", "test", "nope", "nope", false),
+                arguments("class", "test", "class", "nope", false),
+                arguments("class", "test", "class", "test", true),
+                arguments("classAAA", "test", "class.*", "test", true),
+                arguments("class", "testAAA", "class", "test.*", true),
+                arguments("classAAA", "testAAA", "class.*", "test.*", true)
+        );
+    }
+
+    @DisplayName("justPrimaryIdMatches")
+    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
+    @MethodSource("justPrimaryIdMatchesProvider")
+    public void justPrimaryIdMatches(final String value1, final String value2, final boolean expected) {
+        final Event e1 = Event.builder().primaryId(value1).build();
+        final Event e2 = Event.builder().primaryId(value2).build();
+
+        assertEquals(expected, new Rule(e2).justPrimaryIdMatches(e1));
+    }
+
+    public static Stream<Arguments> justPrimaryIdMatchesProvider() {
+        return Stream.of(
+                arguments(null, "nope", false),
+                arguments("class", null, false),
+                arguments("class", "nope", false),
+                arguments("class", "class", true),
+                arguments("classAAA", "class.*", true)
+        );
+    }
+
+    @DisplayName("reasonMatches")
+    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
+    @MethodSource("reasonMatchesProvider")
+    public void reasonMatches(final String value1, final String value2, final boolean expected) {
+        final Event e1 = Event.builder().reason(value1).build();
+        final Event e2 = Event.builder().reason(value2).build();
+
+        assertEquals(expected, new Rule(e2).reasonMatches(e1.getReason()));
+    }
+
+    public static Stream<Arguments> reasonMatchesProvider() {
+        return Stream.of(
+                arguments(null, BEFORE, false),
+                arguments(AFTER, null, false),
+                arguments(AFTER, BEFORE, false),
+                arguments(AFTER, AFTER, true),
+                arguments("afterAAA", "after.*", true)
+        );
+    }
+
+    @DisplayName("resultMatches")
+    @ParameterizedTest(name = "with value1 {0} and value2 {1} we expect {2}")
+    @MethodSource("resultProvider")
+    public void resultMatches(final Result value1, final Result value2, final boolean expected) {
+        final Event e1 = Event.builder().result(value1).build();
+        final Event e2 = Event.builder().result(value2).build();
+
+        assertEquals(expected, new Rule(e2).resultMatches(e1.getResult()));
+    }
+
+    public static Stream<Arguments> resultProvider() {
+        return Stream.of(
+                arguments(null, FAILED, false),
+                arguments(SUCCESSFUL, FAILED, false),
+                arguments(SUCCESSFUL, SUCCESSFUL, true)
+        );
+    }
+
+    @DisplayName("matches")
+    @ParameterizedTest(name = "with event1 {0} and event2 {1} we expect {2}")
+    @MethodSource("findMatchForProvider")
+    public void matches(final Event e1, final Event e2, final boolean expected) {
+        assertEquals(expected, new Rule(e2).matches(e1));
+    }
+
+    public static Stream<Arguments> findMatchForProvider() {
+        return Stream.of(
+                arguments(Event.builder().build(), Event.builder().build(), false),
+                arguments(Event.builder().reason(BEFORE).build(), Event.builder().reason(BEFORE).build(), false),
+                arguments(Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), Event.builder().reason(BEFORE).primaryId("class").build(), false),
+                arguments(Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), Event.builder().reason(BEFORE).primaryId("class").secondaryId("test").build(), true),
+                arguments(Event.builder().reason(BEFORE).primaryId("class").build(), Event.builder().reason(BEFORE).primaryId("nope").build(), false),
+                arguments(Event.builder().reason(BEFORE).primaryId("class").build(), Event.builder().reason(BEFORE).primaryId("class").build(), true),
+                arguments(Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), Event.builder().reason(BEFORE).tags(Set.of(SUITE)).build(), false),
+                arguments(Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), Event.builder().reason(BEFORE).tags(Set.of(TEST)).build(), true),
+                arguments(Event.builder().result(FAILED).build(), Event.builder().result(FAILED).build(), false),
+                arguments(Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), Event.builder().result(FAILED).primaryId("class").build(), false),
+                arguments(Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), Event.builder().result(FAILED).primaryId("class").secondaryId("test").build(), true),
+                arguments(Event.builder().result(FAILED).primaryId("class").build(), Event.builder().result(FAILED).primaryId("nope").build(), false),
+                arguments(Event.builder().result(FAILED).primaryId("class").build(), Event.builder().result(FAILED).primaryId("class").build(), true),
+                arguments(Event.builder().result(FAILED).tags(Set.of(TEST)).build(), Event.builder().result(FAILED).tags(Set.of(SUITE)).build(), false),
+                arguments(Event.builder().result(FAILED).tags(Set.of(TEST)).build(), Event.builder().result(FAILED).tags(Set.of(TEST)).build(), true)
+        );
+    }
+
+    @Test
+    @DisplayName("matchesOf should return the rules matching the provided event by literal or regex reason")
+    public void matchesOfReason() {
+        final Event literal = Event.builder().reason(AFTER).tags(Set.of(TEST)).build();
+        final Event regex = Event.builder().reason("aft.*").tags(Set.of(TEST)).build();
+        final Event otherReason = Event.builder().reason(BEFORE).tags(Set.of(TEST)).build();
+        final Event otherTag = Event.builder().reason(AFTER).tags(Set.of(CLASS)).build();
+        final EventsIndex eventsIndex = new EventsIndex(List.of(literal, regex, otherReason, otherTag));
+
+        final List<Event> actual = eventsOf(eventsIndex.matchesOf(Event.builder().reason(AFTER).tags(Set.of(TEST)).build()));
+
+        assertEquals(2, actual.size());
+        assertTrue(actual.containsAll(List.of(literal, regex)));
+    }
+
+    @Test
+    @DisplayName("matchesOf should return the rules matching the provided event by result and ids")
+    public void matchesOfResult() {
+        final Event matching = Event.builder().result(FAILED).primaryId("class.*").build();
+        final Event otherResult = Event.builder().result(SUCCESSFUL).primaryId("class.*").build();
+        final Event otherId = Event.builder().result(FAILED).primaryId("nope").build();
+        final EventsIndex eventsIndex = new EventsIndex(List.of(matching, otherResult, otherId));
+
+        final List<Event> actual = eventsOf(eventsIndex.matchesOf(Event.builder().reason(AFTER).result(FAILED).primaryId("className").build()));
+
+        assertEquals(List.of(matching), actual);
+    }
+
+    @Test
+    @DisplayName("matchesOf should return each rule at most once, even if it matches by reason and result, and by several tags")
+    public void matchesOfOnce() {
+        final Event reasonAndResult = Event.builder().reason(AFTER).result(FAILED).tags(Set.of(TEST)).build();
+        final Event severalTags = Event.builder().reason(AFTER).tags(Set.of(TEST, CLASS)).build();
+        final Event regexAndResult = Event.builder().reason("after|before").result(FAILED).tags(Set.of(TEST)).build();
+        final EventsIndex eventsIndex = new EventsIndex(List.of(reasonAndResult, severalTags, regexAndResult));
+        final Set<String> tags = new LinkedHashSet<>(List.of(TEST, CLASS));
+
+        final List<Event> actual = eventsOf(eventsIndex.matchesOf(Event.builder().reason(AFTER).result(FAILED).tags(tags).build()));
+
+        assertEquals(3, actual.size());
+        assertTrue(actual.containsAll(List.of(reasonAndResult, severalTags, regexAndResult)));
+    }
+
+    @Test
+    @DisplayName("matchesOf should ignore rules with neither ids nor tags, which can never match")
+    public void matchesOfNeverMatching() {
+        final EventsIndex eventsIndex = new EventsIndex(List.of(Event.builder().reason(AFTER).build()));
+
+        assertTrue(eventsIndex.matchesOf(Event.builder().reason(AFTER).build()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("matchesOf should return no rules for events without reason and result")
+    public void matchesOfNothing() {
+        final EventsIndex eventsIndex = new EventsIndex(List.of(Event.builder().reason(AFTER).tags(Set.of(TEST)).build()));
+
+        assertTrue(eventsIndex.matchesOf(Event.builder().tags(Set.of(TEST)).build()).isEmpty());
+    }
+
+    private static List<Event> eventsOf(final List<Rule> rules) {
+        return rules
+                .stream()
+                .map(Rule::getEvent)
+                .toList();
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import io.github.giulong.spectrum.pojos.events.Event;
 import io.github.giulong.spectrum.utils.ExtentReporter;
 import io.github.giulong.spectrum.utils.Reflections;
@@ -14,7 +15,11 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+
 import static io.github.giulong.spectrum.enums.Result.SUCCESSFUL;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,4 +61,14 @@ class ExtentTestConsumerTest {
 
         verify(extentReporter).logTestEnd(context, SUCCESSFUL.getStatus());
     }
+
+    @Test
+    @DisplayName("deserialization should ignore the async and batch nodes, since events must be consumed on the thread that fired them")
+    public void synchronous() throws IOException {
+        final EventsConsumer consumer = new YAMLMapper().readValue("extentTest:\n  async:\n    threads: 2\n  batch:\n    size: 3\n", EventsConsumer.class);
+
+        assertInstanceOf(ExtentTestConsumer.class, consumer);
+        assertNull(consumer.getAsync());
+        assertNull(consumer.getBatch());
+    }
 }
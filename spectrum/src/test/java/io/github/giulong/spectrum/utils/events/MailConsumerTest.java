@@ -114,8 +114,6 @@ class MailConsumerTest {
         when(FreeMarkerWrapper.getInstance()).thenReturn(freeMarkerWrapper);
         when(freeMarkerWrapper.interpolate(template, Map.of("event", event))).thenReturn(interpolatedTemplate);
 
-        when(MailerBuilder.buildMailer()).thenReturn(mailer);
-
         when(EmailBuilder.startingBlank()).thenReturn(emailPopulatingBuilder);
         when(emailPopulatingBuilder.withHTMLText(interpolatedTemplate)).thenReturn(emailPopulatingBuilder);
         when(emailPopulatingBuilder.withAttachments(listArgumentCaptor.capture())).thenReturn(emailPopulatingBuilder);
@@ -130,6 +128,7 @@ class MailConsumerTest {
         final MailConsumer mailConsumer = new MailConsumer();
         assertEquals(List.of(), Reflections.getFieldValue("attachments", mailConsumer));  // to check the default is an empty list
         Reflections.setField("attachments", mailConsumer, List.of(attachment1, attachment2));
+        Reflections.setField("mailer", mailConsumer, mailer);
         mailConsumer.accept(event);
 
         final AttachmentResource attachmentResource1 = attachmentResourceMockedConstruction.constructed().getFirst();
@@ -142,4 +141,29 @@ class MailConsumerTest {
         attachmentResourceMockedConstruction.close();
         fileDataSourceMockedConstruction.close();
     }
+
+    @Test
+    @DisplayName("acceptDigest should send a single email interpolating the digest template with all the provided events")
+    public void acceptDigest() {
+        final String template = "template";
+        final String interpolatedTemplate = "interpolatedTemplate";
+        final List<Event> events = List.of(event, event);
+
+        when(FileUtils.getInstance()).thenReturn(fileUtils);
+        when(fileUtils.readTemplate("mail-digest.html")).thenReturn(template);
+
+        when(FreeMarkerWrapper.getInstance()).thenReturn(freeMarkerWrapper);
+        when(freeMarkerWrapper.interpolate(template, Map.of("events", events))).thenReturn(interpolatedTemplate);
+
+        when(EmailBuilder.startingBlank()).thenReturn(emailPopulatingBuilder);
+        when(emailPopulatingBuilder.withHTMLText(interpolatedTemplate)).thenReturn(emailPopulatingBuilder);
+        when(emailPopulatingBuilder.withAttachments(List.of())).thenReturn(emailPopulatingBuilder);
+        when(emailPopulatingBuilder.buildEmail()).thenReturn(email);
+
+        final MailConsumer mailConsumer = new MailConsumer();
+        Reflections.setField("mailer", mailConsumer, mailer);
+        mailConsumer.acceptDigest(events);
+
+        verify(mailer).sendMail(email);
+    }
 }
@@ -17,6 +17,8 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.*;
@@ -96,4 +98,39 @@ class SlackConsumerTest {
 
         verify(methodsClient).chatPostMessage(chatPostMessageRequest);
     }
+
+    @Test
+    @DisplayName("acceptDigest should send the provided events in as many messages as needed to stay within Slack's limits, reusing the same client")
+    public void acceptDigest() throws SlackApiException, IOException {
+        final String template = "template";
+        final String interpolatedTemplate1 = "interpolatedTemplate1";
+        final String interpolatedTemplate2 = "interpolatedTemplate2";
+        final String channel = "channel";
+        final String token = "token";
+        final List<Event> events = Collections.nCopies(SlackConsumer.DIGEST_PAGE_SIZE + 1, event);
+
+        when(FileUtils.getInstance()).thenReturn(fileUtils);
+        when(fileUtils.readTemplate("slack-digest.json")).thenReturn(template);
+
+        when(FreeMarkerWrapper.getInstance()).thenReturn(freeMarkerWrapper);
+        when(freeMarkerWrapper.interpolate(template, Map.of("events", events.subList(0, SlackConsumer.DIGEST_PAGE_SIZE)))).thenReturn(interpolatedTemplate1);
+        when(freeMarkerWrapper.interpolate(template, Map.of("events", List.of(event)))).thenReturn(interpolatedTemplate2);
+
+        when(ChatPostMessageRequest.builder()).thenReturn(chatPostMessageRequestBuilder);
+        when(chatPostMessageRequestBuilder.channel(channel)).thenReturn(chatPostMessageRequestBuilder);
+        when(chatPostMessageRequestBuilder.text("Spectrum notification")).thenReturn(chatPostMessageRequestBuilder);
+        when(chatPostMessageRequestBuilder.blocksAsString(interpolatedTemplate1)).thenReturn(chatPostMessageRequestBuilder);
+        when(chatPostMessageRequestBuilder.blocksAsString(interpolatedTemplate2)).thenReturn(chatPostMessageRequestBuilder);
+        when(chatPostMessageRequestBuilder.build()).thenReturn(chatPostMessageRequest);
+        when(Slack.getInstance()).thenReturn(slack);
+        when(slack.methods(token)).thenReturn(methodsClient);
+
+        final SlackConsumer slackConsumer = new SlackConsumer();
+        slackConsumer.channel = channel;
+        slackConsumer.token = token;
+        slackConsumer.acceptDigest(events);
+
+        verify(slack).methods(token);
+        verify(methodsClient, times(2)).chatPostMessage(chatPostMessageRequest);
+    }
 }
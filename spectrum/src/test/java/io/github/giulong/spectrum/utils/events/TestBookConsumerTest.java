@@ -1,5 +1,6 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import io.github.giulong.spectrum.enums.Result;
 import io.github.giulong.spectrum.utils.Configuration;
 import io.github.giulong.spectrum.pojos.events.Event;
@@ -12,10 +13,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
 import java.util.Optional;
 
 import static io.github.giulong.spectrum.enums.Result.FAILED;
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.extension.ExtensionContext.Namespace.GLOBAL;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -67,4 +71,14 @@ class TestBookConsumerTest {
 
         verify(testBook).updateWithResult("className", "testName", result);
     }
+
+    @Test
+    @DisplayName("deserialization should ignore the async and batch nodes, since events must be consumed on the thread that fired them")
+    public void synchronous() throws IOException {
+        final EventsConsumer consumer = new YAMLMapper().readValue("testbook:\n  async:\n    threads: 2\n  batch:\n    size: 3\n", EventsConsumer.class);
+
+        assertInstanceOf(TestBookConsumer.class, consumer);
+        assertNull(consumer.getAsync());
+        assertNull(consumer.getBatch());
+    }
 }
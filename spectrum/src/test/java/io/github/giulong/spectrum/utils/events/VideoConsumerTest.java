@@ -1,10 +1,19 @@
 package io.github.giulong.spectrum.utils.events;
 
+import com.aventstack.extentreports.ExtentTest;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import io.github.giulong.spectrum.interfaces.FrameCapture;
 import io.github.giulong.spectrum.pojos.events.Event;
 import io.github.giulong.spectrum.types.TestData;
 import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.ExtentReporter;
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import io.github.giulong.spectrum.utils.video.FrameBuffer;
 import io.github.giulong.spectrum.utils.video.Video;
-import org.jcodec.api.awt.AWTSequenceEncoder;
+import io.github.giulong.spectrum.utils.video.VideoEncodingPool;
+import io.github.giulong.spectrum.utils.video.VideoStream;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,13 +34,19 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static io.github.giulong.spectrum.extensions.resolvers.ConfigurationResolver.CONFIGURATION;
+import static io.github.giulong.spectrum.extensions.resolvers.DriverResolver.FRAME_CAPTURE;
+import static io.github.giulong.spectrum.extensions.resolvers.ExtentTestResolver.EXTENT_TEST;
 import static io.github.giulong.spectrum.extensions.resolvers.TestDataResolver.TEST_DATA;
 import static java.awt.image.BufferedImage.TYPE_INT_RGB;
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,12 +65,14 @@ class VideoConsumerTest {
     private static final int EVEN_WIDTH = WIDTH + 1;
     private static final int EVEN_HEIGHT = HEIGHT + 1;
 
-    private static MockedStatic<AWTSequenceEncoder> awtSequenceEncoderMockedStatic;
     private static MockedStatic<ImageIO> imageIOMockedStatic;
     private static MockedStatic<Files> filesMockedStatic;
 
     @Mock
-    private AWTSequenceEncoder encoder;
+    private VideoEncoder videoEncoder;
+
+    @Mock
+    private VideoEncoder.Encoding encoder;
 
     @Mock
     private File videoFile;
@@ -81,6 +98,18 @@ class VideoConsumerTest {
     @Mock
     private Video video;
 
+    @Mock
+    private FrameCapture frameCapture;
+
+    @Mock
+    private FrameBuffer frameBuffer;
+
+    @Mock
+    private ExtentReporter extentReporter;
+
+    @Mock
+    private ExtentTest extentTest;
+
     @Mock
     private TestData testData;
 
@@ -96,6 +125,9 @@ class VideoConsumerTest {
     @Mock
     private Path screenshotPath3;
 
+    @Mock
+    private Path screenshotPath4;
+
     @Mock
     private File screenshot1;
 
@@ -105,6 +137,9 @@ class VideoConsumerTest {
     @Mock
     private File screenshot3;
 
+    @Mock
+    private File screenshot4;
+
     @Mock
     private Path videoPath;
 
@@ -124,10 +159,19 @@ class VideoConsumerTest {
     private Configuration configuration;
 
     @Mock
-    private Set<byte[]> frameDigests;
+    private ScreenshotWriter screenshotWriter;
 
     @Mock
-    private Stream<byte[]> frameDigestsStream;
+    private VideoStream videoStream;
+
+    @Mock
+    private VideoEncodingPool videoEncodingPool;
+
+    @Mock
+    private CompletableFuture<Void> videoFuture;
+
+    @Captor
+    private ArgumentCaptor<Runnable> runnableArgumentCaptor;
 
     @Captor
     private ArgumentCaptor<URL> urlArgumentCaptor;
@@ -140,20 +184,22 @@ class VideoConsumerTest {
 
     @BeforeEach
     public void beforeEach() throws IOException {
-        awtSequenceEncoderMockedStatic = mockStatic(AWTSequenceEncoder.class);
         imageIOMockedStatic = mockStatic(ImageIO.class);
         filesMockedStatic = mockStatic(Files.class);
+
+        Reflections.setField("screenshotWriter", videoConsumer, screenshotWriter);
+        Reflections.setField("videoEncodingPool", videoConsumer, videoEncodingPool);
+        Reflections.setField("extentReporter", videoConsumer, extentReporter);
     }
 
     @AfterEach
     public void afterEach() {
-        awtSequenceEncoderMockedStatic.close();
         imageIOMockedStatic.close();
         filesMockedStatic.close();
     }
 
     @Test
-    @DisplayName("accept should notify the VideoEncoder that the test is done")
+    @DisplayName("accept should notify the VideoEncoder that the test is done, skipping the files that aren't screenshots")
     public void accept() throws IOException {
         final int width = 1;
         final int height = 3;
@@ -169,15 +215,21 @@ class VideoConsumerTest {
         when(testData.getScreenshotFolderPath()).thenReturn(screenshotFolderPath);
         when(testData.getVideoPath()).thenReturn(videoPath);
         when(videoPath.toFile()).thenReturn(videoFile);
-        when(Files.walk(screenshotFolderPath)).thenReturn(Stream.of(screenshotPath1, screenshotPath2, screenshotPath3));
+        when(Files.walk(screenshotFolderPath)).thenReturn(Stream.of(screenshotPath1, screenshotPath2, screenshotPath3, screenshotPath4));
         when(screenshotPath1.toFile()).thenReturn(screenshot1);
         when(screenshotPath2.toFile()).thenReturn(screenshot2);
         when(screenshotPath3.toFile()).thenReturn(screenshot3);
+        when(screenshotPath4.toFile()).thenReturn(screenshot4);
         when(screenshot1.isFile()).thenReturn(true);
         when(screenshot2.isFile()).thenReturn(false);
         when(screenshot3.isFile()).thenReturn(true);
+        when(screenshot4.isFile()).thenReturn(true);
+        when(screenshot4.toPath()).thenReturn(screenshotPath4);
+        when(screenshotPath4.getFileName()).thenReturn(Path.of(".DS_Store"));
 
-        awtSequenceEncoderMockedStatic.when(() -> AWTSequenceEncoder.createSequenceEncoder(videoFile, 1)).thenReturn(encoder);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(1);
+        when(videoEncoder.open(videoFile, 1)).thenReturn(encoder);
         imageIOMockedStatic.when(() -> ImageIO.read(screenshot1)).thenReturn(bufferedImage);
         imageIOMockedStatic.when(() -> ImageIO.read(screenshot3)).thenReturn(bufferedImage);
 
@@ -188,6 +240,10 @@ class VideoConsumerTest {
         when(screenshot3.toPath()).thenReturn(screenshotPath3);
         when(Files.readAllBytes(screenshotPath3)).thenReturn(new byte[]{3});
 
+        // sorting by sequence
+        when(screenshotPath1.getFileName()).thenReturn(Path.of("autoBefore-2-uuid.png"));
+        when(screenshotPath3.getFileName()).thenReturn(Path.of("autoAfter-1-uuid.png"));
+
         // chooseDimensionFor
         when(video.getWidth()).thenReturn(width);
         when(video.getHeight()).thenReturn(height);
@@ -203,11 +259,19 @@ class VideoConsumerTest {
 
         videoConsumer.accept(event);
 
+        final InOrder inOrder = inOrder(screenshotWriter, videoEncodingPool);
+        inOrder.verify(screenshotWriter).flush(screenshotFolderPath);
+        inOrder.verify(videoEncodingPool).encode(eq(videoPath), runnableArgumentCaptor.capture());
+        verifyNoInteractions(encoder);
+
+        runnableArgumentCaptor.getValue().run();
+
         final BufferedImage resizedImage1 = bufferedImageMockedConstruction.constructed().getFirst();
         final BufferedImage resizedImage2 = bufferedImageMockedConstruction.constructed().get(1);
         verify(encoder).encodeImage(resizedImage1);
         verify(encoder).encodeImage(resizedImage2);
         verify(encoder).finish();
+        imageIOMockedStatic.verify(() -> ImageIO.read(screenshot4), never());
 
         bufferedImageMockedConstruction.close();
     }
@@ -228,16 +292,152 @@ class VideoConsumerTest {
         when(videoPath.toFile()).thenReturn(videoFile);
         when(Files.walk(screenshotFolderPath)).thenReturn(Stream.of());
 
-        awtSequenceEncoderMockedStatic.when(() -> AWTSequenceEncoder.createSequenceEncoder(videoFile, 1)).thenReturn(encoder);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(1);
+        when(videoEncoder.open(videoFile, 1)).thenReturn(encoder);
         imageIOMockedStatic.when(() -> ImageIO.read(urlArgumentCaptor.capture())).thenReturn(bufferedImage);
 
         videoConsumer.accept(event);
 
+        verify(videoEncodingPool).encode(eq(videoPath), runnableArgumentCaptor.capture());
+        runnableArgumentCaptor.getValue().run();
+
         assertEquals("no-video.png", Path.of(urlArgumentCaptor.getValue().toString()).getFileName().toString());
+        verify(screenshotWriter).flush(screenshotFolderPath);
         verify(encoder).encodeImage(bufferedImage);
         verify(encoder).finish();
     }
 
+    @Test
+    @DisplayName("accept should just finalize the video stream, if any")
+    public void acceptStreaming() {
+        when(event.getContext()).thenReturn(extensionContext);
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isDisabled()).thenReturn(false);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(testData.getVideoPath()).thenReturn(videoPath);
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        when(videoStream.finish()).thenReturn(videoFuture);
+
+        videoConsumer.accept(event);
+
+        verify(videoEncodingPool).track(videoPath, videoFuture);
+        verify(screenshotWriter, never()).flush(any());
+        verify(video, never()).getEncoder();
+    }
+
+    @Test
+    @DisplayName("accept should stop the frame capture, if any, before finalizing the video")
+    public void acceptBackground() {
+        when(event.getContext()).thenReturn(extensionContext);
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isDisabled()).thenReturn(false);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(store.get(FRAME_CAPTURE, FrameCapture.class)).thenReturn(frameCapture);
+        when(testData.getVideoPath()).thenReturn(videoPath);
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        when(videoStream.finish()).thenReturn(videoFuture);
+
+        videoConsumer.accept(event);
+
+        final InOrder inOrder = inOrder(frameCapture, videoStream);
+        inOrder.verify(frameCapture).stop();
+        inOrder.verify(videoStream).finish();
+    }
+
+    @Test
+    @DisplayName("accept should discard the buffered frames and detach the video from the report when the test didn't fail")
+    public void acceptNotFailed() {
+        when(event.getContext()).thenReturn(extensionContext);
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isDisabled()).thenReturn(false);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(store.get(FRAME_CAPTURE, FrameCapture.class)).thenReturn(frameCapture);
+        when(store.get(EXTENT_TEST, ExtentTest.class)).thenReturn(extentTest);
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+        when(frameBuffer.isPersisted()).thenReturn(false);
+
+        videoConsumer.accept(event);
+
+        final InOrder inOrder = inOrder(frameCapture, frameBuffer, extentReporter);
+        inOrder.verify(frameCapture).stop();
+        inOrder.verify(frameBuffer).clear();
+        inOrder.verify(extentReporter).detachVideo(extentTest, testData);
+        verifyNoInteractions(videoEncodingPool, screenshotWriter);
+        verify(testData, never()).getVideoStream();
+    }
+
+    @Test
+    @DisplayName("accept should finalize the video of failed tests, whose buffered frames were persisted")
+    public void acceptFailed() {
+        when(event.getContext()).thenReturn(extensionContext);
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isDisabled()).thenReturn(false);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(testData.getFrameBuffer()).thenReturn(frameBuffer);
+        when(frameBuffer.isPersisted()).thenReturn(true);
+        when(testData.getVideoPath()).thenReturn(videoPath);
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        when(videoStream.finish()).thenReturn(videoFuture);
+
+        videoConsumer.accept(event);
+
+        verify(videoEncodingPool).track(videoPath, videoFuture);
+        verify(frameBuffer, never()).clear();
+        verifyNoInteractions(extentReporter);
+    }
+
+    @Test
+    @DisplayName("accept should not encode any frame when the video is recorded by the driver")
+    public void acceptRecordedByDriver() {
+        when(event.getContext()).thenReturn(extensionContext);
+        when(extensionContext.getStore(GLOBAL)).thenReturn(store);
+        when(store.get(CONFIGURATION, Configuration.class)).thenReturn(configuration);
+        when(configuration.getVideo()).thenReturn(video);
+        when(video.isDisabled()).thenReturn(false);
+        when(store.get(TEST_DATA, TestData.class)).thenReturn(testData);
+        when(store.get(FRAME_CAPTURE, FrameCapture.class)).thenReturn(frameCapture);
+        when(frameCapture.recordsVideo()).thenReturn(true);
+
+        videoConsumer.accept(event);
+
+        verify(frameCapture).stop();
+        verifyNoInteractions(videoEncodingPool, screenshotWriter);
+        verify(testData, never()).getVideoStream();
+    }
+
+    @Test
+    @DisplayName("encode should keep duplicate frames of background videos, at the configured frame rate")
+    public void encodeBackground() throws IOException {
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(2);
+        when(video.isTimeBased()).thenReturn(true);
+        when(videoPath.toFile()).thenReturn(videoFile);
+        when(videoEncoder.open(videoFile, 2)).thenReturn(encoder);
+        when(dimension.getWidth()).thenReturn(WIDTH);
+        when(dimension.getHeight()).thenReturn(HEIGHT);
+        imageIOMockedStatic.when(() -> ImageIO.read(screenshot1)).thenReturn(bufferedImage);
+
+        MockedConstruction<BufferedImage> bufferedImageMockedConstruction = mockConstruction(BufferedImage.class,
+                (mock, context) -> when(mock.createGraphics()).thenReturn(graphics2D));
+
+        videoConsumer.encode(video, videoPath, List.of(screenshot1, screenshot1), dimension);
+
+        verify(encoder, times(2)).encodeImage(any());
+        verify(encoder).finish();
+        filesMockedStatic.verifyNoInteractions();
+
+        bufferedImageMockedConstruction.close();
+    }
+
     @Test
     @DisplayName("accept shouldn't do nothing when video recording is disabled")
     public void acceptDisabled() throws IOException {
@@ -316,14 +516,12 @@ class VideoConsumerTest {
         when(screenshot1.toPath()).thenReturn(screenshotPath1);
         when(Files.readAllBytes(screenshotPath1)).thenReturn(new byte[]{1, 2, 3});
         when(messageDigest.digest(byteArrayArgumentCaptor.capture())).thenReturn(new byte[]{4, 5, 6});
-        when(frameDigests.stream()).thenReturn(frameDigestsStream);
-        when(frameDigestsStream.noneMatch(any())).thenReturn(true);
 
-        assertTrue(videoConsumer.isNewFrame(screenshot1));
+        final Set<ByteBuffer> frameDigests = new HashSet<>();
+        assertTrue(videoConsumer.isNewFrame(screenshot1, messageDigest, frameDigests));
 
-        verify(frameDigests).add(byteArrayArgumentCaptor.capture());
-        assertArrayEquals(new byte[]{1, 2, 3}, byteArrayArgumentCaptor.getAllValues().getFirst());
-        assertArrayEquals(new byte[]{4, 5, 6}, byteArrayArgumentCaptor.getAllValues().get(1));
+        assertEquals(Set.of(ByteBuffer.wrap(new byte[]{4, 5, 6})), frameDigests);
+        assertArrayEquals(new byte[]{1, 2, 3}, byteArrayArgumentCaptor.getValue());
     }
 
     @Test
@@ -332,12 +530,11 @@ class VideoConsumerTest {
         when(screenshot1.toPath()).thenReturn(screenshotPath1);
         when(Files.readAllBytes(screenshotPath1)).thenReturn(new byte[]{1, 2, 3});
         when(messageDigest.digest(byteArrayArgumentCaptor.capture())).thenReturn(new byte[]{4, 5, 6});
-        when(frameDigests.stream()).thenReturn(frameDigestsStream);
-        when(frameDigestsStream.noneMatch(any())).thenReturn(false);
 
-        assertFalse(videoConsumer.isNewFrame(screenshot1));
+        final Set<ByteBuffer> frameDigests = new HashSet<>(Set.of(ByteBuffer.wrap(new byte[]{4, 5, 6})));
+        assertFalse(videoConsumer.isNewFrame(screenshot1, messageDigest, frameDigests));
 
-        verify(frameDigests, never()).add(any());
+        assertEquals(1, frameDigests.size());
         assertArrayEquals(new byte[]{1, 2, 3}, byteArrayArgumentCaptor.getValue());
     }
 
@@ -368,4 +565,14 @@ class VideoConsumerTest {
 
         bufferedImageMockedConstruction.close();
     }
+
+    @Test
+    @DisplayName("deserialization should ignore the async and batch nodes, since events must be consumed on the thread that fired them")
+    public void synchronous() throws IOException {
+        final EventsConsumer consumer = new YAMLMapper().readValue("video:\n  async:\n    threads: 2\n  batch:\n    size: 3\n", EventsConsumer.class);
+
+        assertInstanceOf(VideoConsumer.class, consumer);
+        assertNull(consumer.getAsync());
+        assertNull(consumer.getBatch());
+    }
 }
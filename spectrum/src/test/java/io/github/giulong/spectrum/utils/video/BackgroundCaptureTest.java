@@ -0,0 +1,324 @@
+package io.github.giulong.spectrum.utils.video;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.giulong.spectrum.drivers.Driver;
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.Configuration;
+import io.github.giulong.spectrum.utils.DriverPool;
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.Screenshot;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import io.github.giulong.spectrum.utils.environments.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static io.github.giulong.spectrum.enums.Frame.BACKGROUND;
+import static io.github.giulong.spectrum.enums.PoolScope.TEST;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Answers.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.*;
+import static org.openqa.selenium.OutputType.BASE64;
+import static org.openqa.selenium.remote.DriverCommand.SCREENSHOT;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BackgroundCapture")
+class BackgroundCaptureTest {
+
+    @Mock
+    private Video video;
+
+    @Mock
+    private Screenshot screenshot;
+
+    @Mock(extraInterfaces = TakesScreenshot.class)
+    private WebDriver webDriver;
+
+    @Mock
+    private RemoteWebDriver remoteWebDriver;
+
+    @Mock
+    private HttpCommandExecutor httpCommandExecutor;
+
+    @Mock
+    private CommandExecutor commandExecutor;
+
+    @Mock(answer = CALLS_REAL_METHODS)
+    private Driver<?, ?, ?> driver;
+
+    @Mock
+    private Configuration configuration;
+
+    @Mock
+    private Configuration.Drivers drivers;
+
+    @Mock
+    private Configuration.Drivers.Pool pool;
+
+    @Mock
+    private Configuration.Runtime runtime;
+
+    @Mock
+    private Environment environment;
+
+    @InjectMocks
+    private DriverPool driverPool;
+
+    @Mock
+    private TestData testData;
+
+    @Mock
+    private VideoStream videoStream;
+
+    @Mock
+    private ScreenshotWriter screenshotWriter;
+
+    @Mock
+    private Path screenshotFolderPath;
+
+    private BackgroundCapture backgroundCapture;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(video.getFrameRate()).thenReturn(1000);
+        when(video.getScreenshot()).thenReturn(screenshot);
+        lenient().when(screenshot.shrink(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        backgroundCapture = new BackgroundCapture(video, webDriver, testData);
+        Reflections.setField("screenshotWriter", backgroundCapture, screenshotWriter);
+    }
+
+    @Test
+    @DisplayName("start should capture frames at the configured rate until stopped")
+    public void startAndStop() throws InterruptedException {
+        final CountDownLatch frames = new CountDownLatch(2);
+
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        doAnswer(invocation -> {
+            frames.countDown();
+            return null;
+        }).when(videoStream).push("AQID");
+
+        backgroundCapture.start();
+        assertTrue(frames.await(10, SECONDS));
+        backgroundCapture.stop();
+
+        clearInvocations(videoStream);
+        backgroundCapture.capture();
+        verifyNoInteractions(videoStream);
+    }
+
+    @Test
+    @DisplayName("capture should push the screenshot to the video stream once for each frame elapsed")
+    public void captureStreaming() {
+        Reflections.setField("startNanos", backgroundCapture, System.nanoTime() - 2_500_000);
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        backgroundCapture.capture();
+
+        verify(videoStream, atLeast(3)).push("AQID");
+        verifyNoInteractions(screenshotWriter);
+    }
+
+    @Test
+    @DisplayName("capture should shrink the screenshot according to the configured size and format")
+    public void captureShrunk() {
+        Reflections.setField("startNanos", backgroundCapture, System.nanoTime());
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(screenshot.shrink("AQID")).thenReturn("shrunk");
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        backgroundCapture.capture();
+
+        verify(videoStream, atLeastOnce()).push("shrunk");
+    }
+
+    @Test
+    @DisplayName("capture should write the screenshot as a background frame, if the video is not streamed")
+    public void captureFiles() {
+        Reflections.setField("startNanos", backgroundCapture, System.nanoTime());
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenReturn("AQID");
+        when(testData.getScreenshotFolderPath()).thenReturn(screenshotFolderPath);
+
+        backgroundCapture.capture();
+
+        verify(screenshotWriter, atLeastOnce()).write(screenshotFolderPath, BACKGROUND, "AQID");
+    }
+
+    @Test
+    @DisplayName("capture should not take a screenshot if the frames due are already taken")
+    public void captureNotDue() {
+        Reflections.setField("startNanos", backgroundCapture, System.nanoTime() + 1_000_000_000);
+
+        backgroundCapture.capture();
+
+        verifyNoInteractions(webDriver, testData);
+    }
+
+    @Test
+    @DisplayName("capture should just log failures, so that next frames are still captured")
+    public void captureFailure() {
+        Reflections.setField("startNanos", backgroundCapture, System.nanoTime());
+        when(((TakesScreenshot) webDriver).getScreenshotAs(BASE64)).thenThrow(new WebDriverException("session closed"));
+
+        backgroundCapture.capture();
+
+        verifyNoInteractions(testData, screenshotWriter);
+    }
+
+    @Test
+    @DisplayName("takeScreenshot should request the screenshot on a dedicated connection to the driver's session")
+    public void takeScreenshotHttp() throws IOException, InterruptedException {
+        final HttpServer server = stubServer(200, "{\"value\":\"AQID\"}");
+
+        try {
+            Reflections.setField("screenshotUri", backgroundCapture, URI.create(String.format("http://localhost:%d/session/id/screenshot", server.getAddress().getPort())));
+            Reflections.setField("httpClient", backgroundCapture, HttpClient.newHttpClient());
+            assertEquals("AQID", backgroundCapture.takeScreenshot());
+            verifyNoInteractions(webDriver);
+        } finally {
+            backgroundCapture.stop();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("takeScreenshot should throw an exception if the screenshot request fails")
+    public void takeScreenshotHttpError() throws IOException {
+        final HttpServer server = stubServer(404, "{\"value\":{\"error\":\"invalid session id\"}}");
+
+        try {
+            Reflections.setField("screenshotUri", backgroundCapture, URI.create(String.format("http://localhost:%d/session/id/screenshot", server.getAddress().getPort())));
+            Reflections.setField("httpClient", backgroundCapture, HttpClient.newHttpClient());
+            assertThrows(WebDriverException.class, () -> backgroundCapture.takeScreenshot());
+        } finally {
+            backgroundCapture.stop();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("executeScreenshot should send the screenshot command to the executor of the driver's session")
+    public void executeScreenshot() throws IOException {
+        final SessionId sessionId = new SessionId("sessionId");
+        final Response response = new Response(sessionId);
+        response.setValue("AQID");
+
+        when(remoteWebDriver.getSessionId()).thenReturn(sessionId);
+        when(remoteWebDriver.getCommandExecutor()).thenReturn(commandExecutor);
+        when(commandExecutor.execute(argThat(command -> SCREENSHOT.equals(command.getName()) && sessionId.equals(command.getSessionId())))).thenReturn(response);
+
+        backgroundCapture = new BackgroundCapture(video, remoteWebDriver, testData);
+
+        assertEquals("AQID", backgroundCapture.executeScreenshot());
+    }
+
+    @Test
+    @DisplayName("executeScreenshot should throw an exception if the screenshot command fails")
+    public void executeScreenshotError() throws IOException {
+        final Response response = new Response();
+        response.setValue(new WebDriverException("invalid session id"));
+
+        when(remoteWebDriver.getCommandExecutor()).thenReturn(commandExecutor);
+        when(commandExecutor.execute(any())).thenReturn(response);
+
+        backgroundCapture = new BackgroundCapture(video, remoteWebDriver, testData);
+
+        assertThrows(WebDriverException.class, () -> backgroundCapture.executeScreenshot());
+    }
+
+    @Test
+    @DisplayName("capture should take frames in background of the driver leased through Driver.build, even if the one returned to the test is bound to its thread")
+    public void captureLeasedDriver() throws InterruptedException, IOException {
+        final CountDownLatch frames = new CountDownLatch(2);
+        final Response response = new Response();
+        response.setValue("AQID");
+
+        Reflections.setField("configuration", driverPool, configuration);
+        Reflections.setField("driverPool", driver, driverPool);
+        when(configuration.getDrivers()).thenReturn(drivers);
+        when(drivers.getPool()).thenReturn(pool);
+        when(pool.getScope()).thenReturn(TEST);
+        when(configuration.getRuntime()).thenReturn(runtime);
+        doReturn(environment).when(runtime).getEnvironment();
+        doReturn(remoteWebDriver).when(driver).create();
+        when(remoteWebDriver.getCommandExecutor()).thenReturn(commandExecutor);
+        when(commandExecutor.execute(any())).thenReturn(response);
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        doAnswer(invocation -> {
+            frames.countDown();
+            return null;
+        }).when(videoStream).push("AQID");
+
+        final WebDriver guardedDriver = driver.build("className");
+        assertNotSame(remoteWebDriver, guardedDriver);
+
+        try {
+            backgroundCapture = new BackgroundCapture(video, driverPool.getLeasedDriver().orElseThrow(), testData);
+            backgroundCapture.start();
+            assertTrue(frames.await(10, SECONDS));
+        } finally {
+            backgroundCapture.stop();
+            driver.shutdown(false);
+        }
+    }
+
+    @Test
+    @DisplayName("screenshotUriOf should return the uri of the screenshot endpoint of the driver's session")
+    public void screenshotUriOf() throws IOException {
+        when(httpCommandExecutor.getAddressOfRemoteServer()).thenReturn(URI.create("http://localhost:4444/wd/hub/").toURL());
+
+        assertEquals(URI.create("http://localhost:4444/wd/hub/session/sessionId/screenshot"), BackgroundCapture.screenshotUriOf(httpCommandExecutor, new SessionId("sessionId")));
+    }
+
+    @Test
+    @DisplayName("screenshotUriOf should return null if the driver doesn't expose its address")
+    public void screenshotUriOfNotHttp() {
+        assertNull(BackgroundCapture.screenshotUriOf(commandExecutor, new SessionId("sessionId")));
+        assertNull(BackgroundCapture.screenshotUriOf(null, null));
+    }
+
+    private HttpServer stubServer(final int status, final String body) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        server.createContext("/session/id/screenshot", exchange -> {
+            final byte[] bytes = body.getBytes(UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.start();
+
+        return server;
+    }
+}
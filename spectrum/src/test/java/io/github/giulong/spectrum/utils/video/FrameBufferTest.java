@@ -0,0 +1,153 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static io.github.giulong.spectrum.enums.Frame.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FrameBuffer")
+class FrameBufferTest {
+
+    private static final String FRAME_1 = Base64.getEncoder().encodeToString(new byte[]{1, 2, 3});
+    private static final String FRAME_2 = Base64.getEncoder().encodeToString(new byte[]{4, 5, 6});
+    private static final String FRAME_3 = Base64.getEncoder().encodeToString(new byte[]{7, 8, 9});
+
+    @Mock
+    private Video.FailuresOnly failuresOnly;
+
+    @Mock
+    private ScreenshotWriter screenshotWriter;
+
+    @Mock
+    private TestData testData;
+
+    @Mock
+    private VideoStream videoStream;
+
+    @Mock
+    private Path screenshotFolderPath;
+
+    private FrameBuffer frameBuffer;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(failuresOnly.getFrames()).thenReturn(2);
+
+        frameBuffer = new FrameBuffer(failuresOnly);
+        Reflections.setField("screenshotWriter", frameBuffer, screenshotWriter);
+    }
+
+    @Test
+    @DisplayName("add should keep only the last frames, dropping the oldest ones")
+    public void add() {
+        when(screenshotWriter.nextSequence()).thenReturn(1L, 2L, 3L);
+
+        frameBuffer.add(AUTO_BEFORE, FRAME_1);
+        frameBuffer.add(AUTO_AFTER, FRAME_2);
+        frameBuffer.add(MANUAL, FRAME_3);
+
+        assertEquals(2, frameBuffer.size());
+        assertFalse(frameBuffer.isPersisted());
+        assertEquals(1L, (long) Reflections.getFieldValue("dropped", frameBuffer));
+        verifyNoMoreInteractions(screenshotWriter);
+        verifyNoInteractions(testData);
+    }
+
+    @Test
+    @DisplayName("the capacity should be at least one frame")
+    public void minimumCapacity() {
+        when(failuresOnly.getFrames()).thenReturn(0);
+
+        assertEquals(1, (int) Reflections.getFieldValue("capacity", new FrameBuffer(failuresOnly)));
+    }
+
+    @Test
+    @DisplayName("persist should write the buffered frames in order, with the sequences reserved when they were added")
+    public void persist() {
+        when(screenshotWriter.nextSequence()).thenReturn(1L, 2L, 3L);
+        when(testData.getScreenshotFolderPath()).thenReturn(screenshotFolderPath);
+
+        frameBuffer.add(AUTO_BEFORE, FRAME_1);
+        frameBuffer.add(AUTO_AFTER, FRAME_2);
+        frameBuffer.add(MANUAL, FRAME_3);
+        frameBuffer.persist(testData);
+
+        final InOrder inOrder = inOrder(screenshotWriter);
+        inOrder.verify(screenshotWriter).write(screenshotFolderPath, AUTO_AFTER, 2L, FRAME_2);
+        inOrder.verify(screenshotWriter).write(screenshotFolderPath, MANUAL, 3L, FRAME_3);
+        verify(screenshotWriter, never()).write(screenshotFolderPath, AUTO_BEFORE, 1L, FRAME_1);
+        assertTrue(frameBuffer.isPersisted());
+        assertEquals(0, frameBuffer.size());
+    }
+
+    @Test
+    @DisplayName("persist should push the buffered frames to the video stream, if any")
+    public void persistStreaming() {
+        when(testData.getVideoStream()).thenReturn(videoStream);
+
+        frameBuffer.add(AUTO_BEFORE, FRAME_1);
+        frameBuffer.add(AUTO_AFTER, FRAME_2);
+        frameBuffer.persist(testData);
+
+        final InOrder inOrder = inOrder(videoStream);
+        inOrder.verify(videoStream).push(FRAME_1);
+        inOrder.verify(videoStream).push(FRAME_2);
+        verify(screenshotWriter, never()).write(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("add should write frames right away once the buffer is persisted")
+    public void addAfterPersist() {
+        when(screenshotWriter.nextSequence()).thenReturn(5L);
+        when(testData.getScreenshotFolderPath()).thenReturn(screenshotFolderPath);
+
+        frameBuffer.persist(testData);
+        frameBuffer.add(AUTO_AFTER, FRAME_1);
+
+        verify(screenshotWriter).write(screenshotFolderPath, AUTO_AFTER, 5L, FRAME_1);
+        assertEquals(0, frameBuffer.size());
+    }
+
+    @Test
+    @DisplayName("clear should discard the buffered frames without writing them")
+    public void clear() {
+        frameBuffer.add(AUTO_BEFORE, FRAME_1);
+        frameBuffer.clear();
+
+        assertEquals(0, frameBuffer.size());
+        assertFalse(frameBuffer.isPersisted());
+        verify(screenshotWriter, never()).write(any(), any(), anyLong(), any());
+    }
+
+    @DisplayName("frames should be stored decoded and encoded back to the same base64, both on and off the heap")
+    @ParameterizedTest(name = "with offHeap {0}")
+    @ValueSource(booleans = {false, true})
+    public void roundTrip(final boolean offHeap) {
+        when(failuresOnly.isOffHeap()).thenReturn(offHeap);
+        frameBuffer = new FrameBuffer(failuresOnly);
+
+        final ByteBuffer bytes = frameBuffer.bytesOf(FRAME_1);
+
+        assertEquals(offHeap, bytes.isDirect());
+        assertEquals(3, bytes.remaining());
+        assertEquals(FRAME_1, frameBuffer.base64Of(bytes));
+        assertEquals(FRAME_1, frameBuffer.base64Of(bytes));
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.utils.Configuration.Drivers.Event;
+import io.github.giulong.spectrum.utils.Configuration.Drivers.Events;
+import io.github.giulong.spectrum.utils.Reflections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
+import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
+import static io.github.giulong.spectrum.enums.Frame.MANUAL;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FrameSampler")
+class FrameSamplerTest {
+
+    @Mock
+    private Event event;
+
+    @Mock
+    private Event otherEvent;
+
+    private Video.Capture capture;
+    private Events events;
+
+    @BeforeEach
+    public void beforeEach() {
+        capture = new Video.Capture();
+        events = new Events();
+
+        Reflections.setField("afterClick", events, event);
+        Reflections.setField("afterGetText", events, otherEvent);
+    }
+
+    @Test
+    @DisplayName("accept should accept all the frames with the default capture policies")
+    public void acceptDefault() {
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertTrue(frameSampler.accept(AUTO_BEFORE, event));
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+    }
+
+    @Test
+    @DisplayName("accept should discard the automatic frames taken before the minimum interval elapsed, but not the manual ones")
+    public void acceptMinInterval() {
+        Reflections.setField("minInterval", capture, 3_600_000L);
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_BEFORE, otherEvent));
+        assertTrue(frameSampler.accept(MANUAL, null));
+    }
+
+    @Test
+    @DisplayName("accept should discard the automatic frames exceeding the max fps")
+    public void acceptMaxFps() {
+        Reflections.setField("maxFps", capture, 0.001);
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+    }
+
+    @Test
+    @DisplayName("accept should coalesce an autoBefore frame following an autoAfter one within the configured window")
+    public void acceptCoalesce() {
+        Reflections.setField("coalesce", capture, 3_600_000L);
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertTrue(frameSampler.accept(AUTO_BEFORE, event));
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_BEFORE, otherEvent));
+        assertTrue(frameSampler.accept(AUTO_AFTER, otherEvent));
+    }
+
+    @Test
+    @DisplayName("accept should record just the configured ratio of the frames of each sampled event, starting from the first one")
+    public void acceptSampling() {
+        Reflections.setField("sampling", capture, Map.of("afterClick", 0.5, "notExisting", 0.1));
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+        assertTrue(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+
+        assertTrue(frameSampler.accept(AUTO_AFTER, otherEvent));
+        assertTrue(frameSampler.accept(AUTO_AFTER, otherEvent));
+    }
+
+    @Test
+    @DisplayName("accept should never record the frames of events sampled with a ratio of 0")
+    public void acceptSamplingZero() {
+        Reflections.setField("sampling", capture, Map.of("afterClick", 0.0));
+        final FrameSampler frameSampler = new FrameSampler(capture, events);
+
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+        assertFalse(frameSampler.accept(AUTO_AFTER, event));
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.giulong.spectrum.utils.video;
+
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidStopScreenRecordingOptions;
+import io.appium.java_client.ios.IOSStopScreenRecordingOptions;
+import io.github.giulong.spectrum.types.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.support.ThreadGuard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.appium.java_client.MobileCommand.START_RECORDING_SCREEN;
+import static io.appium.java_client.MobileCommand.STOP_RECORDING_SCREEN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.openqa.selenium.Platform.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreenRecorder")
+class ScreenRecorderTest {
+
+    private static final byte[] MP4 = new byte[]{0, 0, 0, 24, 'f', 't', 'y', 'p'};
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private Video video;
+
+    @Mock
+    private Video.ScreenRecording screenRecording;
+
+    @Mock
+    private AppiumDriver appiumDriver;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private AppiumDriver deepStubsAppiumDriver;
+
+    @Mock
+    private WebDriver webDriver;
+
+    @Mock
+    private Capabilities capabilities;
+
+    @Mock
+    private Response response;
+
+    @Mock
+    private TestData testData;
+
+    private ScreenRecorder screenRecorder;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(video.getScreenRecording()).thenReturn(screenRecording);
+
+        screenRecorder = new ScreenRecorder(video, appiumDriver, testData);
+    }
+
+    @Test
+    @DisplayName("supports should return true for Appium drivers on Android and iOS only")
+    public void supports() {
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(ANDROID, IOS, WINDOWS, null);
+
+        assertTrue(ScreenRecorder.supports(appiumDriver));
+        assertTrue(ScreenRecorder.supports(appiumDriver));
+        assertFalse(ScreenRecorder.supports(appiumDriver));
+        assertFalse(ScreenRecorder.supports(appiumDriver));
+        assertFalse(ScreenRecorder.supports(webDriver));
+    }
+
+    @Test
+    @DisplayName("supports should return false for the thread guarded drivers returned to tests, which are never Appium ones")
+    public void supportsGuarded() {
+        assertFalse(ScreenRecorder.supports(ThreadGuard.protect(appiumDriver)));
+    }
+
+    @Test
+    @DisplayName("start should start the recording on Android with the configured bit rate, time limit and scale")
+    @SuppressWarnings("unchecked")
+    public void startAndroid() {
+        final ArgumentCaptor<Map<String, ?>> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+
+        screenRecorder = new ScreenRecorder(video, deepStubsAppiumDriver, testData);
+        when(deepStubsAppiumDriver.getCapabilities().getPlatformName()).thenReturn(ANDROID);
+        when(deepStubsAppiumDriver.manage().window().getSize()).thenReturn(new Dimension(1081, 2400));
+        when(screenRecording.getBitRate()).thenReturn(2000000);
+        when(screenRecording.getScale()).thenReturn(0.5);
+        when(screenRecording.getTimeLimit()).thenReturn(600L);
+
+        assertEquals(screenRecorder, screenRecorder.start());
+
+        verify(deepStubsAppiumDriver).execute(eq(START_RECORDING_SCREEN), argumentCaptor.capture());
+        final Map<String, Object> options = (Map<String, Object>) argumentCaptor.getValue().get("options");
+        assertEquals(2000000, options.get("bitRate"));
+        assertEquals("540x1200", options.get("videoSize"));
+        assertEquals(600L, options.get("timeLimit"));
+        assertEquals(true, options.get("forceRestart"));
+    }
+
+    @Test
+    @DisplayName("start should start the recording on iOS with the configured time limit and scale")
+    @SuppressWarnings("unchecked")
+    public void startIOS() {
+        final ArgumentCaptor<Map<String, ?>> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(IOS);
+        when(screenRecording.getScale()).thenReturn(0.5);
+        when(screenRecording.getTimeLimit()).thenReturn(600L);
+
+        screenRecorder.start();
+
+        verify(appiumDriver).execute(eq(START_RECORDING_SCREEN), argumentCaptor.capture());
+        final Map<String, Object> options = (Map<String, Object>) argumentCaptor.getValue().get("options");
+        assertEquals("trunc(iw*0.5/2)*2:trunc(ih*0.5/2)*2", options.get("videoScale"));
+        assertEquals(600L, options.get("timeLimit"));
+        assertFalse(options.containsKey("bitRate"));
+    }
+
+    @Test
+    @DisplayName("start should not scale the recording nor set its bit rate when not configured")
+    @SuppressWarnings("unchecked")
+    public void startNotScaled() {
+        final ArgumentCaptor<Map<String, ?>> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(ANDROID);
+        when(screenRecording.getScale()).thenReturn(1D);
+
+        screenRecorder.start();
+
+        verify(appiumDriver).execute(eq(START_RECORDING_SCREEN), argumentCaptor.capture());
+        final Map<String, Object> options = (Map<String, Object>) argumentCaptor.getValue().get("options");
+        assertFalse(options.containsKey("videoSize"));
+        assertFalse(options.containsKey("bitRate"));
+        verify(appiumDriver, never()).manage();
+    }
+
+    @Test
+    @DisplayName("stop should decode the recording and store it as the test's video")
+    public void stop() throws IOException {
+        final Path videoPath = tempDir.resolve("video.mp4");
+
+        when(testData.getVideoPath()).thenReturn(videoPath);
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(ANDROID);
+        when(appiumDriver.execute(STOP_RECORDING_SCREEN, Map.of("options", Map.of()))).thenReturn(response);
+        when(response.getValue()).thenReturn(Base64.getMimeEncoder().encodeToString(MP4));
+
+        screenRecorder.stop();
+
+        assertArrayEquals(MP4, Files.readAllBytes(videoPath));
+    }
+
+    @Test
+    @DisplayName("stop should not fail if the recording can't be retrieved")
+    public void stopFailure() {
+        final Path videoPath = tempDir.resolve("video.mp4");
+
+        when(testData.getVideoPath()).thenReturn(videoPath);
+        when(appiumDriver.getCapabilities()).thenReturn(capabilities);
+        when(capabilities.getPlatformName()).thenReturn(IOS);
+        when(appiumDriver.execute(STOP_RECORDING_SCREEN, Map.of("options", Map.of()))).thenThrow(new WebDriverException("gone"));
+
+        assertDoesNotThrow(() -> screenRecorder.stop());
+        assertFalse(Files.exists(videoPath));
+    }
+
+    @Test
+    @DisplayName("stopOptionsFor should return the stop options of the provided platform")
+    public void stopOptionsFor() {
+        assertInstanceOf(AndroidStopScreenRecordingOptions.class, screenRecorder.stopOptionsFor(ANDROID));
+        assertInstanceOf(IOSStopScreenRecordingOptions.class, screenRecorder.stopOptionsFor(IOS));
+    }
+
+    @Test
+    @DisplayName("recordsVideo should return true, since there are no frames to encode")
+    public void recordsVideo() {
+        assertTrue(screenRecorder.recordsVideo());
+    }
+
+    @Test
+    @DisplayName("the recording should be started and stored against an Appium endpoint")
+    public void appiumEndpoint() throws IOException {
+        final List<String> requests = new CopyOnWriteArrayList<>();
+        final Path videoPath = tempDir.resolve("video.mp4");
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        server.createContext("/", exchange -> {
+            final String path = exchange.getRequestURI().getPath();
+            requests.add(exchange.getRequestMethod() + " " + path);
+
+            final String body = switch (path) {
+                case "/session" -> "{\"value\": {\"sessionId\": \"123\", \"capabilities\": {\"platformName\": \"android\"}}}";
+                case "/session/123/appium/stop_recording_screen" -> String.format("{\"value\": \"%s\"}", Base64.getEncoder().encodeToString(MP4));
+                default -> "{\"value\": null}";
+            };
+
+            final byte[] bytes = body.getBytes(UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.start();
+
+        try {
+            final DesiredCapabilities desiredCapabilities = new DesiredCapabilities();
+            desiredCapabilities.setCapability("platformName", "android");
+            desiredCapabilities.setCapability("appium:automationName", "uiautomator2");
+
+            final AppiumDriver driver = new AppiumDriver(new URL(String.format("http://localhost:%d", server.getAddress().getPort())), desiredCapabilities);
+            when(screenRecording.getTimeLimit()).thenReturn(1800L);
+            when(testData.getVideoPath()).thenReturn(videoPath);
+
+            final ScreenRecorder recorder = new ScreenRecorder(video, driver, testData);
+            assertTrue(ScreenRecorder.supports(driver));
+
+            recorder.start();
+            recorder.stop();
+
+            assertTrue(requests.contains("POST /session/123/appium/start_recording_screen"));
+            assertTrue(requests.contains("POST /session/123/appium/stop_recording_screen"));
+            assertArrayEquals(MP4, Files.readAllBytes(videoPath));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
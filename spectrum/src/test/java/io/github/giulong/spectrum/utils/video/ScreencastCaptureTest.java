@@ -0,0 +1,210 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.types.TestData;
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.ScreenshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.giulong.spectrum.enums.Frame.SCREENCAST;
+import static io.github.giulong.spectrum.utils.video.ScreencastCapture.SCREENCAST_FRAME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreencastCapture")
+class ScreencastCaptureTest {
+
+    @Mock
+    private Video video;
+
+    @Mock
+    private Video.Screencast screencast;
+
+    @Mock
+    private DevTools devTools;
+
+    @Mock
+    private WebDriver webDriver;
+
+    @Mock
+    private ChromiumDriver chromiumDriver;
+
+    @Mock(extraInterfaces = HasDevTools.class)
+    private RemoteWebDriver augmentedDriver;
+
+    @Mock
+    private TestData testData;
+
+    @Mock
+    private VideoStream videoStream;
+
+    @Mock
+    private ScreenshotWriter screenshotWriter;
+
+    @Mock
+    private Path screenshotFolderPath;
+
+    private ScreencastCapture screencastCapture;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(video.getScreencast()).thenReturn(screencast);
+        when(video.getFrameRate()).thenReturn(1);
+
+        screencastCapture = new ScreencastCapture(video, devTools, testData);
+        Reflections.setField("screenshotWriter", screencastCapture, screenshotWriter);
+    }
+
+    @Test
+    @DisplayName("devToolsOf should return the devtools of Chromium drivers")
+    public void devToolsOf() {
+        when(chromiumDriver.maybeGetDevTools()).thenReturn(Optional.of(devTools));
+
+        assertEquals(Optional.of(devTools), ScreencastCapture.devToolsOf(chromiumDriver));
+    }
+
+    @Test
+    @DisplayName("devToolsOf should return the devtools of remote Chromium drivers augmented with devtools")
+    public void devToolsOfAugmented() {
+        when(augmentedDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("browserName", "MicrosoftEdge"));
+        when(((HasDevTools) augmentedDriver).maybeGetDevTools()).thenReturn(Optional.of(devTools));
+
+        assertEquals(Optional.of(devTools), ScreencastCapture.devToolsOf(augmentedDriver));
+    }
+
+    @Test
+    @DisplayName("devToolsOf should return an empty optional for non-Chromium drivers, even if augmented with devtools")
+    public void devToolsOfAugmentedNotChromium() {
+        when(augmentedDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("browserName", "firefox"));
+
+        assertTrue(ScreencastCapture.devToolsOf(augmentedDriver).isEmpty());
+        verify((HasDevTools) augmentedDriver, never()).maybeGetDevTools();
+    }
+
+    @Test
+    @DisplayName("devToolsOf should return an empty optional for drivers without devtools")
+    public void devToolsOfNotChromium() {
+        assertTrue(ScreencastCapture.devToolsOf(webDriver).isEmpty());
+    }
+
+    @Test
+    @DisplayName("start should listen to the screencast frames and start the screencast with the configured jpeg quality and max width")
+    @SuppressWarnings("unchecked")
+    public void start() {
+        final ArgumentCaptor<Command<Void>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+
+        when(screencast.getQuality()).thenReturn(70);
+        when(screencast.getMaxWidth()).thenReturn(800);
+
+        assertEquals(screencastCapture, screencastCapture.start());
+
+        final InOrder inOrder = inOrder(devTools);
+        inOrder.verify(devTools).createSessionIfThereIsNotOne();
+        inOrder.verify(devTools).addListener(eq(SCREENCAST_FRAME), any());
+        inOrder.verify(devTools).send(commandArgumentCaptor.capture());
+
+        final Command<Void> command = commandArgumentCaptor.getValue();
+        assertEquals("Page.startScreencast", command.getMethod());
+        assertEquals(Map.of("format", "jpeg", "quality", 70, "maxWidth", 800), command.getParams());
+    }
+
+    @Test
+    @DisplayName("start should let the browser choose the frames width when no max width is configured")
+    @SuppressWarnings("unchecked")
+    public void startNoMaxWidth() {
+        final ArgumentCaptor<Command<Void>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+
+        when(screencast.getQuality()).thenReturn(80);
+
+        screencastCapture.start();
+
+        verify(devTools).send(commandArgumentCaptor.capture());
+        assertEquals(Map.of("format", "jpeg", "quality", 80), commandArgumentCaptor.getValue().getParams());
+    }
+
+    @Test
+    @DisplayName("accept should acknowledge each frame and push it to the video stream, repeating the previous one for the elapsed time")
+    @SuppressWarnings("unchecked")
+    public void accept() {
+        final ArgumentCaptor<Command<Void>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        Reflections.setField("startNanos", screencastCapture, System.nanoTime());
+
+        screencastCapture.accept(Map.of("data", "data1", "sessionId", 1));
+
+        Reflections.setField("startNanos", screencastCapture, System.nanoTime() - MILLISECONDS.toNanos(2500));
+        screencastCapture.accept(Map.of("data", "data2", "sessionId", 2));
+
+        verify(devTools, times(2)).send(commandArgumentCaptor.capture());
+        final Command<Void> ack = commandArgumentCaptor.getAllValues().getLast();
+        assertEquals("Page.screencastFrameAck", ack.getMethod());
+        assertEquals(Map.of("sessionId", 2), ack.getParams());
+        assertFalse(ack.getSendsResponse());
+
+        final InOrder inOrder = inOrder(videoStream);
+        inOrder.verify(videoStream, times(2)).push("data1");
+        inOrder.verify(videoStream).push("data2");
+        assertEquals(3L, (long) Reflections.getFieldValue("frames", screencastCapture));
+    }
+
+    @Test
+    @DisplayName("accept should write the frame in the screenshots folder when not streaming")
+    public void acceptNotStreaming() {
+        when(testData.getScreenshotFolderPath()).thenReturn(screenshotFolderPath);
+        Reflections.setField("startNanos", screencastCapture, System.nanoTime());
+
+        screencastCapture.accept(Map.of("data", "data1", "sessionId", 1));
+
+        verify(screenshotWriter).write(screenshotFolderPath, SCREENCAST, "data1");
+    }
+
+    @Test
+    @DisplayName("stop should fill the video up to now with the last frame, stop the screencast, and ignore later frames")
+    @SuppressWarnings("unchecked")
+    public void stop() {
+        final ArgumentCaptor<Command<Void>> commandArgumentCaptor = ArgumentCaptor.forClass(Command.class);
+
+        when(testData.getVideoStream()).thenReturn(videoStream);
+        Reflections.setField("startNanos", screencastCapture, System.nanoTime());
+        screencastCapture.accept(Map.of("data", "data1", "sessionId", 1));
+
+        Reflections.setField("startNanos", screencastCapture, System.nanoTime() - MILLISECONDS.toNanos(1500));
+        screencastCapture.stop();
+        screencastCapture.accept(Map.of("data", "data2", "sessionId", 2));
+
+        verify(videoStream, times(2)).push("data1");
+        verify(videoStream, never()).push("data2");
+        verify(devTools, times(2)).send(commandArgumentCaptor.capture());
+        assertEquals("Page.stopScreencast", commandArgumentCaptor.getAllValues().getLast().getMethod());
+    }
+
+    @Test
+    @DisplayName("stop should not fail if the screencast can't be stopped")
+    public void stopFailure() {
+        when(devTools.send(any())).thenThrow(new WebDriverException("closed"));
+
+        assertDoesNotThrow(() -> screencastCapture.stop());
+        verifyNoInteractions(videoStream, screenshotWriter);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.giulong.spectrum.utils.video;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VideoEncodingPool")
+class VideoEncodingPoolTest {
+
+    @Mock
+    private Path videoPath;
+
+    @Mock
+    private Runnable encoding;
+
+    @InjectMocks
+    private VideoEncodingPool videoEncodingPool;
+
+    @Test
+    @DisplayName("getInstance should return the singleton")
+    public void getInstance() {
+        //noinspection EqualsWithItself
+        assertSame(VideoEncodingPool.getInstance(), VideoEncodingPool.getInstance());
+    }
+
+    @Test
+    @DisplayName("encode should run the provided encoding in background, and awaitCompletion should wait for it")
+    public void encode() {
+        videoEncodingPool.encode(videoPath, encoding);
+        videoEncodingPool.awaitCompletion();
+
+        verify(encoding).run();
+    }
+
+    @Test
+    @DisplayName("track should wait for the provided video to be encoded, swallowing errors")
+    public void track() {
+        final CompletableFuture<Void> video = new CompletableFuture<>();
+        final CompletableFuture<Void> failedVideo = new CompletableFuture<>();
+
+        videoEncodingPool.track(videoPath, video);
+        videoEncodingPool.track(videoPath, failedVideo);
+
+        final CompletableFuture<Void> completion = CompletableFuture.runAsync(videoEncodingPool::awaitCompletion);
+        assertFalse(completion.isDone());
+
+        video.complete(null);
+        failedVideo.completeExceptionally(new RuntimeException("error"));
+
+        assertDoesNotThrow(completion::join);
+    }
+
+    @Test
+    @DisplayName("awaitCompletion should return immediately if there are no pending videos")
+    public void awaitCompletionNoPendingVideos() {
+        assertDoesNotThrow(videoEncodingPool::awaitCompletion);
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.giulong.spectrum.utils.video;
+
+import io.github.giulong.spectrum.utils.Reflections;
+import io.github.giulong.spectrum.utils.video.encoders.H264VideoEncoder;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VideoStream")
+class VideoStreamTest {
+
+    @Mock
+    private Video video;
+
+    @Mock
+    private Path videoPath;
+
+    @Mock
+    private File videoFile;
+
+    @Mock
+    private VideoEncoder videoEncoder;
+
+    @Mock
+    private VideoEncoder.Encoding encoder;
+
+    @Captor
+    private ArgumentCaptor<BufferedImage> bufferedImageArgumentCaptor;
+
+    private VideoStream videoStream;
+
+    @BeforeEach
+    public void beforeEach() {
+        videoStream = new VideoStream(video, videoPath);
+    }
+
+    private static String screenshotOf(final int width, final int height) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        ImageIO.write(new BufferedImage(width, height, TYPE_INT_RGB), "png", outputStream);
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    @Test
+    @DisplayName("push should encode frames in background, and finish should finalize the video")
+    public void pushAndFinish() throws IOException {
+        final Path path = Files.createTempFile("video", ".mp4");
+        final VideoStream realVideoStream = new VideoStream(video, path);
+        path.toFile().deleteOnExit();
+        when(video.getEncoder()).thenReturn(new H264VideoEncoder());
+        when(video.getFrameRate()).thenReturn(1);
+
+        realVideoStream.push(screenshotOf(3, 5));
+        realVideoStream.push("not base64!");
+        realVideoStream.push(screenshotOf(3, 5));
+        realVideoStream.finish().join();
+
+        assertEquals(2, Reflections.getFieldValue("frames", realVideoStream));
+        assertTrue(Files.size(path) > 0);
+    }
+
+    @Test
+    @DisplayName("encode should draw each frame in the same resize buffer")
+    public void encode() throws IOException {
+        when(videoPath.toFile()).thenReturn(videoFile);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(1);
+        when(videoEncoder.open(videoFile, 1)).thenReturn(encoder);
+
+        videoStream.encode(screenshotOf(3, 5));
+        videoStream.encode(screenshotOf(3, 5));
+
+        verify(encoder, times(2)).encodeImage(bufferedImageArgumentCaptor.capture());
+
+        final BufferedImage first = bufferedImageArgumentCaptor.getAllValues().getFirst();
+        assertSame(first, bufferedImageArgumentCaptor.getAllValues().get(1));
+        assertEquals(4, first.getWidth());
+        assertEquals(6, first.getHeight());
+    }
+
+    @Test
+    @DisplayName("close should add the no-video.png if no frames were pushed")
+    public void closeNoFrames() throws IOException {
+        when(videoPath.toFile()).thenReturn(videoFile);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(1);
+        when(videoEncoder.open(videoFile, 1)).thenReturn(encoder);
+
+        videoStream.close();
+
+        verify(encoder).encodeImage(any());
+        verify(encoder).finish();
+    }
+
+    @DisplayName("open should size the video according to the configuration, falling back to the first frame's size")
+    @ParameterizedTest(name = "with width {0} and height {1} we expect {2}x{3}")
+    @MethodSource("dimensionProvider")
+    public void open(final int width, final int height, final int expectedWidth, final int expectedHeight) throws IOException {
+        when(video.getWidth()).thenReturn(width);
+        when(video.getHeight()).thenReturn(height);
+        when(videoPath.toFile()).thenReturn(videoFile);
+        when(video.getEncoder()).thenReturn(videoEncoder);
+        when(video.getFrameRate()).thenReturn(1);
+        when(videoEncoder.open(videoFile, 1)).thenReturn(encoder);
+
+        videoStream.encode(new BufferedImage(7, 9, TYPE_INT_RGB));
+
+        verify(encoder).encodeImage(bufferedImageArgumentCaptor.capture());
+        assertEquals(expectedWidth, bufferedImageArgumentCaptor.getValue().getWidth());
+        assertEquals(expectedHeight, bufferedImageArgumentCaptor.getValue().getHeight());
+    }
+
+    public static Stream<Arguments> dimensionProvider() {
+        return Stream.of(
+                arguments(0, 0, 8, 10),
+                arguments(3, 0, 4, 10),
+                arguments(0, 4, 8, 4),
+                arguments(5, 4, 6, 4)
+        );
+    }
+
+    @DisplayName("makeItEven should increment the provided int if it's odd")
+    @ParameterizedTest(name = "with i {0} we expect {1}")
+    @MethodSource("valuesProvider")
+    public void makeItEven(final int i, final int expected) {
+        assertEquals(expected, videoStream.makeItEven(i));
+    }
+
+    public static Stream<Arguments> valuesProvider() {
+        return Stream.of(
+                arguments(0, 0),
+                arguments(1, 2)
+        );
+    }
+}
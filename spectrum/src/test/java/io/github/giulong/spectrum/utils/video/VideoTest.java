@@ -2,26 +2,37 @@ package io.github.giulong.spectrum.utils.video;
 
 import io.github.giulong.spectrum.utils.Reflections;
 import io.github.giulong.spectrum.enums.Frame;
+import io.github.giulong.spectrum.utils.video.encoders.VideoEncoder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.stream.Stream;
 
+import static io.github.giulong.spectrum.enums.Frame.AUTO_AFTER;
 import static io.github.giulong.spectrum.enums.Frame.AUTO_BEFORE;
+import static io.github.giulong.spectrum.enums.Frame.BACKGROUND;
 import static io.github.giulong.spectrum.enums.Frame.MANUAL;
+import static io.github.giulong.spectrum.enums.Frame.SCREENCAST;
+import static io.github.giulong.spectrum.enums.Frame.SCREEN_RECORDING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Video")
 class VideoTest {
 
+    @Mock
+    private VideoEncoder encoder;
+
     @InjectMocks
     private Video video;
 
@@ -40,6 +51,104 @@ class VideoTest {
         );
     }
 
+    @DisplayName("isBackground should check if frames include the background ones")
+    @ParameterizedTest(name = "with frames {0} we expect {1}")
+    @MethodSource("isBackgroundValuesProvider")
+    public void isBackground(final List<Frame> frames, final boolean expected) {
+        Reflections.setField("frames", video, frames);
+        assertEquals(expected, video.isBackground());
+    }
+
+    public static Stream<Arguments> isBackgroundValuesProvider() {
+        return Stream.of(
+                arguments(List.of(AUTO_BEFORE, BACKGROUND), true),
+                arguments(List.of(AUTO_BEFORE), false),
+                arguments(List.of(), false)
+        );
+    }
+
+    @DisplayName("isScreencast should check if frames include the screencast ones")
+    @ParameterizedTest(name = "with frames {0} we expect {1}")
+    @MethodSource("isScreencastValuesProvider")
+    public void isScreencast(final List<Frame> frames, final boolean expected) {
+        Reflections.setField("frames", video, frames);
+        assertEquals(expected, video.isScreencast());
+    }
+
+    public static Stream<Arguments> isScreencastValuesProvider() {
+        return Stream.of(
+                arguments(List.of(MANUAL, SCREENCAST), true),
+                arguments(List.of(BACKGROUND), false),
+                arguments(List.of(), false)
+        );
+    }
+
+    @DisplayName("isTimeBased should check if frames include the background or the screencast ones")
+    @ParameterizedTest(name = "with frames {0} we expect {1}")
+    @MethodSource("isTimeBasedValuesProvider")
+    public void isTimeBased(final List<Frame> frames, final boolean expected) {
+        Reflections.setField("frames", video, frames);
+        assertEquals(expected, video.isTimeBased());
+    }
+
+    public static Stream<Arguments> isTimeBasedValuesProvider() {
+        return Stream.of(
+                arguments(List.of(BACKGROUND), true),
+                arguments(List.of(SCREENCAST), true),
+                arguments(List.of(AUTO_AFTER, MANUAL), false)
+        );
+    }
+
+    @DisplayName("isScreenRecording should check if frames include the screenRecording ones")
+    @ParameterizedTest(name = "with frames {0} we expect {1}")
+    @MethodSource("isScreenRecordingValuesProvider")
+    public void isScreenRecording(final List<Frame> frames, final boolean expected) {
+        Reflections.setField("frames", video, frames);
+        assertEquals(expected, video.isScreenRecording());
+    }
+
+    public static Stream<Arguments> isScreenRecordingValuesProvider() {
+        return Stream.of(
+                arguments(List.of(MANUAL, SCREEN_RECORDING), true),
+                arguments(List.of(SCREENCAST), false),
+                arguments(List.of(), false)
+        );
+    }
+
+    @Test
+    @DisplayName("getExtension should return mp4 for screen recordings")
+    public void getExtensionScreenRecording() {
+        Reflections.setField("frames", video, List.of(SCREEN_RECORDING));
+
+        assertEquals("mp4", video.getExtension());
+    }
+
+    @Test
+    @DisplayName("getExtension should return the encoder's extension for videos made of frames")
+    public void getExtension() {
+        Reflections.setField("frames", video, List.of(AUTO_AFTER));
+        when(encoder.getExtension()).thenReturn("avi");
+
+        assertEquals("avi", video.getExtension());
+    }
+
+    @Test
+    @DisplayName("getFrameRate should return the configured fps for background videos")
+    public void getFrameRateBackground() {
+        Reflections.setField("frames", video, List.of(BACKGROUND));
+        Reflections.setField("fps", video, 4);
+
+        assertEquals(4, video.getFrameRate());
+    }
+
+    @Test
+    @DisplayName("getFrameRate should return the default frame rate for videos made of frames taken upon events")
+    public void getFrameRate() {
+        Reflections.setField("frames", video, List.of(AUTO_BEFORE));
+
+        assertEquals(1, video.getFrameRate());
+    }
+
     @DisplayName("shouldRecord should check if the provided frame name should be recorded")
     @ParameterizedTest(name = "with frames {0} we expect {1}")
     @MethodSource("shouldRecordValuesProvider")
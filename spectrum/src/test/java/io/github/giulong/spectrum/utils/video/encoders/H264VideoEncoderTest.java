@@ -0,0 +1,83 @@
+package io.github.giulong.spectrum.utils.video.encoders;
+
+import org.jcodec.api.awt.AWTSequenceEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("H264VideoEncoder")
+class H264VideoEncoderTest {
+
+    private MockedStatic<AWTSequenceEncoder> awtSequenceEncoderMockedStatic;
+
+    @Mock
+    private File file;
+
+    @Mock
+    private AWTSequenceEncoder awtSequenceEncoder;
+
+    @Mock
+    private BufferedImage bufferedImage;
+
+    @InjectMocks
+    private H264VideoEncoder h264VideoEncoder;
+
+    @BeforeEach
+    public void beforeEach() {
+        awtSequenceEncoderMockedStatic = mockStatic(AWTSequenceEncoder.class);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        awtSequenceEncoderMockedStatic.close();
+    }
+
+    @Test
+    @DisplayName("getExtension should return mp4")
+    public void getExtension() {
+        assertEquals("mp4", h264VideoEncoder.getExtension());
+    }
+
+    @Test
+    @DisplayName("getMimeType should return video/mp4")
+    public void getMimeType() {
+        assertEquals("video/mp4", h264VideoEncoder.getMimeType());
+    }
+
+    @Test
+    @DisplayName("open should return an encoding delegating to the AWTSequenceEncoder")
+    public void open() throws IOException {
+        awtSequenceEncoderMockedStatic.when(() -> AWTSequenceEncoder.createSequenceEncoder(file, 1)).thenReturn(awtSequenceEncoder);
+
+        final VideoEncoder.Encoding encoding = h264VideoEncoder.open(file);
+        encoding.encodeImage(bufferedImage);
+        encoding.finish();
+
+        verify(awtSequenceEncoder).encodeImage(bufferedImage);
+        verify(awtSequenceEncoder).finish();
+    }
+
+    @Test
+    @DisplayName("open should create the AWTSequenceEncoder with the provided frame rate")
+    public void openFrameRate() throws IOException {
+        awtSequenceEncoderMockedStatic.when(() -> AWTSequenceEncoder.createSequenceEncoder(file, 4)).thenReturn(awtSequenceEncoder);
+
+        h264VideoEncoder.open(file, 4).finish();
+
+        verify(awtSequenceEncoder).finish();
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.giulong.spectrum.utils.video.encoders;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DisplayName("MjpegVideoEncoder")
+class MjpegVideoEncoderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final MjpegVideoEncoder mjpegVideoEncoder = new MjpegVideoEncoder();
+
+    private static String fourCcAt(final byte[] bytes, final int offset) {
+        return new String(bytes, offset, 4, US_ASCII);
+    }
+
+    private static int intAt(final byte[] bytes, final int offset) {
+        return ByteBuffer.wrap(bytes, offset, Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private static BufferedImage frameOf(final int width, final int height, final int type, final Color color) {
+        final BufferedImage bufferedImage = new BufferedImage(width, height, type);
+        final Graphics2D graphics2D = bufferedImage.createGraphics();
+
+        graphics2D.setColor(color);
+        graphics2D.fillRect(0, 0, width, height);
+        graphics2D.dispose();
+
+        return bufferedImage;
+    }
+
+    @Test
+    @DisplayName("getExtension should return avi")
+    public void getExtension() {
+        assertEquals("avi", mjpegVideoEncoder.getExtension());
+    }
+
+    @Test
+    @DisplayName("getMimeType should return video/x-msvideo")
+    public void getMimeType() {
+        assertEquals("video/x-msvideo", mjpegVideoEncoder.getMimeType());
+    }
+
+    @Test
+    @DisplayName("getQuality should return the default quality")
+    public void getQuality() {
+        assertEquals(0.7f, mjpegVideoEncoder.getQuality());
+    }
+
+    @Test
+    @DisplayName("open should return an encoding writing all the frames in a valid avi file")
+    public void open() throws IOException {
+        final File file = tempDir.resolve("video.avi").toFile();
+        final VideoEncoder.Encoding encoding = mjpegVideoEncoder.open(file);
+
+        encoding.encodeImage(frameOf(4, 6, TYPE_INT_RGB, Color.RED));
+        encoding.encodeImage(frameOf(4, 6, TYPE_INT_ARGB, Color.BLUE));
+        encoding.encodeImage(frameOf(4, 6, TYPE_INT_RGB, Color.GREEN));
+        encoding.finish();
+
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        assertEquals("RIFF", fourCcAt(bytes, 0));
+        assertEquals(bytes.length - 8, intAt(bytes, 4));
+        assertEquals("AVI ", fourCcAt(bytes, 8));
+        assertEquals(1_000_000, intAt(bytes, 32));
+        assertEquals(3, intAt(bytes, 48));
+        assertEquals(4, intAt(bytes, 64));
+        assertEquals(6, intAt(bytes, 68));
+        assertEquals("MJPG", fourCcAt(bytes, 112));
+        assertEquals(1, intAt(bytes, 132));
+        assertEquals(3, intAt(bytes, 140));
+        assertEquals("movi", fourCcAt(bytes, 220));
+        assertEquals("00dc", fourCcAt(bytes, 224));
+
+        final int moviSize = intAt(bytes, 216);
+        final int indexOffset = 220 + moviSize;
+        assertEquals("idx1", fourCcAt(bytes, indexOffset));
+        assertEquals(3 * 16, intAt(bytes, indexOffset + 4));
+        assertEquals(bytes.length, indexOffset + 8 + 3 * 16);
+
+        // each index entry points to its own 00dc chunk, relative to the movi fourcc
+        for (int i = 0; i < 3; i++) {
+            final int chunkOffset = 220 + intAt(bytes, indexOffset + 8 + i * 16 + 8);
+            assertEquals("00dc", fourCcAt(bytes, chunkOffset));
+            assertEquals(intAt(bytes, indexOffset + 8 + i * 16 + 12), intAt(bytes, chunkOffset + 4));
+        }
+    }
+
+    @Test
+    @DisplayName("open should write the provided frame rate in the avi headers")
+    public void openFrameRate() throws IOException {
+        final File file = tempDir.resolve("video.avi").toFile();
+        final VideoEncoder.Encoding encoding = mjpegVideoEncoder.open(file, 4);
+
+        encoding.encodeImage(frameOf(4, 6, TYPE_INT_RGB, Color.RED));
+        encoding.finish();
+
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        assertEquals(250_000, intAt(bytes, 32));
+        assertEquals(4, intAt(bytes, 132));
+    }
+
+    @Test
+    @DisplayName("toRgb should return the provided image if it's already rgb, or convert it otherwise")
+    public void toRgb() throws IOException {
+        final MjpegVideoEncoder.MjpegEncoding encoding = new MjpegVideoEncoder.MjpegEncoding(tempDir.resolve("video.avi").toFile(), 0.5f, 1);
+        final BufferedImage rgb = frameOf(2, 2, TYPE_INT_RGB, Color.RED);
+        final BufferedImage argb = frameOf(2, 2, TYPE_INT_ARGB, Color.RED);
+
+        assertSame(rgb, encoding.toRgb(rgb));
+
+        final BufferedImage converted = encoding.toRgb(argb);
+        assertEquals(TYPE_INT_RGB, converted.getType());
+        assertEquals(Color.RED.getRGB(), converted.getRGB(1, 1));
+
+        encoding.finish();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("benchmark comparing the h264 and mjpeg encoders")
+    public void benchmark() throws IOException {
+        final int frames = 30;
+        final BufferedImage[] images = new BufferedImage[frames];
+
+        for (int i = 0; i < frames; i++) {
+            images[i] = frameOf(1280, 720, TYPE_INT_RGB, new Color(i * 8, 255 - i * 8, 128));
+            final Graphics2D graphics2D = images[i].createGraphics();
+            graphics2D.setColor(Color.BLACK);
+            graphics2D.drawString("frame " + i, 100 + i * 10, 100 + i * 5);
+            graphics2D.dispose();
+        }
+
+        for (VideoEncoder videoEncoder : new VideoEncoder[]{new H264VideoEncoder(), mjpegVideoEncoder}) {
+            final File file = tempDir.resolve("benchmark." + videoEncoder.getExtension()).toFile();
+            final long start = System.nanoTime();
+            final VideoEncoder.Encoding encoding = videoEncoder.open(file);
+
+            for (BufferedImage image : images) {
+                encoding.encodeImage(image);
+            }
+            encoding.finish();
+
+            log.info("{} encoded {} frames in {} ms, {} bytes", videoEncoder.getClass().getSimpleName(), frames,
+                    NANOSECONDS.toMillis(System.nanoTime() - start), Files.size(file.toPath()));
+        }
+    }
+}